@@ -1,15 +1,25 @@
 import presentation.UIController;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 
 /**
- * Main Class
+ * Main Class. with --record <file> the run is recorded into a replay file, with --replay <file> a recorded run is
+ * replayed without showing anything
  */
 public class Main {
 
     public static void main(String[] args) throws IOException {
 
-        new UIController().startProgram();
+        if (args.length == 2 && args[0].equals("--replay")) {
+            UIController.replay(Paths.get(args[1]));
+        }
+        else if (args.length == 2 && args[0].equals("--record")) {
+            UIController.record(Paths.get(args[1])).startProgram();
+        }
+        else {
+            new UIController().startProgram();
+        }
 
 
     }
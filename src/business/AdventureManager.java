@@ -2,22 +2,27 @@ package business;
 
 import business.entities.*;
 import business.entities.Character;
-import business.entities.Classes.*;
 import persistence.API.AdventureApiDAO;
 import persistence.API.CharacterApiDAO;
-import persistence.API.MonsterApiDAO;
 import persistence.AdventureDAO;
 import persistence.AdventureDAO;
 import persistence.CharacterDAO;
-import persistence.JSON.AdventureJsonDAO;
+import persistence.DataDirectory;
+import persistence.Binary.AdventureBinaryDAO;
+import persistence.Binary.CharacterBinaryDAO;
+import persistence.JSON.AdventureCacheJsonDAO;
+import persistence.JSON.AdventureShardedJsonDAO;
 import persistence.JSON.CharacterJsonDAO;
-import persistence.JSON.MonstersJsonDAO;
-import persistence.MonsterDAO;
 
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.IllegalFormatCodePointException;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * manages adventure related features logic
@@ -25,14 +30,31 @@ import java.util.Objects;
  */
 public class AdventureManager {
 
+    /**
+     * writes the adventures being played in the background. the interval (milliseconds) and the amount of changes
+     * after which it writes can be set with the adventure.flush.interval and adventure.flush.threshold properties
+     */
+    private static final WriteBehindFlusher flusher = new WriteBehindFlusher(
+            Long.getLong("adventure.flush.interval", 1000), Integer.getInteger("adventure.flush.threshold", 64));
+
+    /**
+     * directory of the hit point files of the local adventures being played
+     */
+    private static final Path hitPointDirectory = DataDirectory.get().resolve("hitpoints");
+
     private final CharacterManager characterManager;
     private final AdventureDAO adventureJsonDAO;
     private final AdventureDAO adventureApiDAO;
     private final CharacterDAO characterJsonDao;
     private final CharacterDAO characterApiDAO;
-    private final MonsterDAO monstersJsonDAO;
-    private final MonsterDAO monstersApiDAO;
+    private final MonsterManager monsterManager;
     private boolean local;
+    private CombatSession session;
+    private CombatLog combatLog;
+    /**
+     * character data access object of the storage of the last combat session, used to replay its log
+     */
+    private CharacterDAO combatLogDAO;
 
     /**
      * check if data storage is local or in cloud
@@ -53,16 +75,221 @@ public class AdventureManager {
 
 
     /**
-     * constructor
+     * constructor. the local adventures are read from the binary file once they have been imported to it, or from
+     * their sharded layout once they have been migrated to it
      */
     public AdventureManager() {
-        adventureJsonDAO = new AdventureJsonDAO();
+        if (AdventureBinaryDAO.exists()) {
+            adventureJsonDAO = new AdventureBinaryDAO();
+        } else if (AdventureShardedJsonDAO.exists()) {
+            adventureJsonDAO = new AdventureShardedJsonDAO();
+        } else {
+            adventureJsonDAO = new AdventureCacheJsonDAO();
+        }
         characterManager = new CharacterManager();
-        characterJsonDao = new CharacterJsonDAO();
-        monstersJsonDAO = new MonstersJsonDAO();
+        if (CharacterBinaryDAO.exists()) {
+            characterJsonDao = new CharacterBinaryDAO();
+        } else {
+            characterJsonDao = new CharacterJsonDAO();
+        }
+        monsterManager = new MonsterManager();
         adventureApiDAO = new AdventureApiDAO();
-        monstersApiDAO = new MonsterApiDAO();
         characterApiDAO = new CharacterApiDAO();
+        recoverCombatSessions();
+    }
+
+    /**
+     * constructor for the simulations, which play their adventures in combat sessions that are never stored: it opens
+     * no adventure store and recovers no combat session, so any number of them can be built at once
+     * @param characterDAO data access object used to give their class to the characters
+     */
+    private AdventureManager(CharacterDAO characterDAO) {
+        adventureJsonDAO = null;
+        adventureApiDAO = null;
+        characterJsonDao = characterDAO;
+        characterApiDAO = null;
+        characterManager = new CharacterManager();
+        monsterManager = new MonsterManager();
+    }
+
+    /**
+     * creates a manager for the simulations, whose only adventures are the ones given to
+     * {@link #startCombatSession(Adventure)}
+     * @return the manager
+     */
+    static AdventureManager forSimulation() {
+        return new AdventureManager(new CharacterJsonDAO());
+    }
+
+    /**
+     * writes the hit points of the local combat sessions that were not closed, such as when the program was killed,
+     * to the local adventures
+     */
+    private void recoverCombatSessions() {
+        if (!Files.isDirectory(hitPointDirectory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(hitPointDirectory, "*.hp")) {
+            for (Path file : files) {
+                CombatSession.recover(file, adventureJsonDAO, characterJsonDao);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * gets the path of the hit point file of a local adventure
+     * @param adventure_name name of the adventure
+     * @return the path of the hit point file
+     */
+    private static Path hitPointPath(String adventure_name) {
+        String name = adventure_name.replaceAll("[^A-Za-z0-9_-]", "_");
+        return hitPointDirectory.resolve(name + "-" + Integer.toHexString(adventure_name.hashCode()) + ".hp");
+    }
+
+    /**
+     * starts a combat session for an adventure so the combat never waits for the storage. locally, the hit points
+     * are kept in a memory-mapped file and only the changes of the characters and monsters are written to the
+     * storage. in the cloud, the changes are written in the background
+     * @param currentAdventure name of the adventure
+     */
+    public void startCombatSession(String currentAdventure) {
+        endCombatSession();
+        if (isLocal()) {
+            session = new CombatSession(adventureJsonDAO, adventureJsonDAO.getAdventureByName(currentAdventure), characterJsonDao, hitPointPath(currentAdventure));
+        }
+        else {
+            session = new CombatSession(adventureApiDAO, adventureApiDAO.getAdventureByName(currentAdventure), 0, flusher);
+        }
+        combatLog = session.getLog();
+        combatLogDAO = isLocal() ? characterJsonDao : characterApiDAO;
+    }
+
+    /**
+     * starts a combat session for an adventure that is never written to the storage, used for simulations
+     * @param adventure the adventure to play
+     */
+    public void startCombatSession(Adventure adventure) {
+        session = new CombatSession(null, adventure, 0);
+        combatLog = session.getLog();
+    }
+
+    /**
+     * writes the state of the current combat session to the storage
+     */
+    public void flushCombatSession() {
+        if (session != null) {
+            session.flush();
+        }
+    }
+
+    /**
+     * gets the amount of events in the log of the combat session being played
+     * @return the amount of events, -1 if no combat session keeping a log is being played
+     */
+    public int getCombatLogSize() {
+        if (session == null || combatLog == null) {
+            return -1;
+        }
+        return combatLog.size();
+    }
+
+    /**
+     * rebuilds the adventure of the combat session being played as it was after an amount of its events, only from
+     * its log, so it does not depend on the state kept by the session, such as when the session stops on an error
+     * @param events amount of events, from 0 to {@link #getCombatLogSize()}
+     * @return the adventure, null if no combat session keeping a log is being played
+     */
+    public Adventure replayCombatLog(int events) {
+        if (session == null || combatLog == null) {
+            return null;
+        }
+        return combatLog.replay(events, combatLogDAO);
+    }
+
+    /**
+     * flushes and closes the current combat session
+     */
+    public void endCombatSession() {
+        if (session != null) {
+            session.close();
+            session = null;
+        }
+    }
+
+    /**
+     * checks if the adventure is being held by the current combat session
+     * @param adventure_name name of the adventure
+     * @return true if there is a combat session for the adventure
+     */
+    private boolean inSession(String adventure_name) {
+        return session != null && session.holds(adventure_name);
+    }
+
+    /**
+     * gets the state of an encounter of the adventure held by the combat session, building it if the encounter starts
+     * @param adventure_name name of the adventure
+     * @param encounter_pos encounter position
+     * @return the state of the encounter, null if there is no combat session for the adventure
+     */
+    private CombatState combatState(String adventure_name, int encounter_pos) {
+        return inSession(adventure_name) ? session.getCombatState(encounter_pos, characterJsonDao) : null;
+    }
+
+    /**
+     * gets the state of the encounter being fought in the adventure held by the combat session
+     * @param adventure_name name of the adventure
+     * @return the state of the encounter, null if no encounter of the adventure is being fought
+     */
+    private CombatState combatState(String adventure_name) {
+        return inSession(adventure_name) ? session.getCombatState() : null;
+    }
+
+    /**
+     * gets an adventure from the combat session if it holds it, or from the storage otherwise
+     * @param adventure_name name of the adventure
+     * @return the adventure
+     */
+    private Adventure loadAdventure(String adventure_name) {
+        if (inSession(adventure_name)) {
+            return session.getAdventure();
+        }
+        if (isLocal()) {
+            return adventureJsonDAO.getAdventureByName(adventure_name);
+        }
+        return adventureApiDAO.getAdventureByName(adventure_name);
+    }
+
+    /**
+     * gets the party of an adventure from the combat session if it holds it, or from the storage otherwise
+     * @param adventure_name name of the adventure
+     * @return the party of the adventure
+     */
+    private List<Party> loadParties(String adventure_name) {
+        if (inSession(adventure_name)) {
+            return session.getParties();
+        }
+        if (isLocal()) {
+            return adventureJsonDAO.getPartyByName(adventure_name);
+        }
+        return adventureApiDAO.getPartyByName(adventure_name);
+    }
+
+    /**
+     * saves an adventure in the combat session if it holds it, or in the storage otherwise
+     * @param adventure the adventure
+     */
+    private void storeAdventure(Adventure adventure) {
+        if (inSession(adventure.getName())) {
+            session.update(adventure);
+        }
+        else if (isLocal()) {
+            adventureJsonDAO.update(adventure);
+        }
+        else {
+            adventureApiDAO.update(adventure);
+        }
     }
 
     /**
@@ -95,13 +322,7 @@ public class AdventureManager {
      * @return all monsters in a specific encounter of a specific adventure
      */
     public List<String> getMonsterNamesInEncounter(int i, String adventure_name) {
-        Adventure adventure;
-        if (isLocal()) {
-             adventure = adventureJsonDAO.getAdventureByName(adventure_name);
-        }
-        else {
-            adventure = adventureApiDAO.getAdventureByName(adventure_name);
-        }
+        Adventure adventure = loadAdventure(adventure_name);
         if (adventure == null) {
             return new ArrayList<>(0);
         }
@@ -132,13 +353,7 @@ public class AdventureManager {
      * @return how many monsters of name given in the parameter are there in the encounter
      */
     public int occurrenceMonsterInEncounter(int i, String adventure_name, String monster) {
-        Adventure adventure;
-        if (isLocal()) {
-            adventure = adventureJsonDAO.getAdventureByName(adventure_name);
-        }
-        else{
-            adventure = adventureApiDAO.getAdventureByName(adventure_name);
-        }
+        Adventure adventure = loadAdventure(adventure_name);
 
         if (adventure == null) {
             return 0;
@@ -159,21 +374,41 @@ public class AdventureManager {
      * @return if the party member is found it returns the Party object of it. If not returns null.
      */
     public Party getPartyMemberByName(String currentAdventure, String partyName){
-        List<Party> parties;
-        if (isLocal()) {
-            parties = adventureJsonDAO.getPartyByName(currentAdventure);
-        }
-        else {
-            parties = adventureApiDAO.getPartyByName(currentAdventure);
+        CombatState state = combatState(currentAdventure);
+        if (state != null) {
+            int party_pos = state.findPartyMember(partyName);
+            return party_pos < 0 ? null : state.getParty(party_pos);
         }
+        List<Party> parties = loadParties(currentAdventure);
         for(Party p: parties){
-            if(Objects.equals(p.getCharacter(characterJsonDao).getName(), partyName)){
+            if(Objects.equals(p.getCharacter().getName(), partyName)){
                 return p;
             }
         }
         return null;
     }
 
+    /**
+     * gets a monster of an encounter by its name
+     * @param currentAdventure adventure being played
+     * @param encounter_pos encounter position
+     * @param name name of the monster
+     * @return the first monster with the given name in the encounter, null if there is none
+     */
+    public Monster getMonsterInEncounter(String currentAdventure, int encounter_pos, String name) {
+        CombatState state = combatState(currentAdventure, encounter_pos);
+        if (state != null) {
+            int monster_pos = state.findMonster(name);
+            return monster_pos < 0 ? null : state.getMonster(monster_pos);
+        }
+        for (Monster monster : loadAdventure(currentAdventure).getEncounters().get(encounter_pos)) {
+            if (Objects.equals(monster.getName(), name)) {
+                return monster;
+            }
+        }
+        return null;
+    }
+
     /**
      * when adding monsters is that the system won’t allow for the addition of
      * more than one monster with the Boss difficulty rating
@@ -193,7 +428,7 @@ public class AdventureManager {
         for (Adventure adventure:adventures) {
             if (Objects.equals(adventure.getName(), currentMonster)) {
                 for (int i=0;i < adventure.getEncounters().get(currentEncounter-1).size();i++) {
-                    if (Objects.equals(adventure.getEncounters().get(currentEncounter - 1).get(i).getChallenge(), "Boss")) {
+                    if (adventure.getEncounters().get(currentEncounter - 1).get(i).isBoss()) {
                         return false;
                     }
                 }
@@ -210,14 +445,9 @@ public class AdventureManager {
      * @param monstersToAdd monsters to be added in the encounter of the adventure
      */
     public void updateAdventure(String adventure_name, int i, List<Monster> monstersToAdd) {
-        Adventure adventure;
-        if (isLocal()) {
-            adventure = adventureJsonDAO.getAdventureByName(adventure_name);
-        }
-        else{
-            adventure = adventureApiDAO.getAdventureByName(adventure_name);
-        }
-        List<Monster> monsters = adventure.getEncounters().get(i);
+        Adventure adventure = loadAdventure(adventure_name);
+        // the loaded adventure may be the one cached by the data access object, so its encounter is not modified
+        List<Monster> monsters = new ArrayList<>(adventure.getEncounters().get(i));
         monsters.addAll(monstersToAdd);
         List<List<Monster>> new_monsters = new ArrayList<>(adventure.getNum_encounters());
         for (int k=0;k< adventure.getNum_encounters();k++) {
@@ -232,12 +462,7 @@ public class AdventureManager {
             }
         }
         Adventure new_adventure = new Adventure(adventure.getName(), adventure.getNum_encounters(), new_monsters);
-        if (isLocal()) {
-            adventureJsonDAO.update(new_adventure);
-        }
-        else {
-            adventureApiDAO.update(new_adventure);
-        }
+        storeAdventure(new_adventure);
     }
 
 
@@ -266,13 +491,7 @@ public class AdventureManager {
      * @param monster_name the monster to be deleted
      */
     public void deleteMonster(String adventure_name, int encounterIndex, String monster_name){
-        Adventure adventure;
-        if (isLocal()) {
-            adventure = adventureJsonDAO.getAdventureByName(adventure_name);
-        }
-        else {
-            adventure = adventureApiDAO.getAdventureByName(adventure_name);
-        }
+        Adventure adventure = loadAdventure(adventure_name);
         List<List<Monster>> new_monsters = new ArrayList<>(adventure.getNum_encounters());
         List<Monster> monsters = adventure.getEncounters().get(encounterIndex);
         List<Monster> monsters_updated =new ArrayList<>();
@@ -293,11 +512,7 @@ public class AdventureManager {
             }
         }
         Adventure new_adventure = new Adventure(adventure.getName(), adventure.getNum_encounters(), new_monsters);
-        if (isLocal()) {
-            adventureJsonDAO.update(new_adventure);
-        }else {
-            adventureApiDAO.update(new_adventure);
-        }
+        storeAdventure(new_adventure);
     }
 
 
@@ -324,6 +539,9 @@ public class AdventureManager {
      * @return how many encounters there is in this adventure
      */
     public int getNumOfEncountersByName(String currentAdventure) {
+        if (inSession(currentAdventure)) {
+            return session.getAdventure().getNum_encounters();
+        }
         if (isLocal()) {
             return adventureJsonDAO.getNumOfEncountersByName(currentAdventure);
         }
@@ -337,6 +555,13 @@ public class AdventureManager {
      * @return all monsters in a specific encounter of a specific adventure
      */
     public List<String> getMonsterNamesInEncounterUnfiltered(int i, String currentAdventure) {
+        if (inSession(currentAdventure)) {
+            List<String> names = new ArrayList<>();
+            for (Monster monster : session.getAdventure().getEncounters().get(i)) {
+                names.add(monster.getName());
+            }
+            return names;
+        }
         if (isLocal()) {
             return adventureJsonDAO.getMonstersInEncounter(i, currentAdventure);
         }
@@ -349,30 +574,24 @@ public class AdventureManager {
      * @param parties_inx an array that contains in each position the position of a character
      */
     public void updateParty(String currentAdventure, int[] parties_inx) {
-        Adventure adventure;
         characterManager.setLocal(isLocal());
-        if (isLocal()) {
-            adventure = adventureJsonDAO.getAdventureByName(currentAdventure);
-        }
-        else {
-            adventure = adventureApiDAO.getAdventureByName(currentAdventure);
-        }
+        Adventure adventure = loadAdventure(currentAdventure);
         List<Character> characterList = characterManager.getCharactersByIndexes(parties_inx);
+        storeAdventure(assembleParty(adventure, characterList));
+    }
 
+    /**
+     * creates a copy of an adventure whose party is made of the given characters, all of them at their maximum hit points
+     * @param adventure the adventure
+     * @param characters the characters of the party
+     * @return a new adventure with the given party
+     */
+    public Adventure assembleParty(Adventure adventure, List<Character> characters) {
         List<Party> parties = new ArrayList<>();
-        List<Integer> hit_points = characterManager.getMaxHitPointsByindex(parties_inx);
-
-        for (int i=0;i< parties_inx.length;i++) {
-            Character c = characterList.get(i);
-            parties.add(new Party(characterJsonDao.assignClass(c.getName(),c.getPlayer(),c.getXp(),c.getBody(),c.getMind(),c.getSpirit(),c.getCharClass(),0), hit_points.get(i),characterJsonDao,0));
-        }
-        Adventure new_adventure = new Adventure(adventure.getName(), adventure.getNum_encounters(), adventure.getEncounters(), parties);
-        if (isLocal()) {
-            adventureJsonDAO.update(new_adventure);
-        }
-        else {
-            adventureApiDAO.update(new_adventure);
+        for (Character c : characters) {
+            parties.add(new Party(characterJsonDao.assignClass(c.getName(),c.getPlayer(),c.getXp(),c.getBody(),c.getMind(),c.getSpirit(),c.getCharClass(),0), characterManager.getMaxHitPoints(c),characterJsonDao,0));
         }
+        return new Adventure(adventure.getName(), adventure.getNum_encounters(), adventure.getEncounters(), parties);
     }
 
     /**
@@ -381,24 +600,13 @@ public class AdventureManager {
      * @param parties_inx array of character's positions
      */
     public void updatePartyInPrepStage(String currentAdventure, int[] parties_inx) {
-        Adventure adventure;
-        if (isLocal()) {
-            adventure = adventureJsonDAO.getAdventureByName(currentAdventure);
-        }
-        else {
-            adventure = adventureApiDAO.getAdventureByName(currentAdventure);
-        }
+        Adventure adventure = loadAdventure(currentAdventure);
         List<Party> parties = new ArrayList<>();
         for (int i=0;i< parties_inx.length;i++) {
-            Character character = adventure.getParties().get(i).getCharacter(characterJsonDao);
+            Character character = adventure.getParties().get(i).getCharacter();
             parties = character.preparationStageAction(adventure.getParties(),character.getName(),characterJsonDao);
             Adventure new_adventure = new Adventure(adventure.getName(), adventure.getNum_encounters(), adventure.getEncounters(), parties);
-            if (isLocal()) {
-                adventureJsonDAO.update(new_adventure);
-            }
-            else {
-                adventureApiDAO.update(new_adventure);
-            }
+            storeAdventure(new_adventure);
         }
     }
 
@@ -409,26 +617,15 @@ public class AdventureManager {
      * @param parties_inx array of character's positions
      */
     public void updatePartyInShortRestStage(String currentAdventure, int[] parties_inx){
-        Adventure adventure;
-        if (isLocal()) {
-            adventure = adventureJsonDAO.getAdventureByName(currentAdventure);
-        }
-        else {
-            adventure = adventureApiDAO.getAdventureByName(currentAdventure);
-        }
+        Adventure adventure = loadAdventure(currentAdventure);
 
         List<Party> parties = new ArrayList<>();
 
         for (int i = 0; i < parties_inx.length; i++) {
-            Character character = adventure.getParties().get(i).getCharacter(characterJsonDao);
+            Character character = adventure.getParties().get(i).getCharacter();
             parties = character.shortRestAction(adventure.getParties(),character.getName(),characterJsonDao);
             Adventure new_adventure = new Adventure(adventure.getName(), adventure.getNum_encounters(), adventure.getEncounters(), parties);
-            if (isLocal()) {
-                adventureJsonDAO.update(new_adventure);
-            }
-            else {
-                adventureApiDAO.update(new_adventure);
-            }
+            storeAdventure(new_adventure);
         }
     }
 
@@ -441,6 +638,9 @@ public class AdventureManager {
      * @return true if combatant is a monster
      */
     public boolean isCombatantMonster(String currentAdventure, int encounter_pos, String name) {
+        if (inSession(currentAdventure)) {
+            return session.isMonsterInEncounter(encounter_pos, name);
+        }
         if (isLocal()) {
             return adventureJsonDAO.isNameMonster(currentAdventure, encounter_pos, name);
         }
@@ -459,19 +659,20 @@ public class AdventureManager {
     public int takeAttackActionCharacter(String currentAdventure, String name, int currentAliveMonsters, int needHealing) {
         int damage = 0;
 
-        List<Party> parties;
-        if (isLocal()) {
-            parties = adventureJsonDAO.getPartyByName(currentAdventure);
-        }
-        else {
-            parties = adventureApiDAO.getPartyByName(currentAdventure);
+        CombatState state = combatState(currentAdventure);
+        if (state != null) {
+            int party_pos = state.findPartyMember(name);
+            if (party_pos >= 0) {
+                Character character = state.getCharacter(party_pos);
+                damage = character.doAction() + character.doAction(needHealing,currentAliveMonsters);
+            }
+            return damage;
         }
-        Character character;
-        for(Party p: parties){
-            if(Objects.equals(p.getCharacter(characterJsonDao).getName(), name)){
-                Character c = p.getCharacter(characterJsonDao);
-                character = characterJsonDao.assignClass(c.getName(),c.getPlayer(),c.getXp(),c.getBody(),c.getMind(),c.getSpirit(),c.getCharClass(),0);
 
+        List<Party> parties = loadParties(currentAdventure);
+        for(Party p: parties){
+            if(Objects.equals(p.getCharacter().getName(), name)){
+                Character character = p.getCharacter();
                 damage = character.doAction() + character.doAction(needHealing,currentAliveMonsters);
             }
         }
@@ -486,22 +687,21 @@ public class AdventureManager {
      */
 
     public int checkPartyHalfHp(String currentAdventure, List<Integer> maxHitPoints){
-        int i=0;
-        if (isLocal()) {
-            for (Party c : adventureJsonDAO.getPartyByName(currentAdventure)) {
-                if (c.getHitPoint() < maxHitPoints.get(i) / 2) {
+        CombatState state = combatState(currentAdventure);
+        if (state != null) {
+            for (int i = 0; i < state.getPartySize(); i++) {
+                if (state.getHitPoint(i) < maxHitPoints.get(i) / 2) {
                     return 1;
                 }
-                i++;
             }
+            return 0;
         }
-        else {
-            for (Party c : adventureApiDAO.getPartyByName(currentAdventure)) {
-                if (c.getHitPoint() < maxHitPoints.get(i) / 2) {
-                    return 1;
-                }
-                i++;
+        int i=0;
+        for (Party c : loadParties(currentAdventure)) {
+            if (c.getHitPoint() < maxHitPoints.get(i) / 2) {
+                return 1;
             }
+            i++;
         }
         return 0;
     }
@@ -512,22 +712,21 @@ public class AdventureManager {
      */
 
     public boolean checkHealingNeeded(String currentAdventure, List<Integer> maxHitPoints){
-        int i=0;
-        if (isLocal()) {
-            for (Party c : adventureJsonDAO.getPartyByName(currentAdventure)) {
-                if (c.getHitPoint() < maxHitPoints.get(i)) {
+        CombatState state = combatState(currentAdventure);
+        if (state != null) {
+            for (int i = 0; i < state.getPartySize(); i++) {
+                if (state.getHitPoint(i) < maxHitPoints.get(i)) {
                     return true;
                 }
-                i++;
             }
+            return false;
         }
-        else {
-            for (Party c : adventureApiDAO.getPartyByName(currentAdventure)) {
-                if (c.getHitPoint() < maxHitPoints.get(i)) {
-                    return true;
-                }
-                i++;
+        int i=0;
+        for (Party c : loadParties(currentAdventure)) {
+            if (c.getHitPoint() < maxHitPoints.get(i)) {
+                return true;
             }
+            i++;
         }
         return false;
     }
@@ -541,13 +740,16 @@ public class AdventureManager {
      */
     public int  takeAttackActionMonster(String currentAdventure, int encounter_pos, String name) {
         int max;
-        if (isLocal()) {
+        if (inSession(currentAdventure)) {
+            max = session.getDamageDice(encounter_pos, name);
+        }
+        else if (isLocal()) {
             max = adventureJsonDAO.getDamageDiceByName(currentAdventure, encounter_pos, name);
         }
         else {
             max = adventureApiDAO.getDamageDiceByName(currentAdventure, encounter_pos, name);
         }
-        return (int)Math.floor(Math.random() * (max) + 1);
+        return Dice.roll(max);
     }
 
     /**
@@ -567,6 +769,10 @@ public class AdventureManager {
      * @return true if all the monsters in an encounter are dead or if all the party is unconscious, false otherwise
      */
     public boolean isCombatEnd(String currentAdventure, int encounter_pos) {
+        CombatState state = combatState(currentAdventure, encounter_pos);
+        if (state != null) {
+            return state.areMonstersAllDead() || state.arePartyAllUnconscious();
+        }
         if (isLocal()) {
             return adventureJsonDAO.areMonstersAllDead(currentAdventure, encounter_pos) || adventureJsonDAO.arePartyAllUnconscious(currentAdventure);
         }
@@ -579,6 +785,9 @@ public class AdventureManager {
      * @return true if the adventure reached a TPU case
      */
     public boolean isTPU(String currentAdventure) {
+        if (inSession(currentAdventure)) {
+            return session.arePartyAllUnconscious();
+        }
         if (isLocal()) {
             return adventureJsonDAO.arePartyAllUnconscious(currentAdventure);
         }else {
@@ -595,127 +804,88 @@ public class AdventureManager {
      * @return returns string stating the consciousness state of the party members
      */
     // attack from Boss Monster
-    public String applyDamageOnAllParty(int damage, String currentAdventure, String damageType){
-        if (isLocal()) {
-            if (adventureJsonDAO.arePartyAllUnconscious(currentAdventure)) {
-                return null;
+    public String applyDamageOnAllParty(int damage, String currentAdventure, DamageType damageType){
+        if (isTPU(currentAdventure)) {
+            return null;
+        }
+        CombatState state = combatState(currentAdventure);
+        if (state != null) {
+            for (int i = 0; i < state.getPartySize(); i++) {
+                applyDamageOnPartyMember(state, i, damage, damageType);
             }
-        }
-        else {
-            if (adventureApiDAO.arePartyAllUnconscious(currentAdventure)) {
-                return null;
+            session.changed();
+            if (state.getPartySize() == 0) {
+                return "";
             }
+            return state.isAlive(0) ? state.getCharacter(0).getName() : state.getCharacter(0).getName() + " falls unconscious";
         }
-        Adventure adventure;
-        if (isLocal()) {
-            adventure = adventureJsonDAO.getAdventureByName(currentAdventure);
-        }
-        else {
-            adventure = adventureApiDAO.getAdventureByName(currentAdventure);
-        }
+        Adventure adventure = loadAdventure(currentAdventure);
         Adventure newAdventure;
-        List<Party> characters;
-        if (isLocal()) {
-            characters = adventureJsonDAO.getPartyByName(currentAdventure);
-        }
-        else{
-            characters = adventureApiDAO.getPartyByName(currentAdventure);
-        }
+        List<Party> characters = loadParties(currentAdventure);
         List<Party> parties = new ArrayList<>();
-        int i=0;
         boolean unconscious = false;
         for(Party p:characters){
-            if(characters.get(i).getCharacter(characterJsonDao) instanceof Warrior || characters.get(i).getCharacter(characterJsonDao) instanceof Champion ){
-                if(Objects.equals(damageType, "Physical")){
-                    if(characters.get(i).getHitPoint() - damage/2 > 0){
-                        parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), characters.get(i).getHitPoint() - damage/2,characterJsonDao,0));
-                    }else{
-                        parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), 0,characterJsonDao,0));
-                        unconscious = true;
-                    }
-                }else{
-                    if(characters.get(i).getHitPoint() - damage > 0){
-                        parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), characters.get(i).getHitPoint() - damage,characterJsonDao,0));
-                    }else{
-                        parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), 0,characterJsonDao,0));
-                        unconscious = true;
-                    }
-                }
-            }
-
-            if(characters.get(i).getCharacter(characterJsonDao) instanceof Paladin){
-                if(Objects.equals(damageType, "Psychical")){
-                    if(characters.get(i).getHitPoint() - damage/2 > 0){
-                        parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), characters.get(i).getHitPoint() - damage/2,characterJsonDao,0));
-                    }else{
-                        parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), 0,characterJsonDao,0));
-                        unconscious = true;
-                    }
-                }else{
-                    if(characters.get(i).getHitPoint() - damage > 0){
-                        parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), characters.get(i).getHitPoint() - damage,characterJsonDao,0));
-                    }else{
-                        parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), 0,characterJsonDao,0));
-                        unconscious = true;
-                    }                        }
-            }
-
-            if(characters.get(i).getCharacter(characterJsonDao) instanceof Wizard){
-                int damageTaken = damage -  characterManager.xpToLevel(characters.get(i).getCharacter(characterJsonDao).getXp());
-                int shield = ((Wizard) characters.get(i).getCharacter(characterJsonDao)).getShield();
-                if(Objects.equals(damageType, "Magical")){
-                    if(shield > 0){
-                        parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), shield - damageTaken,characterJsonDao,0));
-                    }else{
-                        if(characters.get(i).getHitPoint() - damageTaken > 0){
-                            parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), characters.get(i).getHitPoint() - damageTaken,characterJsonDao,0));
-                        }else{
-                            parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), 0,characterJsonDao,0));
-                            unconscious = true;
-                        }
-                    }
-                }else{
-                    if(shield > 0){
-                        parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), shield - damage,characterJsonDao,0));
-                    }else{
-                        if(characters.get(i).getHitPoint() - damage > 0){
-                            parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), characters.get(i).getHitPoint() - damage,characterJsonDao,0));
-                        }else{
-                            parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), 0,characterJsonDao,0));
-                            unconscious = true;
-                        }
-                    }
-                }
-            }
-            if(characters.get(i).getCharacter(characterJsonDao) instanceof Adventurer || characters.get(i).getCharacter(characterJsonDao) instanceof Cleric){
-                if(characters.get(i).getHitPoint() - damage > 0){
-                    parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), characters.get(i).getHitPoint() - damage,characterJsonDao,0));
-                }else{
-                    parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), 0,characterJsonDao,0));
-                    unconscious = true;
-                }
+            Party damaged = applyDamageOnPartyMember(p, damage, damageType);
+            parties.add(damaged);
+            if(damaged.getHitPoint() == 0){
+                unconscious = true;
             }
-
-            i++;
         }
 
         newAdventure =  new Adventure(adventure.getName(), adventure.getNum_encounters(), adventure.getEncounters(), parties);
-        if (isLocal()) {
-            adventureJsonDAO.update(newAdventure);
-        }
-        else{
-            adventureApiDAO.update(newAdventure);
-        }
+        storeAdventure(newAdventure);
         for(Party p : parties){
             if(p.getHitPoint() > 0){ // character is conscious
-                return p.getCharacter(characterJsonDao).getName();
+                return p.getCharacter().getName();
             }else{
-                return p.getCharacter(characterJsonDao).getName() + " falls unconscious";
+                return p.getCharacter().getName() + " falls unconscious";
             }
         }
         return "";
     }
 
+    /**
+     * applies the damage of a monster to a party member, with the resistances of its class to the damage type, see
+     * {@link DamageTable}. the shield of the member, if any, takes the damage first
+     * @param member party member being attacked
+     * @param damage damage made by the monster
+     * @param damageType type of damage from the monster
+     * @return the party member after the attack, with 0 hit points if it falls unconscious
+     */
+    private Party applyDamageOnPartyMember(Party member, int damage, DamageType damageType) {
+        Character character = member.getCharacter();
+        CharacterClass charClass = character.getCharacterClass();
+        int level = DamageTable.isReducedByLevel(charClass, damageType) ? characterManager.xpToLevel(character.getXp()) : 0;
+        int damageTaken = DamageTable.damageTaken(charClass, damageType, damage, level);
+        int absorbed = Math.min(character.getShield(), damageTaken);
+        int hitPoint = member.getHitPoint() - (damageTaken - absorbed);
+        if (hitPoint > 0) {
+            return new Party(character, hitPoint, characterJsonDao, character.getShield() - absorbed);
+        }
+        return new Party(character, 0, characterJsonDao, 0);
+    }
+
+    /**
+     * applies the damage of a monster to a party member of the state of the encounter, as
+     * {@link #applyDamageOnPartyMember(Party, int, DamageType)} does, and appends it to the combat log
+     * @param state state of the encounter
+     * @param party_pos position of the party member being attacked
+     * @param damage damage made by the monster
+     * @param damageType type of damage from the monster
+     */
+    private void applyDamageOnPartyMember(CombatState state, int party_pos, int damage, DamageType damageType) {
+        CharacterClass charClass = state.getCharacterClass(party_pos);
+        int level = DamageTable.isReducedByLevel(charClass, damageType) ? characterManager.xpToLevel(state.getCharacter(party_pos).getXp()) : 0;
+        int hitPoint = state.getHitPoint(party_pos);
+        state.damagePartyMember(party_pos, DamageTable.damageTaken(charClass, damageType, damage, level));
+        if (state.getHitPoint(party_pos) == hitPoint) {
+            session.log(CombatEvent.SHIELD, party_pos, state.getShield(party_pos), 0);
+        }
+        else {
+            session.log(CombatEvent.ATTACK_PARTY, party_pos, state.getHitPoint(party_pos), state.getShield(party_pos));
+        }
+    }
+
     /**
      * the monster whose turn to attack applies its damage dice on a non-unconscious party.
      * Including passive abilities and damage reductions depending on classes.
@@ -724,139 +894,66 @@ public class AdventureManager {
      * @param parties_inx the parties index
      * @return the name of the character being attacked
      */
-    public String applyDamageOnRandomConsciousParty(int damage, String current_adventure, int[] parties_inx, String damageType) {
-        if (isLocal()) {
-            if (adventureJsonDAO.arePartyAllUnconscious(current_adventure)) {
-                return null;
-            }
+    public String applyDamageOnRandomConsciousParty(int damage, String current_adventure, int[] parties_inx, DamageType damageType) {
+        int party_pos;
+        if (isTPU(current_adventure)) {
+            return null;
         }
-        else {
-            if (adventureApiDAO.arePartyAllUnconscious(current_adventure)) {
-                return null;
+        CombatState state = combatState(current_adventure);
+        if (state != null) {
+            do {
+                party_pos = Dice.roll(parties_inx.length) - 1;
+            } while (!state.isAlive(party_pos));
+            applyDamageOnPartyMember(state, party_pos, damage, damageType);
+            session.changed();
+            if (state.isAlive(party_pos)) {
+                return state.getCharacter(party_pos).getName();
             }
+            return state.getCharacter(party_pos).getName() + " falls unconscious";
         }
-        Adventure adventure;
-        if (isLocal()) {
-            adventure = adventureJsonDAO.getAdventureByName(current_adventure);
-        }
-        else {
-            adventure = adventureApiDAO.getAdventureByName(current_adventure);
-        }
+        Adventure adventure = loadAdventure(current_adventure);
         Adventure new_adventure;
-        int party_pos;
 
-        List<Party> characters;
-        if (isLocal()) {
-            characters = adventureJsonDAO.getPartyByName(current_adventure);
-        }
-        else {
-            characters = adventureApiDAO.getPartyByName(current_adventure);
-        }
+        List<Party> characters = loadParties(current_adventure);
         List<Party> parties = new ArrayList<>();
 
 
-        if (isLocal()) {
+        if (inSession(current_adventure)) {
             do {
-                party_pos = (int) Math.floor(Math.random() * (parties_inx.length) + 1) - 1;
+                party_pos = Dice.roll(parties_inx.length) - 1;
+            } while (session.isPartyUnconscious(party_pos));
+        }
+        else if (isLocal()) {
+            do {
+                party_pos = Dice.roll(parties_inx.length) - 1;
             } while (adventureJsonDAO.isPartyUnconsciousByPosition(current_adventure, party_pos));
         }
         else {
             do {
-                party_pos = (int) Math.floor(Math.random() * (parties_inx.length) + 1) - 1;
+                party_pos = Dice.roll(parties_inx.length) - 1;
             } while (adventureApiDAO.isPartyUnconsciousByPosition(current_adventure, party_pos));
         }
         boolean unconscious = false;
         for (int i=0;i < parties_inx.length;i++) {
             if (i == party_pos) {
-                    if(characters.get(i).getCharacter(characterJsonDao) instanceof Warrior || characters.get(i).getCharacter(characterJsonDao) instanceof Champion ){
-                        if(Objects.equals(damageType, "Physical")){
-                            if(characters.get(i).getHitPoint() - damage/2 > 0){
-                                parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), characters.get(i).getHitPoint() - damage/2,characterJsonDao,0));
-                            }else{
-                                parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), 0,characterJsonDao,0));
-                                unconscious = true;
-                            }
-                        }else{
-                            if(characters.get(i).getHitPoint() - damage > 0){
-                                parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), characters.get(i).getHitPoint() - damage,characterJsonDao,0));
-                            }else{
-                                parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), 0,characterJsonDao,0));
-                                unconscious = true;
-                            }
-                        }
-                    }
-
-                    if(characters.get(i).getCharacter(characterJsonDao) instanceof Paladin){
-                        if(Objects.equals(damageType, "Psychical")){
-                            if(characters.get(i).getHitPoint() - damage/2 > 0){
-                                parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), characters.get(i).getHitPoint() - damage/2,characterJsonDao,0));
-                            }else{
-                                parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), 0,characterJsonDao,0));
-                                unconscious = true;
-                            }
-                        }else{
-                            if(characters.get(i).getHitPoint() - damage > 0){
-                                parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), characters.get(i).getHitPoint() - damage,characterJsonDao,0));
-                            }else{
-                                parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), 0,characterJsonDao,0));
-                                unconscious = true;
-                            }                        }
-                    }
-
-                    if(characters.get(i).getCharacter(characterJsonDao) instanceof Wizard){
-                        int damageTaken = damage -  characterManager.xpToLevel(characters.get(i).getCharacter(characterJsonDao).getXp());
-                        int shield = ((Wizard) characters.get(i).getCharacter(characterJsonDao)).getShield();
-                        if(Objects.equals(damageType, "Magical")){
-                            if(shield > 0){
-                                parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), shield - damageTaken,characterJsonDao,0));
-                            }else{
-                                if(characters.get(i).getHitPoint() - damageTaken > 0){
-                                    parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), characters.get(i).getHitPoint() - damageTaken,characterJsonDao,0));
-                                }else{
-                                    parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), 0,characterJsonDao,0));
-                                    unconscious = true;
-                                }
-                            }
-                        }else{
-                            if(shield > 0){
-                                parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), shield - damage,characterJsonDao,0));
-                            }else{
-                                if(characters.get(i).getHitPoint() - damage > 0){
-                                    parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), characters.get(i).getHitPoint() - damage,characterJsonDao,0));
-                                }else{
-                                    parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), 0,characterJsonDao,0));
-                                    unconscious = true;
-                                }
-                            }
-                        }
-                    }
-
-                    if(characters.get(i).getCharacter(characterJsonDao) instanceof Adventurer || characters.get(i).getCharacter(characterJsonDao) instanceof Cleric){
-                        if(characters.get(i).getHitPoint() - damage > 0){
-                            parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), characters.get(i).getHitPoint() - damage,characterJsonDao,0));
-                        }else{
-                            parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), 0,characterJsonDao,0));
-                            unconscious = true;
-                        }
-                    }
+                Party damaged = applyDamageOnPartyMember(characters.get(i), damage, damageType);
+                parties.add(damaged);
+                if (damaged.getHitPoint() == 0) {
+                    unconscious = true;
+                }
             }
             else {
-                parties.add(new Party(characters.get(i).getCharacter(characterJsonDao), characters.get(i).getHitPoint(),characterJsonDao,0));
+                parties.add(new Party(characters.get(i).getCharacter(), characters.get(i).getHitPoint(),characterJsonDao,characters.get(i).getCharacter().getShield()));
             }
         }
         new_adventure =  new Adventure(adventure.getName(), adventure.getNum_encounters(), adventure.getEncounters(), parties);
-        if (isLocal()) {
-            adventureJsonDAO.update(new_adventure);
-        }
-        else{
-            adventureApiDAO.update(new_adventure);
-        }
+        storeAdventure(new_adventure);
 
         if (unconscious) {
-            return characters.get(party_pos).getCharacter(characterJsonDao).getName() + " falls unconscious";
+            return characters.get(party_pos).getCharacter().getName() + " falls unconscious";
         }
         else {
-            return characters.get(party_pos).getCharacter(characterJsonDao).getName();
+            return characters.get(party_pos).getCharacter().getName();
         }
     }
 
@@ -866,19 +963,8 @@ public class AdventureManager {
      * @return boolean indicating if monster is boss or not
      */
     public boolean isMonsterBoss(String name){
-        List<Monster> monsters;
-        if (isLocal()) {
-            monsters = monstersJsonDAO.getAll();
-        }
-        else {
-            monsters = monstersApiDAO.getAll();
-        }
-        for(Monster m : monsters){
-            if(Objects.equals(m.getName(), name)){
-                return Objects.equals(m.getChallenge(), "Boss");
-            }
-        }
-        return false;
+        monsterManager.setIsLocal(isLocal());
+        return monsterManager.isMonsterBoss(name);
     }
 
     /**
@@ -888,13 +974,7 @@ public class AdventureManager {
      */
     public List<Integer> getHitPointsByindex(String current_adventure) {
         List<Integer> hp = new ArrayList<>();
-        List<Party> parties;
-        if (isLocal()) {
-            parties = adventureJsonDAO.getPartyByName(current_adventure);
-        }
-        else {
-            parties = adventureApiDAO.getPartyByName(current_adventure);
-        }
+        List<Party> parties = loadParties(current_adventure);
         for (Party party : parties) {
             hp.add(party.getHitPoint());
         }
@@ -907,7 +987,11 @@ public class AdventureManager {
      */
     public int isItAHit() {
         int[] res = {-1, 0, 0, 1, 1, 1, 1, 1, 1, 1, 2};
-        return res[(int)Math.floor(Math.random() * (10) + 1)];
+        int hit = res[Dice.roll(10)];
+        if (session != null) {
+            session.log(CombatEvent.ROLL, hit, 0, 0);
+        }
+        return hit;
     }
 
 
@@ -920,44 +1004,59 @@ public class AdventureManager {
      * @param encounterPos encounter position
      * @return the name of the monster being attacked
      */
-    public String applyDamageOnRandomMonsterInEncounter(int damage, String currentAdventure, int encounterPos, String attackType) {
-        Adventure adventure;
-        if (isLocal()) {
-            adventure = adventureJsonDAO.getAdventureByName(currentAdventure);
-        }
-        else {
-            adventure = adventureApiDAO.getAdventureByName(currentAdventure);
+    public String applyDamageOnRandomMonsterInEncounter(int damage, String currentAdventure, int encounterPos, DamageType attackType) {
+        CombatState state = combatState(currentAdventure, encounterPos);
+        if (state != null) {
+            if (state.getMonsterCount() == 0) {
+                return "";
+            }
+            int monster_pos = Dice.roll(state.getMonsterCount()) - 1;
+            String s = state.getMonsterName(monster_pos);
+            // a boss hit with its own type of damage takes half of it, and is only removed below 0 hit points
+            boolean halved = state.isBoss(monster_pos) && state.getMonsterDamageType(monster_pos) == attackType;
+            int hitPoints = state.getMonsterHitPoints(monster_pos) - (halved ? damage/2 : damage);
+            if (halved ? hitPoints >= 0 : hitPoints > 0) {
+                state.setMonsterHitPoints(monster_pos, hitPoints);
+                session.log(CombatEvent.ATTACK_MONSTER, encounterPos, monster_pos, hitPoints);
+                session.changed();
+                return s;
+            }
+            state.removeMonster(monster_pos);
+            session.log(CombatEvent.MONSTER_DIES, encounterPos, monster_pos, 0);
+            session.changed();
+            return s + " dies";
         }
+        Adventure adventure = loadAdventure(currentAdventure);
         List<Monster> monsters = adventure.getEncounters().get(encounterPos);
         List<Monster> new_monsters = new ArrayList<>();
         String s = "";
-        int monster_pos = (int)Math.floor(Math.random() * (monsters.size()));
+        int monster_pos = monsters.isEmpty() ? 0 : Dice.roll(monsters.size()) - 1;
 
         boolean dead = false;
         for (int i=0;i<monsters.size();i++) {
-            String damage_dice = "d" + monsters.get(i).getDamageDice();
+            Monster m = monsters.get(i);
             if (i==monster_pos) {
-                s = monsters.get(i).getName();
+                s = m.getName();
 
-                if(Objects.equals(monsters.get(i).getChallenge(), "Boss")){
-                    if (Objects.equals(monsters.get(i).getDamageType(), attackType)) {
-                        if (monsters.get(i).getHitPoints() - damage/2 >= 0) {
-                            new_monsters.add(new Monster(monsters.get(i).getName(), monsters.get(i).getChallenge(), monsters.get(i).getExperience(), monsters.get(i).getHitPoints() - damage/2, monsters.get(i).getInitiative(), damage_dice, monsters.get(i).getDamageType()));
+                if(m.isBoss()){
+                    if (m.getDamageKind() == attackType) {
+                        if (m.getHitPoints() - damage/2 >= 0) {
+                            new_monsters.add(m.withHitPoints(m.getHitPoints() - damage/2));
                         }
                         else {
                             dead = true;
                         }
                     }else{
-                        if (monsters.get(i).getHitPoints() - damage > 0) {
-                            new_monsters.add(new Monster(monsters.get(i).getName(), monsters.get(i).getChallenge(), monsters.get(i).getExperience(), monsters.get(i).getHitPoints() - damage, monsters.get(i).getInitiative(), damage_dice, monsters.get(i).getDamageType()));
+                        if (m.getHitPoints() - damage > 0) {
+                            new_monsters.add(m.withHitPoints(m.getHitPoints() - damage));
                         }
                         else {
                             dead = true;
                         }
                     }
                 }else{
-                    if (monsters.get(i).getHitPoints() - damage > 0) {
-                        new_monsters.add(new Monster(monsters.get(i).getName(), monsters.get(i).getChallenge(), monsters.get(i).getExperience(), monsters.get(i).getHitPoints() - damage, monsters.get(i).getInitiative(), damage_dice, monsters.get(i).getDamageType()));
+                    if (m.getHitPoints() - damage > 0) {
+                        new_monsters.add(m.withHitPoints(m.getHitPoints() - damage));
                     }
                     else {
                         dead = true;
@@ -965,7 +1064,8 @@ public class AdventureManager {
                 }
             }
             else {
-                new_monsters.add(new Monster(monsters.get(i).getName(), monsters.get(i).getChallenge(), monsters.get(i).getExperience(), monsters.get(i).getHitPoints(), monsters.get(i).getInitiative(), damage_dice, monsters.get(i).getDamageType()));
+                // monsters are immutable, the ones not attacked are kept as they are
+                new_monsters.add(m);
             }
         }
 
@@ -984,12 +1084,7 @@ public class AdventureManager {
             }
         }
         Adventure new_adventure = new Adventure(adventure.getName(), adventure.getNum_encounters(), encounter, adventure.getParties());
-        if (isLocal()) {
-            adventureJsonDAO.update(new_adventure);
-        }
-        else {
-            adventureApiDAO.update(new_adventure);
-        }
+        storeAdventure(new_adventure);
         if (dead) {
             return s + " dies";
         }
@@ -1005,30 +1100,30 @@ public class AdventureManager {
      * @param encounterPos encounter being played in adventure
      * @param attackType attack type.  magical, physical or psychical
      */
-    public void applyDamageOnAllMonsters(int damage, String currentAdventure, int encounterPos, String attackType){
-        Adventure adventure;
-        if (isLocal()) {
-            adventure = adventureJsonDAO.getAdventureByName(currentAdventure);
-        }
-        else {
-            adventure = adventureApiDAO.getAdventureByName(currentAdventure);
+    public void applyDamageOnAllMonsters(int damage, String currentAdventure, int encounterPos, DamageType attackType){
+        CombatState state = combatState(currentAdventure, encounterPos);
+        if (state != null) {
+            for (int k = 0; k < state.getMonsterCount(); k++) {
+                boolean halved = state.isBoss(k) && state.getMonsterDamageType(k) == attackType;
+                state.setMonsterHitPoints(k, state.getMonsterHitPoints(k) - (halved ? damage/2 : damage));
+                session.log(CombatEvent.ATTACK_MONSTER, encounterPos, k, state.getMonsterHitPoints(k));
+            }
+            session.changed();
+            return;
         }
+        Adventure adventure = loadAdventure(currentAdventure);
         List<Monster> monsters = adventure.getEncounters().get(encounterPos);
         List<Monster> new_monsters = new ArrayList<>();
         for(Monster m: monsters){
-            String damage_dice = "d" + m.getDamageDice();
-            if(Objects.equals(m.getChallenge(), "Boss")){
-                if(Objects.equals(m.getDamageType(), attackType)){
-                    Monster newMonster = new Monster(m.getName(),m.getChallenge(),m.getExperience(),m.getHitPoints()-damage/2,m.getInitiative(),damage_dice,m.getDamageType());
-                    new_monsters.add(newMonster);
+            if(m.isBoss()){
+                if(m.getDamageKind() == attackType){
+                    new_monsters.add(m.withHitPoints(m.getHitPoints()-damage/2));
                 }else {
-                    Monster newMonster = new Monster(m.getName(), m.getChallenge(), m.getExperience(), m.getHitPoints() - damage, m.getInitiative(), damage_dice, m.getDamageType());
-                    new_monsters.add(newMonster);
+                    new_monsters.add(m.withHitPoints(m.getHitPoints() - damage));
                 }
 
             }else{
-                Monster newMonster = new Monster(m.getName(),m.getChallenge(),m.getExperience(),m.getHitPoints()-damage,m.getInitiative(),damage_dice,m.getDamageType());
-                new_monsters.add(newMonster);
+                new_monsters.add(m.withHitPoints(m.getHitPoints()-damage));
             }
 
         }
@@ -1044,12 +1139,7 @@ public class AdventureManager {
         }
 
         Adventure newAdventure = new Adventure(adventure.getName(),adventure.getNum_encounters(),encounters,adventure.getParties());
-        if (isLocal()) {
-            adventureJsonDAO.update(newAdventure);
-        }
-        else {
-            adventureApiDAO.update(newAdventure);
-        }
+        storeAdventure(newAdventure);
     }
 
 
@@ -1061,13 +1151,19 @@ public class AdventureManager {
      * @return rteurns the character who received the healing
      */
     public String applyHealOnCharacter( int heal, String currentAdventure, List<Integer> maxHitPoints){
-        Adventure adventure;
-        if (isLocal()) {
-            adventure = adventureJsonDAO.getAdventureByName(currentAdventure);
-        }
-        else {
-            adventure = adventureApiDAO.getAdventureByName(currentAdventure);
+        CombatState state = combatState(currentAdventure);
+        if (state != null) {
+            for (int i = 0; i < state.getPartySize(); i++) {
+                if (state.getHitPoint(i) < maxHitPoints.get(i)/2) {
+                    state.healPartyMember(i, heal);
+                    session.log(CombatEvent.HEAL, i, state.getHitPoint(i), 0);
+                    session.changed();
+                    return state.getCharacter(i).getName();
+                }
+            }
+            return "";
         }
+        Adventure adventure = loadAdventure(currentAdventure);
         List<Party> parties = adventure.getParties();
         List<Party> new_parties = new ArrayList<>();
         int flag =0;
@@ -1075,20 +1171,16 @@ public class AdventureManager {
         for (int i=0; i < parties.size(); i++){
             if(parties.get(i).getHitPoint() < maxHitPoints.get(i)/2 && flag == 0){
                 //update adventure with character healed
-                Party newParty = new Party(parties.get(i).getCharacter(characterJsonDao),parties.get(i).getHitPoint()+heal,characterJsonDao,0);
+                Party newParty = new Party(parties.get(i).getCharacter(),parties.get(i).getHitPoint()+heal,characterJsonDao,0);
                 new_parties.add(newParty);
                 flag = 1;
-                target =  newParty.getCharacter(characterJsonDao).getName();
+                target =  newParty.getCharacter().getName();
             }else {
                 new_parties.add(parties.get(i));
             }
         }
         Adventure new_adventure = new Adventure(adventure.getName(), adventure.getNum_encounters(), adventure.getEncounters(), new_parties );
-        if (isLocal()) {
-            adventureJsonDAO.update(new_adventure);
-        }else {
-            adventureApiDAO.update(new_adventure);
-        }
+        storeAdventure(new_adventure);
         return target;
     }
 
@@ -1098,28 +1190,26 @@ public class AdventureManager {
      * @param currentAdventure current adventure being played
      */
     public void applyHealOnParty(int heal, String currentAdventure){
-        Adventure adventure;
-        if (isLocal()) {
-            adventure = adventureJsonDAO.getAdventureByName(currentAdventure);
-        }
-        else {
-            adventure = adventureApiDAO.getAdventureByName(currentAdventure);
+        CombatState state = combatState(currentAdventure);
+        if (state != null) {
+            for (int i = 0; i < state.getPartySize(); i++) {
+                state.healPartyMember(i, heal);
+                session.log(CombatEvent.HEAL, i, state.getHitPoint(i), 0);
+            }
+            session.changed();
+            return;
         }
+        Adventure adventure = loadAdventure(currentAdventure);
         List<Party> parties = adventure.getParties();
         List<Party> new_parties = new ArrayList<>();
         int i;
         for (i=0; i < parties.size() ; i++){
             //update adventure with character healed
-            Party newParty = new Party(parties.get(i).getCharacter(characterJsonDao),parties.get(i).getHitPoint()+heal,characterJsonDao,0);
+            Party newParty = new Party(parties.get(i).getCharacter(),parties.get(i).getHitPoint()+heal,characterJsonDao,0);
             new_parties.add(newParty);
         }
         Adventure new_adventure = new Adventure(adventure.getName(), adventure.getNum_encounters(), adventure.getEncounters(), new_parties );
-        if (isLocal()) {
-            adventureJsonDAO.update(new_adventure);
-        }
-        else {
-            adventureApiDAO.update(new_adventure);
-        }
+        storeAdventure(new_adventure);
     }
 
     /**
@@ -1129,6 +1219,13 @@ public class AdventureManager {
      * @return the xp gained in an encounter
      */
     public int getXpGainedInEncounter(String adventure_name, int encounter_pos) {
+        if (inSession(adventure_name)) {
+            int sum_xp = 0;
+            for (Monster monster : session.getAdventure().getEncounters().get(encounter_pos)) {
+                sum_xp += monster.getExperience();
+            }
+            return sum_xp;
+        }
         if (isLocal()) {
             return adventureJsonDAO.getXpGainedInEncounter(adventure_name, encounter_pos);
         }
@@ -1145,7 +1242,7 @@ public class AdventureManager {
         int[] healing_arr = new int[party_names.length];
         for (int i=0;i< party_names.length;i++) {
             int mindByName = adventureJsonDAO.getCharactersMindByName(adventure_name,party_names[i]);
-            int rand = (int)Math.floor(Math.random() * (8) + 1);
+            int rand = Dice.roll(8);
             healing_arr[i] = mindByName + rand;
         }
         return healing_arr;
@@ -1176,6 +1273,23 @@ public class AdventureManager {
         return adventureApiDAO.getNameByIndex(i);
     }
 
+    /**
+     * gets the names of all the adventures without blocking the caller while they are retrieved
+     * @return a future with a list of the adventure names, in the same order as their positions
+     */
+    public CompletableFuture<List<String>> getAdventureNamesAsync() {
+        AdventureDAO dao = isLocal() ? adventureJsonDAO : adventureApiDAO;
+        return dao.getAllAsync().thenApply(adventures -> {
+            List<String> names = new ArrayList<>();
+            if (adventures != null) {
+                for (Adventure adventure : adventures) {
+                    names.add(adventure.getName());
+                }
+            }
+            return names;
+        });
+    }
+
     /**
      * checks if a character is alive
      * @param currentAdventure name of adventure
@@ -1183,6 +1297,19 @@ public class AdventureManager {
      * @return true if a character is alive
      */
     public boolean isPartyAlive(String currentAdventure, String s) {
+        CombatState state = combatState(currentAdventure);
+        if (state != null) {
+            int party_pos = state.findPartyMember(s);
+            return party_pos < 0 || state.isAlive(party_pos);
+        }
+        if (inSession(currentAdventure)) {
+            for (Party party : session.getParties()) {
+                if (Objects.equals(party.getCharacter().getName(), s)) {
+                    return party.getHitPoint() > 0;
+                }
+            }
+            return true;
+        }
         if (isLocal()) {
             return !adventureJsonDAO.isPartyUnconsciousByName(currentAdventure, s);
         }
@@ -1197,6 +1324,9 @@ public class AdventureManager {
      * @return true if monster is alive
      */
     public boolean isMonsterAlive(String currentAdventure, int encounter_pos, String s) {
+        if (inSession(currentAdventure)) {
+            return session.isMonsterAlive(encounter_pos, s);
+        }
         if (isLocal()) {
             return adventureJsonDAO.isMonsterAlive(currentAdventure, encounter_pos, s);
         }
@@ -1211,17 +1341,11 @@ public class AdventureManager {
      * @return a list where each position shows if the level of the character has increased or not
      */
     public List<Integer> gainXp(String adventure_name, int xp_gained, int[] parties_inx) {
-        Adventure adventure;
-        if (isLocal()) {
-            adventure= adventureJsonDAO.getAdventureByName(adventure_name);
-        }
-        else {
-            adventure= adventureApiDAO.getAdventureByName(adventure_name);
-        }
+        Adventure adventure = loadAdventure(adventure_name);
         List<Party> parties = new ArrayList<>();
         List<Integer> list= new ArrayList<>();
         for (int i=0;i< parties_inx.length;i++) {
-            Character character = adventure.getParties().get(i).getCharacter(characterJsonDao);
+            Character character = adventure.getParties().get(i).getCharacter();
             int xp = character.getXp() + xp_gained;
             if (characterManager.xpToLevel(character.getXp()) == characterManager.xpToLevel(xp)) {
                 list.add(0);
@@ -1237,12 +1361,17 @@ public class AdventureManager {
 
             Party new_party = new Party(new_character, adventure.getParties().get(i).getHitPoint(),characterJsonDao,0);
             parties.add(new_party);
+            if (inSession(adventure_name)) {
+                CharacterClass charClass = CharacterClass.of(finalClass);
+                session.log(CombatEvent.XP, i, xp, charClass == null ? -1 : charClass.ordinal());
+            }
         }
         Adventure new_adventure = new Adventure(adventure.getName(), adventure.getNum_encounters(), adventure.getEncounters(), parties);
-        if (isLocal()) {
-            adventureJsonDAO.update(new_adventure);
-        }else {
-            adventureApiDAO.update(new_adventure);
+        if (inSession(adventure_name)) {
+            session.update(new_adventure, true);
+        }
+        else {
+            storeAdventure(new_adventure);
         }
         return list;
     }
@@ -1262,11 +1391,11 @@ public class AdventureManager {
             int hp = adventure.getParties().get(i).getHitPoint() + bandage_time[i];
             Party new_party;
             if (adventureJsonDAO.isPartyUnconsciousByPosition(adventure_name, i)) {
-                new_party = new Party(adventure.getParties().get(i).getCharacter(characterJsonDao), 0,characterJsonDao,0);
+                new_party = new Party(adventure.getParties().get(i).getCharacter(), 0,characterJsonDao,0);
                 list.add(0);
             }
             else {
-                new_party = new Party(adventure.getParties().get(i).getCharacter(characterJsonDao), hp,characterJsonDao,0);
+                new_party = new Party(adventure.getParties().get(i).getCharacter(), hp,characterJsonDao,0);
                 list.add(1);
             }
             parties.add(new_party);
@@ -1279,14 +1408,20 @@ public class AdventureManager {
 
     /**
      * get current number of monsters in an encounter of an adventure
+     * @param combatants initiative tracker with the combatants of the encounter
      * @param currentAdventure current adventure
      * @param encounterIndex encounter index in the adventure
-     * @return amount of alive monsters, that number being the amount of existing monsters
+     * @return amount of alive monsters. while the encounter is being fought in a combat session, the monsters with
+     * hit points left, which are counted as they die; otherwise, the combatants that are still monsters of the encounter
      */
-    public int currentAliveMonsters(List<Combatant> combatants,String currentAdventure, int encounterIndex){
+    public int currentAliveMonsters(InitiativeTracker combatants, String currentAdventure, int encounterIndex){
+        CombatState state = combatState(currentAdventure, encounterIndex);
+        if (state != null) {
+            return state.getLivingMonsters();
+        }
         int count =0;
-        for(Combatant c : combatants){
-            if(isCombatantMonster(currentAdventure,encounterIndex,c.getName())){
+        for (int turn = 0; turn < combatants.size(); turn++) {
+            if(isCombatantMonster(currentAdventure,encounterIndex,combatants.getName(turn))){
                 count++;
             }
         }
@@ -1300,22 +1435,12 @@ public class AdventureManager {
      * @return typology of the attack
      */
     public String getDamageTypeOfAttack(String attackerName, String currentAdventure){
-        Adventure adventure;
-        if (isLocal()) {
-            adventure= adventureJsonDAO.getAdventureByName(currentAdventure);
-        }
-        else {
-            adventure= adventureApiDAO.getAdventureByName(currentAdventure);
-        }
+        Adventure adventure = loadAdventure(currentAdventure);
         List<Party> parties = adventure.getParties();
         for(Party p: parties){
-            if(Objects.equals(p.getCharacter(characterJsonDao).getName(), attackerName)){
-                if(Objects.equals(p.getCharacter(characterJsonDao).getCharClass(), "Wizard")){
-                    return "Magical";
-                } else if (Objects.equals(p.getCharacter(characterJsonDao).getCharClass(), "Cleric") || Objects.equals(p.getCharacter(characterJsonDao).getCharClass(), "Paladin")) {
-                    return "Psychical";
-                }else
-                    return "Physical";
+            if(Objects.equals(p.getCharacter().getName(), attackerName)){
+                CharacterClass charClass = p.getCharacter().getCharacterClass();
+                return charClass == null ? "Physical" : charClass.getAttackType().getName();
             }
         }
         return "Physical";
@@ -1328,43 +1453,21 @@ public class AdventureManager {
      * @return list of characters in the party of the given adventure
      */
     public List<Character> getCharactersFromParty(String currentAdventure){
-        Adventure a;
-        if (isLocal()) {
-            a = adventureJsonDAO.getAdventureByName(currentAdventure);
-        }
-        else {
-            a = adventureApiDAO.getAdventureByName(currentAdventure);
-        }
+        Adventure a = loadAdventure(currentAdventure);
         List<Character> finalList = new ArrayList<>();
         for (Party p: a.getParties()){
-            finalList.add(p.getCharacter(characterJsonDao));
+            finalList.add(p.getCharacter());
         }
         return finalList;
     }
 
     /**
-     * gets a copy of a given adventure
-     * @param currentAdventure adventure to get
-     * @return copy of given adventure
-     */
-
-    public Adventure getCopyAdventure(String currentAdventure) {
-        if (isLocal()) {
-            return adventureJsonDAO.getAdventureByName(currentAdventure);
-        }
-        return adventureApiDAO.getAdventureByName(currentAdventure);
-    }
-
-    /**
-     * resets adventure with original encounters and empty party
-     * @param adventure_copy copy of adventure to be updated
+     * resets adventure with original encounters and party, as they were when its last combat session started
+     * @param currentAdventure name of the adventure
      */
-    public void resetAdventure(Adventure adventure_copy) {
-        if (isLocal()) {
-            adventureJsonDAO.update(adventure_copy);
-        }
-        else {
-            adventureApiDAO.update(adventure_copy);
+    public void resetAdventure(String currentAdventure) {
+        if (combatLog != null && Objects.equals(combatLog.getInitial().getName(), currentAdventure)) {
+            storeAdventure(combatLog.getInitial());
         }
     }
 }
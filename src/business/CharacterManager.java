@@ -1,16 +1,19 @@
 package business;
 
 import business.entities.Character;
+import business.entities.CharacterClass;
 import business.entities.Classes.*;
 import business.entities.Party;
 import persistence.API.CharacterApiDAO;
 import persistence.CharacterDAO;
 
+import persistence.Binary.CharacterBinaryDAO;
 import persistence.JSON.CharacterJsonDAO;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * manages character related features logic
@@ -39,10 +42,14 @@ public class CharacterManager {
     }
 
     /**
-     * constructor
+     * constructor. the local characters are read from the binary file once they have been imported to it
      */
     public CharacterManager() {
-        characterJsonDAO = new CharacterJsonDAO();
+        if (CharacterBinaryDAO.exists()) {
+            characterJsonDAO = new CharacterBinaryDAO();
+        } else {
+            characterJsonDAO = new CharacterJsonDAO();
+        }
         characterApiDAO = new CharacterApiDAO();
     }
 
@@ -51,7 +58,7 @@ public class CharacterManager {
      * @return a random number between 1 and 6
      */
     public int rollDice(){
-        return (int) (Math.random() * 6) +1;
+        return Dice.roll(6);
     }
 
     /**
@@ -296,6 +303,23 @@ public class CharacterManager {
         return characterApiDAO.getCharactersNames();
     }
 
+    /**
+     * get all the character names without blocking the caller while they are retrieved
+     * @return a future with a list of all the character names
+     */
+    public CompletableFuture<List<String>> getAllCharacterNamesAsync() {
+        CharacterDAO dao = isLocal() ? characterJsonDAO : characterApiDAO;
+        return dao.getAllAsync().thenApply(characters -> {
+            List<String> names = new ArrayList<>();
+            if (characters != null) {
+                for (Character character : characters) {
+                    names.add(character.getName());
+                }
+            }
+            return names;
+        });
+    }
+
     /**
      * gets all the names of characters that corresponds to the character's index in the parties_inx array
      * @param parties_inx an array that contains in each position the position of a character
@@ -316,21 +340,15 @@ public class CharacterManager {
     }
 
     /**
-     * get initial values of all character by their names
-     * @param partyNames the character names
-     * @return a list of all the initial values
+     * rolls the initiative of a character
+     * @param partyName the character name
+     * @return the initiative value of the character
      */
-    public List<Integer> getInitValueByNames(String[] partyNames) {
-        List<Integer> init_values = new ArrayList<>();
-        for (String partyName : partyNames) {
-            if (isLocal()) {
-                init_values.add((characterJsonDAO.getCharactersSpiritByName(partyName)) + (int) (Math.random() * 12) + 1);
-            }
-            else {
-                init_values.add((characterApiDAO.getCharactersSpiritByName(partyName)) + (int) (Math.random() * 12) + 1);
-            }
+    public int rollInitiative(String partyName) {
+        if (isLocal()) {
+            return characterJsonDAO.getCharactersSpiritByName(partyName) + Dice.roll(12);
         }
-        return init_values;
+        return characterApiDAO.getCharactersSpiritByName(partyName) + Dice.roll(12);
     }
 
     /**
@@ -363,15 +381,23 @@ public class CharacterManager {
     public List<Integer> getMaxHitPointsByindex(int[] parties_inx) {
         List<Integer> hp = new ArrayList<>();
         for (int partiesInx : parties_inx) {
-            Character character = getAll().get(partiesInx);
-            if(Objects.equals(character.getCharClass(), "Warrior")){
-                hp.add(((10 + character.getBody()) * xpToLevel(character.getXp()))+character.getBody()*xpToLevel(character.getXp()));
-            }else
-                hp.add((10 + character.getBody()) * xpToLevel(character.getXp()));
+            hp.add(getMaxHitPoints(getAll().get(partiesInx)));
         }
         return hp;
     }
 
+    /**
+     * get the maximum hit points of a character
+     * @param character the character
+     * @return the maximum hit points depending on its class, body and level
+     */
+    public int getMaxHitPoints(Character character) {
+        if(character.getCharacterClass() == CharacterClass.WARRIOR){
+            return ((10 + character.getBody()) * xpToLevel(character.getXp()))+character.getBody()*xpToLevel(character.getXp());
+        }
+        return (10 + character.getBody()) * xpToLevel(character.getXp());
+    }
+
 
 
 
@@ -0,0 +1,180 @@
+package business;
+
+import business.entities.Adventure;
+import business.entities.Character;
+import business.entities.CharacterClass;
+import business.entities.CombatEvent;
+import business.entities.Monster;
+import business.entities.Party;
+import persistence.CharacterDAO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * append-only log of the actions of a combat session (rolls, attacks, shields, heals and experience), every event
+ * taking four ints in a single array. the adventure is kept as snapshots: the one the session started with, one after
+ * every change that is not an event (such as the preparation stage), and one every {@link #SNAPSHOT_INTERVAL} events.
+ * since adventures are never modified once built, a snapshot is just the adventure itself. any state of the session
+ * is rebuilt by replaying the events after the closest snapshot
+ * @author Youssef Bat, Alvaro Feher
+ */
+final class CombatLog {
+
+    /**
+     * a snapshot is taken once this amount of events have been appended since the last one
+     */
+    static final int SNAPSHOT_INTERVAL = 256;
+
+    private static final int EVENT_SIZE = 4;
+    private static final CharacterClass[] classes = CharacterClass.values();
+
+    private int[] events = new int[64 * EVENT_SIZE];
+    private int size;
+    private final List<Adventure> snapshots = new ArrayList<>();
+    /**
+     * amount of events appended before every snapshot
+     */
+    private int[] snapshotEvents = new int[8];
+
+    /**
+     * constructor
+     * @param adventure the adventure the session starts with
+     */
+    CombatLog(Adventure adventure) {
+        snapshot(adventure);
+    }
+
+    /**
+     * appends an event
+     * @param event the event
+     * @param a first value of the event
+     * @param b second value of the event, 0 if it has none
+     * @param c third value of the event, 0 if it has none
+     */
+    void append(CombatEvent event, int a, int b, int c) {
+        if (size * EVENT_SIZE == events.length) {
+            events = Arrays.copyOf(events, events.length * 2);
+        }
+        int at = size * EVENT_SIZE;
+        events[at] = event.ordinal();
+        events[at + 1] = a;
+        events[at + 2] = b;
+        events[at + 3] = c;
+        size++;
+    }
+
+    /**
+     * keeps the adventure as it is after the events appended so far
+     * @param adventure the adventure
+     */
+    void snapshot(Adventure adventure) {
+        int last = snapshots.size() - 1;
+        if (last >= 0 && snapshotEvents[last] == size) {
+            snapshots.set(last, adventure);
+            return;
+        }
+        if (snapshots.size() == snapshotEvents.length) {
+            snapshotEvents = Arrays.copyOf(snapshotEvents, snapshotEvents.length * 2);
+        }
+        snapshotEvents[snapshots.size()] = size;
+        snapshots.add(adventure);
+    }
+
+    /**
+     * checks if enough events have been appended since the last snapshot to take a new one
+     * @return true if a snapshot should be taken
+     */
+    boolean needsSnapshot() {
+        return size - snapshotEvents[snapshots.size() - 1] >= SNAPSHOT_INTERVAL;
+    }
+
+    /**
+     * gets the amount of events appended
+     * @return the amount of events
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * gets an event
+     * @param i position of the event
+     * @return the event
+     */
+    CombatEvent getEvent(int i) {
+        return CombatEvent.of(events[i * EVENT_SIZE]);
+    }
+
+    /**
+     * gets a value of an event
+     * @param i position of the event
+     * @param value 0, 1 or 2 for the first, second or third value
+     * @return the value
+     */
+    int getValue(int i, int value) {
+        return events[i * EVENT_SIZE + 1 + value];
+    }
+
+    /**
+     * gets the adventure the session started with
+     * @return the first snapshot
+     */
+    Adventure getInitial() {
+        return snapshots.get(0);
+    }
+
+    /**
+     * rebuilds the adventure as it was after an amount of events, replaying them from the closest snapshot before
+     * @param events amount of events, from 0 to {@link #size()}
+     * @param characterDAO data access object used to give their class to the characters
+     * @return the adventure
+     */
+    Adventure replay(int events, CharacterDAO characterDAO) {
+        int s = snapshots.size() - 1;
+        while (snapshotEvents[s] > events) {
+            s--;
+        }
+        Adventure adventure = snapshots.get(s);
+        if (snapshotEvents[s] == events) {
+            return adventure;
+        }
+        List<Party> parties = adventure.getParties() == null ? null : new ArrayList<>(adventure.getParties());
+        List<List<Monster>> encounters = new ArrayList<>();
+        for (List<Monster> encounter : adventure.getEncounters()) {
+            encounters.add(new ArrayList<>(encounter));
+        }
+        for (int i = snapshotEvents[s]; i < events; i++) {
+            int a = getValue(i, 0);
+            int b = getValue(i, 1);
+            int c = getValue(i, 2);
+            switch (getEvent(i)) {
+                case ATTACK_PARTY:
+                    parties.set(a, new Party(parties.get(a).getCharacter(), b, characterDAO, c));
+                    break;
+                case SHIELD:
+                    parties.set(a, new Party(parties.get(a).getCharacter(), parties.get(a).getHitPoint(), characterDAO, b));
+                    break;
+                case HEAL:
+                    parties.set(a, new Party(parties.get(a).getCharacter(), b, characterDAO, 0));
+                    break;
+                case XP:
+                    Character character = parties.get(a).getCharacter();
+                    Character leveled = characterDAO.assignClass(character.getName(), character.getPlayer(), b, character.getBody(),
+                            character.getMind(), character.getSpirit(), c < 0 ? null : classes[c].getName(), 0);
+                    parties.set(a, new Party(leveled, parties.get(a).getHitPoint(), characterDAO, 0));
+                    break;
+                case ATTACK_MONSTER:
+                    encounters.get(a).set(b, encounters.get(a).get(b).withHitPoints(c));
+                    break;
+                case MONSTER_DIES:
+                    encounters.get(a).remove(b);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return new Adventure(adventure.getName(), adventure.getNum_encounters(), encounters, parties);
+    }
+}
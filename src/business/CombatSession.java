@@ -0,0 +1,618 @@
+package business;
+
+import business.entities.Adventure;
+import business.entities.Character;
+import business.entities.CombatEvent;
+import business.entities.Monster;
+import business.entities.Party;
+import persistence.AdventureDAO;
+import persistence.Binary.HitPointFile;
+import persistence.CharacterDAO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * keeps the state of an adventure being played (party and monster hit points, shields...) in memory,
+ * so combat actions do not read and write the adventure through the data access object on every hit.
+ * the state is flushed to the data access object only when asked to, or every checkpoint interval of changes.
+ * with a write-behind flusher, every change is handed to it instead, and the flusher writes it in the background.
+ * with a hit point file, a change of hit points (or the death of a monster) is written in place in the memory-mapped
+ * file, and only the changes of the structure of the adventure (its characters and monsters) are written to the
+ * data access object, so playing does no serialization at all. the final state is written when the session is closed,
+ * and the hit points of a session that was never closed are recovered the next time with {@link #recover}.
+ * while an encounter is fought, its state is kept in a {@link CombatState} of primitive arrays, and the adventure is
+ * only built again from it when it is read as a whole, written, or replaced.
+ * every action of the combat is appended to a {@link CombatLog}, so any state of the session can be replayed. a
+ * session that is never written, such as the ones of the simulations, keeps no log, so it allocates nothing per action.
+ * @author Youssef Bat, Alvaro Feher
+ */
+public class CombatSession {
+
+    private final AdventureDAO adventureDAO;
+    private final int checkpointInterval;
+    private final WriteBehindFlusher flusher;
+    private final CharacterDAO characterDAO;
+    private final Path hitPointPath;
+    private HitPointFile hitPoints;
+    private int[][] slots;
+    private Adventure adventure;
+    private CombatState state;
+    private final CombatLog log;
+    private int pendingChanges;
+
+    /**
+     * hit point files of the sessions not closed yet, which must not be recovered
+     */
+    private static final Set<Path> openHitPointFiles = new HashSet<>();
+
+    /**
+     * constructor
+     * @param adventureDAO data access object where the adventure is flushed, null if it is never flushed
+     * @param adventure the adventure being played
+     * @param checkpointInterval amount of changes after which the adventure is flushed, 0 to flush only on demand
+     */
+    public CombatSession(AdventureDAO adventureDAO, Adventure adventure, int checkpointInterval) {
+        this(adventureDAO, adventure, checkpointInterval, null);
+    }
+
+    /**
+     * constructor
+     * @param adventureDAO data access object where the adventure is flushed, null if it is never flushed
+     * @param adventure the adventure being played
+     * @param checkpointInterval amount of changes after which the adventure is flushed, 0 to flush only on demand.
+     *                           ignored with a flusher, which decides when to write the changes
+     * @param flusher write-behind flusher writing the changes in the background, null to write them on the caller's thread
+     */
+    public CombatSession(AdventureDAO adventureDAO, Adventure adventure, int checkpointInterval, WriteBehindFlusher flusher) {
+        this.adventureDAO = adventureDAO;
+        this.adventure = adventure;
+        this.checkpointInterval = checkpointInterval;
+        this.flusher = adventureDAO == null ? null : flusher;
+        this.characterDAO = null;
+        this.hitPointPath = null;
+        this.log = adventureDAO == null ? null : new CombatLog(adventure);
+    }
+
+    /**
+     * constructor of a session keeping the hit points in a memory-mapped file. the structure of the adventure is
+     * written to the data access object straight away, and again every time it changes
+     * @param adventureDAO data access object where the adventure is written
+     * @param adventure the adventure being played
+     * @param characterDAO data access object used to compare the characters of the parties
+     * @param hitPointPath path of the hit point file of the adventure
+     */
+    public CombatSession(AdventureDAO adventureDAO, Adventure adventure, CharacterDAO characterDAO, Path hitPointPath) {
+        this.adventureDAO = adventureDAO;
+        this.adventure = adventure;
+        this.checkpointInterval = 0;
+        this.flusher = null;
+        this.characterDAO = characterDAO;
+        this.hitPointPath = hitPointPath.toAbsolutePath().normalize();
+        this.log = new CombatLog(adventure);
+        synchronized (openHitPointFiles) {
+            openHitPointFiles.add(this.hitPointPath);
+        }
+        checkpoint();
+    }
+
+    /**
+     * checks if the session is holding the adventure with the given name
+     * @param adventureName name of the adventure
+     * @return true if the session holds the adventure
+     */
+    public boolean holds(String adventureName) {
+        return Objects.equals(adventure.getName(), adventureName);
+    }
+
+    /**
+     * adventure getter
+     * @return the current state of the adventure
+     */
+    public Adventure getAdventure() {
+        sync();
+        return adventure;
+    }
+
+    /**
+     * gets the state of an encounter, built from the adventure if it is not the encounter being fought already
+     * @param encounter_pos the encounter position
+     * @param characterDAO data access object used to give their class to the characters when the adventure is built again
+     * @return the state of the encounter
+     */
+    CombatState getCombatState(int encounter_pos, CharacterDAO characterDAO) {
+        if (state == null || state.getEncounterPos() != encounter_pos) {
+            sync();
+            state = new CombatState(adventure, encounter_pos, characterDAO);
+            if (hitPoints != null) {
+                state.writeThrough(hitPoints, slots[encounter_pos]);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * gets the state of the encounter being fought
+     * @return the state, null if no encounter is being fought
+     */
+    CombatState getCombatState() {
+        return state;
+    }
+
+    /**
+     * gets the log of the actions of the session
+     * @return the combat log, null if the session keeps none
+     */
+    CombatLog getLog() {
+        return log;
+    }
+
+    /**
+     * appends an event to the log of the session, if it keeps one
+     * @param event the event
+     * @param a first value of the event
+     * @param b second value of the event, 0 if it has none
+     * @param c third value of the event, 0 if it has none
+     */
+    void log(CombatEvent event, int a, int b, int c) {
+        if (log != null) {
+            log.append(event, a, b, c);
+        }
+    }
+
+    /**
+     * counts a change made to the state of the encounter, already appended to the log, flushing it if the checkpoint
+     * interval is reached
+     */
+    void changed() {
+        if (log != null && log.needsSnapshot()) {
+            log.snapshot(getAdventure());
+        }
+        pendingChanges++;
+        if (hitPoints == null && flusher == null && checkpointInterval > 0 && pendingChanges >= checkpointInterval) {
+            flush();
+        }
+    }
+
+    /**
+     * builds the adventure again from the state of the encounter being fought, if it has changed.
+     * with a hit point file, the changes are in the file already, and only the slots of the monsters left are kept
+     */
+    private void sync() {
+        if (state == null || !state.isDirty()) {
+            return;
+        }
+        adventure = state.materialize(adventure);
+        if (hitPoints != null) {
+            slots[state.getEncounterPos()] = state.getHitPointSlots();
+        }
+        else if (flusher != null) {
+            flusher.submit(adventureDAO, adventure);
+        }
+    }
+
+    /**
+     * replaces the current state of the adventure, flushing it if the checkpoint interval is reached
+     * @param adventure new state of the adventure
+     */
+    public void update(Adventure adventure) {
+        update(adventure, false);
+    }
+
+    /**
+     * replaces the current state of the adventure, flushing it if the checkpoint interval is reached
+     * @param adventure new state of the adventure
+     * @param logged true if the change has been appended to the log as events, false to keep a snapshot of it
+     */
+    void update(Adventure adventure, boolean logged) {
+        sync();
+        state = null;
+        if (log != null && (!logged || log.needsSnapshot())) {
+            log.snapshot(adventure);
+        }
+        Adventure previous = this.adventure;
+        this.adventure = adventure;
+        pendingChanges++;
+        if (hitPoints != null) {
+            if (!writeHitPoints(previous, adventure)) {
+                checkpoint();
+            }
+        }
+        else if (flusher != null) {
+            flusher.submit(adventureDAO, adventure);
+        }
+        else if (checkpointInterval > 0 && pendingChanges >= checkpointInterval) {
+            flush();
+        }
+    }
+
+    /**
+     * writes the current state of the adventure to the data access object if it has changed,
+     * waiting until it is written. with a hit point file, the hit points are synced to the disk instead
+     */
+    public void flush() {
+        sync();
+        if (hitPoints != null) {
+            hitPoints.force();
+            return;
+        }
+        if (flusher != null) {
+            flusher.flush();
+        }
+        else if (pendingChanges > 0 && adventureDAO != null) {
+            adventureDAO.update(adventure);
+        }
+        pendingChanges = 0;
+    }
+
+    /**
+     * writes the final state of the adventure to the data access object and ends the session.
+     * with a hit point file, the file is deleted once the adventure is written
+     */
+    public void close() {
+        sync();
+        state = null;
+        if (hitPoints == null) {
+            flush();
+        }
+        else if (pendingChanges > 0) {
+            adventureDAO.update(adventure);
+            pendingChanges = 0;
+        }
+        if (hitPoints != null) {
+            hitPoints.delete();
+            hitPoints = null;
+        }
+        if (hitPointPath != null) {
+            synchronized (openHitPointFiles) {
+                openHitPointFiles.remove(hitPointPath);
+            }
+        }
+    }
+
+    /**
+     * writes the adventure to the data access object, and creates a new hit point file for its structure.
+     * if the file can not be created, the session keeps the changes in memory until it is flushed
+     */
+    private void checkpoint() {
+        adventureDAO.update(adventure);
+        pendingChanges = 0;
+        if (hitPoints != null) {
+            hitPoints.delete();
+            hitPoints = null;
+        }
+        List<List<Monster>> encounters = adventure.getEncounters();
+        List<Party> parties = adventure.getParties();
+        int[] monsters = new int[encounters.size()];
+        slots = new int[encounters.size()][];
+        for (int e = 0; e < encounters.size(); e++) {
+            monsters[e] = encounters.get(e).size();
+            slots[e] = new int[monsters[e]];
+            for (int i = 0; i < monsters[e]; i++) {
+                slots[e][i] = i;
+            }
+        }
+        try {
+            HitPointFile file = HitPointFile.create(hitPointPath, adventure.getName(), fingerprint(adventure, characterDAO),
+                    parties == null ? 0 : parties.size(), monsters);
+            for (int i = 0; parties != null && i < parties.size(); i++) {
+                file.setPartyHitPoint(i, parties.get(i).getHitPoint());
+            }
+            for (int e = 0; e < encounters.size(); e++) {
+                for (int i = 0; i < monsters[e]; i++) {
+                    file.setMonsterHitPoints(e, i, encounters.get(e).get(i).getHitPoints());
+                }
+            }
+            hitPoints = file;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * writes the hit points that changed between two states of the adventure to the hit point file, as long as its
+     * structure is the same. a monster removed from its encounter is a change of hit points as well
+     * @param previous previous state of the adventure
+     * @param next new state of the adventure
+     * @return false if the structure of the adventure has changed, and it has to be checkpointed
+     */
+    private boolean writeHitPoints(Adventure previous, Adventure next) {
+        List<Party> previousParties = previous.getParties();
+        List<Party> nextParties = next.getParties();
+        if (previousParties != nextParties) {
+            if (previousParties == null || nextParties == null || previousParties.size() != nextParties.size()) {
+                return false;
+            }
+            for (int i = 0; i < nextParties.size(); i++) {
+                Party before = previousParties.get(i);
+                Party after = nextParties.get(i);
+                if (before != after) {
+                    if (!sameCharacter(before.getCharacter(), after.getCharacter())) {
+                        return false;
+                    }
+                    if (before.getHitPoint() != after.getHitPoint()) {
+                        hitPoints.setPartyHitPoint(i, after.getHitPoint());
+                    }
+                }
+            }
+        }
+
+        List<List<Monster>> previousEncounters = previous.getEncounters();
+        List<List<Monster>> nextEncounters = next.getEncounters();
+        if (previousEncounters.size() != nextEncounters.size()) {
+            return false;
+        }
+        for (int e = 0; e < nextEncounters.size(); e++) {
+            List<Monster> before = previousEncounters.get(e);
+            List<Monster> after = nextEncounters.get(e);
+            if (before == after) {
+                continue;
+            }
+            // the monsters left keep their order, the ones skipped have been removed
+            int[] nextSlots = new int[after.size()];
+            int j = 0;
+            for (int i = 0; i < after.size(); i++) {
+                while (j < before.size() && !sameTemplate(before.get(j), after.get(i))) {
+                    hitPoints.setMonsterHitPoints(e, slots[e][j], HitPointFile.REMOVED);
+                    j++;
+                }
+                if (j == before.size()) {
+                    return false;
+                }
+                nextSlots[i] = slots[e][j];
+                if (before.get(j).getHitPoints() != after.get(i).getHitPoints()) {
+                    hitPoints.setMonsterHitPoints(e, nextSlots[i], after.get(i).getHitPoints());
+                }
+                j++;
+            }
+            for (; j < before.size(); j++) {
+                hitPoints.setMonsterHitPoints(e, slots[e][j], HitPointFile.REMOVED);
+            }
+            slots[e] = nextSlots;
+        }
+        return true;
+    }
+
+    /**
+     * writes the hit points of a session that was not closed to the data access object, and deletes its file.
+     * the hit points are dropped if the adventure has changed since they were written
+     * @param hitPointPath path of the hit point file
+     * @param adventureDAO data access object of the adventure
+     * @param characterDAO data access object used to give their class to the characters of the parties
+     * @return true if the hit points are written
+     */
+    public static boolean recover(Path hitPointPath, AdventureDAO adventureDAO, CharacterDAO characterDAO) {
+        synchronized (openHitPointFiles) {
+            if (openHitPointFiles.contains(hitPointPath.toAbsolutePath().normalize())) {
+                return false;
+            }
+        }
+        HitPointFile file;
+        try {
+            file = HitPointFile.open(hitPointPath);
+        } catch (IOException e) {
+            // a file whose creation was interrupted, its hit points are in the data access object already
+            try {
+                Files.deleteIfExists(hitPointPath);
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+            return false;
+        }
+        Adventure adventure = adventureDAO.getAdventureByName(file.getAdventureName());
+        boolean recovered = adventure != null && fingerprint(adventure, characterDAO) == file.getFingerprint();
+        if (recovered) {
+            List<Party> parties = null;
+            if (adventure.getParties() != null) {
+                parties = new ArrayList<>();
+                for (int i = 0; i < adventure.getParties().size(); i++) {
+                    Party party = adventure.getParties().get(i);
+                    parties.add(new Party(party.getCharacter(), file.getPartyHitPoint(i), characterDAO, party.getCharacter().getShield()));
+                }
+            }
+            List<List<Monster>> encounters = new ArrayList<>();
+            for (int e = 0; e < adventure.getEncounters().size(); e++) {
+                List<Monster> encounter = new ArrayList<>();
+                for (int i = 0; i < adventure.getEncounters().get(e).size(); i++) {
+                    Monster m = adventure.getEncounters().get(e).get(i);
+                    int hitPoints = file.getMonsterHitPoints(e, i);
+                    if (hitPoints != HitPointFile.REMOVED) {
+                        encounter.add(new Monster(m.getName(), m.getChallenge(), m.getExperience(), hitPoints, m.getInitiative(), m.getDamageDiceNotation(), m.getDamageType()));
+                    }
+                }
+                encounters.add(encounter);
+            }
+            adventureDAO.update(new Adventure(adventure.getName(), adventure.getNum_encounters(), encounters, parties));
+        }
+        file.delete();
+        return recovered;
+    }
+
+    /**
+     * computes the fingerprint of the structure of an adventure: its name, its characters and its monsters,
+     * leaving the hit points out
+     * @param adventure the adventure
+     * @param characterDAO data access object used to get the characters of the parties
+     * @return the fingerprint
+     */
+    private static long fingerprint(Adventure adventure, CharacterDAO characterDAO) {
+        long hash = Objects.hashCode(adventure.getName());
+        hash = hash * 31 + adventure.getNum_encounters();
+        for (List<Monster> encounter : adventure.getEncounters()) {
+            hash = hash * 31 + encounter.size();
+            for (Monster m : encounter) {
+                hash = hash * 31 + Objects.hash(m.getName(), m.getChallenge(), m.getExperience(), m.getInitiative(), m.getDamageDiceNotation(), m.getDamageType());
+            }
+        }
+        if (adventure.getParties() == null) {
+            return hash * 31 - 1;
+        }
+        hash = hash * 31 + adventure.getParties().size();
+        for (Party party : adventure.getParties()) {
+            Character c = party.getCharacter();
+            hash = hash * 31 + Objects.hash(c.getName(), c.getPlayer(), c.getXp(), c.getBody(), c.getMind(), c.getSpirit(), c.getCharClass());
+        }
+        return hash;
+    }
+
+    /**
+     * checks if two monsters are the same but for their hit points
+     * @param a a monster
+     * @param b another monster
+     * @return true if both monsters are the same
+     */
+    private static boolean sameTemplate(Monster a, Monster b) {
+        return Objects.equals(a.getName(), b.getName()) && Objects.equals(a.getChallenge(), b.getChallenge())
+                && a.getExperience() == b.getExperience() && a.getInitiative() == b.getInitiative()
+                && Objects.equals(a.getDamageDiceNotation(), b.getDamageDiceNotation())
+                && Objects.equals(a.getDamageType(), b.getDamageType());
+    }
+
+    /**
+     * checks if two characters are the same
+     * @param a a character
+     * @param b another character
+     * @return true if both characters have the same attributes
+     */
+    private static boolean sameCharacter(Character a, Character b) {
+        return Objects.equals(a.getName(), b.getName()) && Objects.equals(a.getPlayer(), b.getPlayer())
+                && a.getXp() == b.getXp() && a.getBody() == b.getBody() && a.getMind() == b.getMind()
+                && a.getSpirit() == b.getSpirit() && Objects.equals(a.getCharClass(), b.getCharClass());
+    }
+
+    /**
+     * checks if the state of an encounter is being kept in arrays
+     * @param encounter_pos the encounter position
+     * @return true if the encounter is being fought
+     */
+    private boolean fighting(int encounter_pos) {
+        return state != null && state.getEncounterPos() == encounter_pos;
+    }
+
+    /**
+     * checks if a monster is in an encounter
+     * @param encounter_pos the encounter position
+     * @param name the name of the monster
+     * @return true if the monster is in the encounter
+     */
+    public boolean isMonsterInEncounter(int encounter_pos, String name) {
+        if (fighting(encounter_pos)) {
+            return state.findMonster(name) >= 0;
+        }
+        return findMonster(encounter_pos, name) != null;
+    }
+
+    /**
+     * get the damage dice of a monster in an encounter
+     * @param encounter_pos the encounter position
+     * @param name the name of the monster
+     * @return the damage dice of the monster, Integer.MIN_VALUE if it is not in the encounter
+     */
+    public int getDamageDice(int encounter_pos, String name) {
+        if (fighting(encounter_pos)) {
+            int monster_pos = state.findMonster(name);
+            return monster_pos < 0 ? Integer.MIN_VALUE : state.getDamageDice(monster_pos);
+        }
+        Monster monster = findMonster(encounter_pos, name);
+        if (monster == null) {
+            return Integer.MIN_VALUE;
+        }
+        return monster.getDamageDice();
+    }
+
+    /**
+     * finds the first monster with the given name in an encounter
+     * @param encounter_pos the encounter position
+     * @param name the name of the monster
+     * @return the monster if exists, null otherwise
+     */
+    private Monster findMonster(int encounter_pos, String name) {
+        for (Monster monster : adventure.getEncounters().get(encounter_pos)) {
+            if (Objects.equals(monster.getName(), name)) {
+                return monster;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * checks if a monster with the given name is alive in an encounter
+     * @param encounter_pos the encounter position
+     * @param name the name of the monster
+     * @return true if the monster is alive
+     */
+    public boolean isMonsterAlive(int encounter_pos, String name) {
+        if (fighting(encounter_pos)) {
+            return state.isMonsterAlive(name);
+        }
+        for (Monster monster : adventure.getEncounters().get(encounter_pos)) {
+            if (Objects.equals(monster.getName(), name) && monster.getHitPoints() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * checks if all monsters in an encounter are dead
+     * @param encounter_pos the encounter position
+     * @return true if all monsters are dead
+     */
+    public boolean areMonstersAllDead(int encounter_pos) {
+        if (fighting(encounter_pos)) {
+            return state.areMonstersAllDead();
+        }
+        for (Monster monster : adventure.getEncounters().get(encounter_pos)) {
+            if (monster.getHitPoints() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * parties getter
+     * @return the current party of the adventure
+     */
+    public List<Party> getParties() {
+        sync();
+        return adventure.getParties();
+    }
+
+    /**
+     * checks if all the characters in the party are unconscious
+     * @return true if all the party is unconscious
+     */
+    public boolean arePartyAllUnconscious() {
+        if (state != null) {
+            return state.arePartyAllUnconscious();
+        }
+        if (adventure.getParties() == null) {
+            return true;
+        }
+        for (Party party : adventure.getParties()) {
+            if (party.getHitPoint() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * checks if a character of the party (by position) is unconscious
+     * @param party_pos the party position
+     * @return true if the character is unconscious
+     */
+    public boolean isPartyUnconscious(int party_pos) {
+        if (state != null) {
+            return !state.isAlive(party_pos);
+        }
+        return adventure.getParties().get(party_pos).getHitPoint() < 1;
+    }
+}
@@ -0,0 +1,168 @@
+package business;
+
+import business.entities.*;
+import business.entities.Character;
+import business.entities.Classes.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * runs whole adventures without any user interaction or console output, in order to balance encounters.
+ * the combat follows the same rules as the interactive adventure execution
+ * @author Youssef Bat, Alvaro Feher
+ */
+public class CombatSimulator {
+
+    /**
+     * an encounter lasting more rounds than this is considered a draw, so a simulation always ends
+     */
+    private static final int MAX_ROUNDS = 1000;
+
+    private final AdventureManager adventureManager;
+    private final CombatantManager combatantManager;
+    private final CharacterManager characterManager;
+    private final InitiativeTracker initiative;
+
+    /**
+     * constructor
+     */
+    public CombatSimulator() {
+        adventureManager = AdventureManager.forSimulation();
+        combatantManager = new CombatantManager();
+        characterManager = new CharacterManager();
+        initiative = new InitiativeTracker();
+    }
+
+    /**
+     * simulates an adventure several times with the same party
+     * @param adventure the adventure, with all of its encounters
+     * @param characters the characters of the party
+     * @param runs number of times the adventure is played
+     * @return the aggregated statistics of all the runs
+     */
+    public SimulationResult simulate(Adventure adventure, List<Character> characters, int runs) {
+        SimulationResult result = new SimulationResult(adventure.getNum_encounters());
+        for (int i = 0; i < runs; i++) {
+            simulateOnce(adventure, characters, result);
+        }
+        return result;
+    }
+
+    /**
+     * plays an adventure once and records its outcome
+     * @param adventure the adventure, with all of its encounters
+     * @param characters the characters of the party
+     * @param result where the statistics are recorded
+     */
+    public void simulateOnce(Adventure adventure, List<Character> characters, SimulationResult result) {
+        String name = adventure.getName();
+        int[] parties_inx = new int[characters.size()];
+        List<Integer> max_hit_points = new ArrayList<>();
+        for (int i = 0; i < characters.size(); i++) {
+            parties_inx[i] = i;
+            max_hit_points.add(characterManager.getMaxHitPoints(characters.get(i)));
+        }
+
+        adventureManager.startCombatSession(adventureManager.assembleParty(adventure, characters));
+        boolean won = true;
+        boolean tpu = false;
+        for (int i = 0; i < adventure.getNum_encounters(); i++) {
+            int xp_gain = adventureManager.getXpGainedInEncounter(name, i);
+            adventureManager.updatePartyInPrepStage(name, parties_inx);
+
+            combatantManager.rollInitiative(initiative, adventureManager.getCharactersFromParty(name), adventure.getEncounters().get(i));
+            int rounds = combatStage(i, parties_inx, name, max_hit_points, initiative, result);
+            result.recordEncounter(i, rounds);
+
+            if (adventureManager.isTPU(name)) {
+                tpu = true;
+                won = false;
+                break;
+            }
+            if (rounds >= MAX_ROUNDS) {
+                won = false;
+                break;
+            }
+            adventureManager.gainXp(name, xp_gain, parties_inx);
+            adventureManager.updatePartyInShortRestStage(name, parties_inx);
+        }
+        adventureManager.endCombatSession();
+        result.recordRun(won, tpu);
+    }
+
+    /**
+     * plays the combat stage of an encounter
+     * @param encounter_pos the encounter position
+     * @param parties_inx the parties in the adventure
+     * @param currentAdventure the name of the adventure
+     * @param max_hit_points the maximum hit points of the parties
+     * @param combatants the combatants sorted by initiative
+     * @param result where the damage of the characters is recorded
+     * @return the number of rounds the combat lasted
+     */
+    private int combatStage(int encounter_pos, int[] parties_inx, String currentAdventure, List<Integer> max_hit_points, InitiativeTracker combatants, SimulationResult result) {
+        int round = 0;
+        while (!adventureManager.isCombatEnd(currentAdventure, encounter_pos) && round < MAX_ROUNDS) {
+            for (combatants.firstTurn(); combatants.hasTurn(); combatants.nextTurn()) {
+                String name = combatants.getTurnName();
+                int rollDiced = adventureManager.isItAHit();
+                if (adventureManager.isCombatantMonster(currentAdventure, encounter_pos, name)) {
+                    if (adventureManager.isMonsterAlive(currentAdventure, encounter_pos, name)) {
+                        int actionValue = adventureManager.takeAttackActionMonster(currentAdventure, encounter_pos, name);
+                        Monster monster = adventureManager.getMonsterInEncounter(currentAdventure, encounter_pos, name);
+                        String party;
+                        if (monster.isBoss()) {
+                            party = adventureManager.applyDamageOnAllParty(actionValue * rollDiced, currentAdventure, monster.getDamageKind());
+                        } else {
+                            party = adventureManager.applyDamageOnRandomConsciousParty(actionValue * rollDiced, currentAdventure, parties_inx, monster.getDamageKind());
+                        }
+                        if (party == null) {
+                            return round + 1;
+                        }
+                    }
+                }
+                else if (adventureManager.isPartyAlive(currentAdventure, name)) {
+                    characterTurn(encounter_pos, currentAdventure, max_hit_points, combatants, name, rollDiced, result);
+                }
+            }
+            round++;
+        }
+        return round;
+    }
+
+    /**
+     * plays the turn of a character, which either heals the party or attacks the monsters
+     * @param encounter_pos the encounter position
+     * @param currentAdventure the name of the adventure
+     * @param max_hit_points the maximum hit points of the parties
+     * @param combatants the combatants of the encounter
+     * @param name the name of the character
+     * @param rollDiced 0 if the attack fails, 1 for a normal hit, 2 for a critical hit
+     * @param result where the damage of the character is recorded
+     */
+    private void characterTurn(int encounter_pos, String currentAdventure, List<Integer> max_hit_points, InitiativeTracker combatants, String name, int rollDiced, SimulationResult result) {
+        int actionValue = adventureManager.takeAttackActionCharacter(currentAdventure, name, adventureManager.currentAliveMonsters(combatants, currentAdventure, encounter_pos), adventureManager.checkPartyHalfHp(currentAdventure, max_hit_points));
+        Party p = adventureManager.getPartyMemberByName(currentAdventure, name);
+        if (p == null) {
+            return;
+        }
+        Character ch = p.getCharacter();
+        DamageType attackType = ch.getCharacterClass() == null ? DamageType.PSYCHICAL : ch.getCharacterClass().getAttackType();
+
+        if (adventureManager.currentAliveMonsters(combatants, currentAdventure, encounter_pos) > 3 && ch instanceof Wizard && !adventureManager.checkHealingNeeded(currentAdventure, max_hit_points)) {
+            adventureManager.applyDamageOnAllMonsters(actionValue, currentAdventure, encounter_pos, attackType);
+            result.recordDamage(ch.getCharClass(), actionValue);
+        }
+        else if (ch instanceof Cleric && adventureManager.checkHealingNeeded(currentAdventure, max_hit_points)) {
+            adventureManager.applyHealOnCharacter(actionValue, currentAdventure, max_hit_points);
+        }
+        else if (ch instanceof Paladin && adventureManager.checkHealingNeeded(currentAdventure, max_hit_points)) {
+            adventureManager.applyHealOnParty(actionValue, currentAdventure);
+        }
+        else {
+            adventureManager.applyDamageOnRandomMonsterInEncounter(actionValue * rollDiced, currentAdventure, encounter_pos, attackType);
+            result.recordDamage(ch.getCharClass(), actionValue * rollDiced);
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package business;
+
+import business.entities.Adventure;
+import business.entities.Character;
+import business.entities.CharacterClass;
+import business.entities.DamageType;
+import business.entities.Monster;
+import business.entities.Party;
+import persistence.Binary.HitPointFile;
+import persistence.CharacterDAO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * the state of the encounter being fought, as parallel arrays of primitives instead of parties and monsters:
+ * hit points, shields, classes and consciousness of the party, and hit points of the monsters of the encounter.
+ * it is built from the adventure when the encounter starts, so damage, healing and the checks of who is alive change
+ * or read the arrays and allocate nothing. the adventure is only built again, with {@link #materialize}, when it is
+ * read as a whole or written to the storage. with a hit point file, every change is written through to it.
+ * the conscious party members and the living monsters are counted as their hit points cross 0, so checking the end of
+ * the combat does not scan the arrays.
+ * @author Youssef Bat, Alvaro Feher
+ */
+final class CombatState {
+
+    private static final CharacterClass[] classes = CharacterClass.values();
+    private static final DamageType[] damageTypes = DamageType.values();
+
+    private final int encounterPos;
+    private final CharacterDAO characterDAO;
+
+    // party, by position
+    private final boolean noParty;
+    private final Party[] parties;
+    private final int[] hp;
+    private final int[] shield;
+    private final byte[] classId;
+    private final boolean[] alive;
+    private int conscious;
+
+    // monsters of the encounter, by their slot when the encounter started
+    private final Monster[] monsters;
+    private final int[] monsterHp;
+    private final byte[] monsterDamageType;
+    private final boolean[] boss;
+    /**
+     * slots of the monsters not removed, in the order of the encounter
+     */
+    private final int[] order;
+    private int remaining;
+    private int living;
+
+    private HitPointFile hitPoints;
+    private int[] hitPointSlots;
+    private boolean dirty;
+
+    /**
+     * constructor, builds the state from the adventure
+     * @param adventure the adventure being played
+     * @param encounterPos position of the encounter being fought
+     * @param characterDAO data access object used to give their class to the characters when the adventure is built again
+     */
+    CombatState(Adventure adventure, int encounterPos, CharacterDAO characterDAO) {
+        this.encounterPos = encounterPos;
+        this.characterDAO = characterDAO;
+
+        List<Party> partyList = adventure.getParties();
+        noParty = partyList == null;
+        int size = noParty ? 0 : partyList.size();
+        parties = new Party[size];
+        hp = new int[size];
+        shield = new int[size];
+        classId = new byte[size];
+        alive = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            Party party = partyList.get(i);
+            CharacterClass charClass = party.getCharacter().getCharacterClass();
+            parties[i] = party;
+            hp[i] = party.getHitPoint();
+            shield[i] = party.getCharacter().getShield();
+            classId[i] = (byte) (charClass == null ? -1 : charClass.ordinal());
+            alive[i] = hp[i] > 0;
+            if (alive[i]) {
+                conscious++;
+            }
+        }
+
+        List<Monster> encounter = adventure.getEncounters().get(encounterPos);
+        int count = encounter.size();
+        monsters = new Monster[count];
+        monsterHp = new int[count];
+        monsterDamageType = new byte[count];
+        boss = new boolean[count];
+        order = new int[count];
+        for (int j = 0; j < count; j++) {
+            Monster monster = encounter.get(j);
+            monsters[j] = monster;
+            monsterHp[j] = monster.getHitPoints();
+            monsterDamageType[j] = (byte) (monster.getDamageKind() == null ? -1 : monster.getDamageKind().ordinal());
+            boss[j] = monster.isBoss();
+            order[j] = j;
+            if (monsterHp[j] > 0) {
+                living++;
+            }
+        }
+        remaining = count;
+    }
+
+    /**
+     * writes every change of hit points through to a hit point file as well
+     * @param hitPoints the hit point file of the adventure
+     * @param slots slots in the file of the monsters of the encounter, in the order of the encounter
+     */
+    void writeThrough(HitPointFile hitPoints, int[] slots) {
+        this.hitPoints = hitPoints;
+        this.hitPointSlots = slots;
+    }
+
+    /**
+     * gets the position of the encounter of the state
+     * @return the encounter position
+     */
+    int getEncounterPos() {
+        return encounterPos;
+    }
+
+    /**
+     * checks if the state has changed since the adventure was last built from it
+     * @return true if there are changes
+     */
+    boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * gets the size of the party
+     * @return amount of characters in the party
+     */
+    int getPartySize() {
+        return hp.length;
+    }
+
+    /**
+     * gets the character of a party member
+     * @param party_pos the party position
+     * @return the character
+     */
+    Character getCharacter(int party_pos) {
+        return parties[party_pos].getCharacter();
+    }
+
+    /**
+     * gets the class of a party member
+     * @param party_pos the party position
+     * @return the class, null if it is unknown
+     */
+    CharacterClass getCharacterClass(int party_pos) {
+        return classId[party_pos] < 0 ? null : classes[classId[party_pos]];
+    }
+
+    /**
+     * gets the hit points of a party member
+     * @param party_pos the party position
+     * @return the hit points
+     */
+    int getHitPoint(int party_pos) {
+        return hp[party_pos];
+    }
+
+    /**
+     * gets the shield of a party member
+     * @param party_pos the party position
+     * @return the shield points
+     */
+    int getShield(int party_pos) {
+        return shield[party_pos];
+    }
+
+    /**
+     * checks if a party member is conscious
+     * @param party_pos the party position
+     * @return true if it has hit points left
+     */
+    boolean isAlive(int party_pos) {
+        return alive[party_pos];
+    }
+
+    /**
+     * finds a party member by the name of its character
+     * @param name name of the character
+     * @return the party position, -1 if there is no such character
+     */
+    int findPartyMember(String name) {
+        for (int i = 0; i < parties.length; i++) {
+            if (Objects.equals(parties[i].getCharacter().getName(), name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * checks if all the characters in the party are unconscious
+     * @return true if all the party is unconscious, or there is no party
+     */
+    boolean arePartyAllUnconscious() {
+        return conscious == 0;
+    }
+
+    /**
+     * applies damage to a party member, its shield taking it first. a member left without hit points loses its shield
+     * @param party_pos the party position
+     * @param damage damage taken, after the resistances of its class
+     */
+    void damagePartyMember(int party_pos, int damage) {
+        int absorbed = Math.min(shield[party_pos], damage);
+        int hitPoint = hp[party_pos] - (damage - absorbed);
+        if (hitPoint > 0) {
+            shield[party_pos] -= absorbed;
+        }
+        else {
+            hitPoint = 0;
+            shield[party_pos] = 0;
+        }
+        setHitPoint(party_pos, hitPoint);
+    }
+
+    /**
+     * heals a party member, which loses its shield
+     * @param party_pos the party position
+     * @param heal hit points regenerated
+     */
+    void healPartyMember(int party_pos, int heal) {
+        shield[party_pos] = 0;
+        setHitPoint(party_pos, hp[party_pos] + heal);
+    }
+
+    /**
+     * changes the hit points of a party member
+     * @param party_pos the party position
+     * @param hitPoint new hit points
+     */
+    private void setHitPoint(int party_pos, int hitPoint) {
+        if (hitPoints != null && hp[party_pos] != hitPoint) {
+            hitPoints.setPartyHitPoint(party_pos, hitPoint);
+        }
+        hp[party_pos] = hitPoint;
+        if (alive[party_pos] != hitPoint > 0) {
+            alive[party_pos] = hitPoint > 0;
+            conscious += alive[party_pos] ? 1 : -1;
+        }
+        dirty = true;
+    }
+
+    /**
+     * gets a party member, built again only if its hit points or shield have changed
+     * @param party_pos the party position
+     * @return the party member
+     */
+    Party getParty(int party_pos) {
+        Party party = parties[party_pos];
+        if (party.getHitPoint() != hp[party_pos] || party.getCharacter().getShield() != shield[party_pos]) {
+            party = new Party(party.getCharacter(), hp[party_pos], characterDAO, shield[party_pos]);
+            parties[party_pos] = party;
+        }
+        return party;
+    }
+
+    /**
+     * gets the amount of monsters left in the encounter, alive or not
+     * @return amount of monsters not removed
+     */
+    int getMonsterCount() {
+        return remaining;
+    }
+
+    /**
+     * finds the first monster left in the encounter with a given name
+     * @param name name of the monster
+     * @return its position among the monsters left, -1 if there is none
+     */
+    int findMonster(String name) {
+        for (int k = 0; k < remaining; k++) {
+            if (Objects.equals(monsters[order[k]].getName(), name)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * gets the name of a monster
+     * @param monster_pos position of the monster among the monsters left
+     * @return the name of the monster
+     */
+    String getMonsterName(int monster_pos) {
+        return monsters[order[monster_pos]].getName();
+    }
+
+    /**
+     * gets the hit points of a monster
+     * @param monster_pos position of the monster among the monsters left
+     * @return the hit points
+     */
+    int getMonsterHitPoints(int monster_pos) {
+        return monsterHp[order[monster_pos]];
+    }
+
+    /**
+     * checks if a monster is a boss
+     * @param monster_pos position of the monster among the monsters left
+     * @return true if it is a boss
+     */
+    boolean isBoss(int monster_pos) {
+        return boss[order[monster_pos]];
+    }
+
+    /**
+     * gets the type of damage of a monster
+     * @param monster_pos position of the monster among the monsters left
+     * @return the damage type, null if it is unknown
+     */
+    DamageType getMonsterDamageType(int monster_pos) {
+        byte type = monsterDamageType[order[monster_pos]];
+        return type < 0 ? null : damageTypes[type];
+    }
+
+    /**
+     * gets the damage dice of a monster
+     * @param monster_pos position of the monster among the monsters left
+     * @return the sides of its damage dice
+     */
+    int getDamageDice(int monster_pos) {
+        return monsters[order[monster_pos]].getDamageDice();
+    }
+
+    /**
+     * gets a monster, built again only if its hit points have changed
+     * @param monster_pos position of the monster among the monsters left
+     * @return the monster
+     */
+    Monster getMonster(int monster_pos) {
+        return monsterAt(order[monster_pos]);
+    }
+
+    /**
+     * gets the monster of a slot, built again only if its hit points have changed
+     * @param slot slot of the monster
+     * @return the monster
+     */
+    private Monster monsterAt(int slot) {
+        Monster monster = monsters[slot];
+        if (monster.getHitPoints() != monsterHp[slot]) {
+            monster = monster.withHitPoints(monsterHp[slot]);
+            monsters[slot] = monster;
+        }
+        return monster;
+    }
+
+    /**
+     * changes the hit points of a monster, which stays in the encounter even with no hit points left
+     * @param monster_pos position of the monster among the monsters left
+     * @param hitPoints new hit points
+     */
+    void setMonsterHitPoints(int monster_pos, int hitPoints) {
+        int slot = order[monster_pos];
+        if (this.hitPoints != null && monsterHp[slot] != hitPoints) {
+            this.hitPoints.setMonsterHitPoints(encounterPos, hitPointSlots[slot], hitPoints);
+        }
+        if (monsterHp[slot] > 0 != hitPoints > 0) {
+            living += hitPoints > 0 ? 1 : -1;
+        }
+        monsterHp[slot] = hitPoints;
+        dirty = true;
+    }
+
+    /**
+     * removes a dead monster from the encounter. the monsters after it move one position forward
+     * @param monster_pos position of the monster among the monsters left
+     */
+    void removeMonster(int monster_pos) {
+        int slot = order[monster_pos];
+        if (hitPoints != null) {
+            hitPoints.setMonsterHitPoints(encounterPos, hitPointSlots[slot], HitPointFile.REMOVED);
+        }
+        if (monsterHp[slot] > 0) {
+            living--;
+        }
+        remaining--;
+        System.arraycopy(order, monster_pos + 1, order, monster_pos, remaining - monster_pos);
+        dirty = true;
+    }
+
+    /**
+     * checks if a monster with a given name is alive in the encounter
+     * @param name name of the monster
+     * @return true if a monster with that name has hit points left
+     */
+    boolean isMonsterAlive(String name) {
+        for (int k = 0; k < remaining; k++) {
+            int slot = order[k];
+            if (monsterHp[slot] > 0 && Objects.equals(monsters[slot].getName(), name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * checks if all the monsters left in the encounter are dead
+     * @return true if no monster has hit points left
+     */
+    boolean areMonstersAllDead() {
+        return living == 0;
+    }
+
+    /**
+     * gets the amount of monsters alive in the encounter
+     * @return amount of monsters left with hit points
+     */
+    int getLivingMonsters() {
+        return living;
+    }
+
+    /**
+     * gets the slots in the hit point file of the monsters left, in the order of the encounter
+     * @return the slots
+     */
+    int[] getHitPointSlots() {
+        int[] slots = new int[remaining];
+        for (int k = 0; k < remaining; k++) {
+            slots[k] = hitPointSlots[order[k]];
+        }
+        return slots;
+    }
+
+    /**
+     * builds the adventure again with the current state of the party and the encounter
+     * @param adventure the adventure the state was built from, or last built
+     * @return the adventure with the current hit points and shields
+     */
+    Adventure materialize(Adventure adventure) {
+        List<Party> new_parties = null;
+        if (!noParty) {
+            new_parties = new ArrayList<>(parties.length);
+            for (int i = 0; i < parties.length; i++) {
+                new_parties.add(getParty(i));
+            }
+        }
+        List<Monster> encounter = new ArrayList<>(remaining);
+        for (int k = 0; k < remaining; k++) {
+            encounter.add(monsterAt(order[k]));
+        }
+        List<List<Monster>> encounters = new ArrayList<>(adventure.getEncounters());
+        encounters.set(encounterPos, encounter);
+        dirty = false;
+        return new Adventure(adventure.getName(), adventure.getNum_encounters(), encounters, new_parties);
+    }
+}
@@ -1,10 +1,8 @@
 package business;
 
-import business.entities.Combatant;
+import business.entities.Character;
+import business.entities.Monster;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -37,58 +35,45 @@ public class CombatantManager {
     }
 
     /**
-     * rolling initiative, and sorting all the combatants by their initial value
+     * rolling initiative into a tracker, replacing the combatants of its previous encounter, and sorting all the
+     * combatants by their initial value
+     * @param tracker the initiative tracker, reused from one encounter to the next
      * @param partyNames names of the characters
      * @param monsterNamesInEncounterUnfiltered monster names
-     * @return a sorted list of combatants
      */
-    public List<Combatant> rollInitiative(String[] partyNames, List<String> monsterNamesInEncounterUnfiltered) {
+    public void rollInitiative(InitiativeTracker tracker, String[] partyNames, List<String> monsterNamesInEncounterUnfiltered) {
         monsterManager.setIsLocal(isLocal());
         characterManager.setLocal(isLocal());
-        List<Integer> party_initiative_value = characterManager.getInitValueByNames(partyNames);
-        List<Integer> monster_initiative_value = monsterManager.getInitValueByNames(monsterNamesInEncounterUnfiltered);
-        List<Combatant> combatents = new ArrayList<>();
-        for (int i=0;i< partyNames.length;i++) {
-            combatents.add(new Combatant(partyNames[i], party_initiative_value.get(i)));
+        tracker.clear();
+        for (String partyName : partyNames) {
+            tracker.add(partyName, characterManager.rollInitiative(partyName));
         }
         for (int i=0;i< monsterNamesInEncounterUnfiltered.size();i++) {
-            combatents.add(new Combatant(monsterNamesInEncounterUnfiltered.get(i), monster_initiative_value.get(i)));
+            tracker.add(monsterNamesInEncounterUnfiltered.get(i), monsterManager.rollInitiative(monsterNamesInEncounterUnfiltered.get(i)));
         }
-        //sorting the list based on the initiative value
-        combatents.sort(Comparator.comparingInt(Combatant::getInitValue));
-        Collections.reverse(combatents);
-        return combatents;
-
+        //sorting the combatants based on the initiative value
+        tracker.sort();
     }
 
     /**
-     * initial value getter
-     * @param combatants list of combatants
-     * @return a list of initial value
+     * rolling initiative from characters and monsters already loaded into a tracker, replacing the combatants of its
+     * previous encounter. once the tracker is big enough for the encounter, nothing is allocated
+     * @param tracker the initiative tracker, reused from one encounter to the next
+     * @param characters characters of the party
+     * @param monsters monsters in the encounter
      */
-    public List<Integer> getInitValues(List<Combatant> combatants) {
-        monsterManager.setIsLocal(isLocal());
-        characterManager.setLocal(isLocal());
-        List<Integer> list = new ArrayList<>();
-        for (Combatant combatant : combatants) {
-            list.add(combatant.getInitValue());
+    public void rollInitiative(InitiativeTracker tracker, List<Character> characters, List<Monster> monsters) {
+        tracker.clear();
+        for (int i = 0; i < characters.size(); i++) {
+            Character character = characters.get(i);
+            tracker.add(character.getName(), character.getSpirit() + Dice.roll(12));
         }
-       return list;
-    }
-
-    /**
-     * gets names of a list of combatants
-     * @param combatants list of combatants
-     * @return a list of names of the given combatants
-     */
-    public List<String> getNames(List<Combatant> combatants) {
-        monsterManager.setIsLocal(isLocal());
-        characterManager.setLocal(isLocal());
-        List<String> list = new ArrayList<>();
-        for (Combatant combatant : combatants) {
-            list.add(combatant.getName());
+        for (int i = 0; i < monsters.size(); i++) {
+            Monster monster = monsters.get(i);
+            tracker.add(monster.getName(), monster.getInitiative() + Dice.roll(12));
         }
-        return list;
+        //sorting the combatants based on the initiative value
+        tracker.sort();
     }
 
 }
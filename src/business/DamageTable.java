@@ -0,0 +1,78 @@
+package business;
+
+import business.entities.CharacterClass;
+import business.entities.DamageType;
+
+import java.util.Arrays;
+
+/**
+ * resistances of the character classes to the damage types, as a table indexed by class and damage type.
+ * every cell holds the part of the damage the class takes, in halves, and how much the damage is reduced per level of
+ * the character, so taking damage is a lookup and a multiplication. a new resistance is a new line in the static block
+ * @author Youssef Bat, Alvaro Feher
+ */
+public final class DamageTable {
+
+    private static final int TYPES = DamageType.values().length;
+
+    /**
+     * part of the damage taken, in halves: 2 is the whole damage, 1 is half of it
+     */
+    private static final int[] halves = new int[CharacterClass.values().length * TYPES];
+    /**
+     * damage reduction per level of the character
+     */
+    private static final int[] levelReduction = new int[CharacterClass.values().length * TYPES];
+
+    static {
+        Arrays.fill(halves, 2);
+        resist(CharacterClass.WARRIOR, DamageType.PHYSICAL, 1, 0);
+        resist(CharacterClass.CHAMPION, DamageType.PHYSICAL, 1, 0);
+        resist(CharacterClass.PALADIN, DamageType.PSYCHICAL, 1, 0);
+        resist(CharacterClass.WIZARD, DamageType.MAGICAL, 2, 1);
+    }
+
+    /**
+     * utility class, not to be instantiated
+     */
+    private DamageTable() {
+    }
+
+    /**
+     * sets the resistance of a class to a damage type
+     * @param charClass character class
+     * @param damageType damage type
+     * @param part part of the damage taken, in halves
+     * @param reduction damage reduction per level
+     */
+    private static void resist(CharacterClass charClass, DamageType damageType, int part, int reduction) {
+        halves[charClass.ordinal() * TYPES + damageType.ordinal()] = part;
+        levelReduction[charClass.ordinal() * TYPES + damageType.ordinal()] = reduction;
+    }
+
+    /**
+     * checks if the damage a class takes from a damage type depends on the level of the character
+     * @param charClass character class, null if unknown
+     * @param damageType damage type, null if unknown
+     * @return true if the damage is reduced per level
+     */
+    public static boolean isReducedByLevel(CharacterClass charClass, DamageType damageType) {
+        return charClass != null && damageType != null && levelReduction[charClass.ordinal() * TYPES + damageType.ordinal()] != 0;
+    }
+
+    /**
+     * gets the damage a character takes from an attack. an unknown class or damage type takes the whole damage
+     * @param charClass character class, null if unknown
+     * @param damageType damage type, null if unknown
+     * @param damage damage of the attack
+     * @param level level of the character, only used if the damage is reduced per level
+     * @return the damage taken, never negative
+     */
+    public static int damageTaken(CharacterClass charClass, DamageType damageType, int damage, int level) {
+        if (charClass == null || damageType == null) {
+            return damage;
+        }
+        int cell = charClass.ordinal() * TYPES + damageType.ordinal();
+        return Math.max(damage * halves[cell] / 2 - levelReduction[cell] * level, 0);
+    }
+}
@@ -0,0 +1,75 @@
+package business;
+
+/**
+ * dice rolled during the adventures. every thread rolls with its own dice roller, which by default
+ * uses the generator of the thread, so simulations running in parallel do not contend on a single
+ * shared generator as with Math.random. a thread can be given a seeded roller to reproduce its rolls
+ * @author Youssef Bat, Alvaro Feher
+ */
+public final class Dice {
+
+    private static final DiceRoller DEFAULT_ROLLER = new ThreadLocalDiceRoller();
+    private static final ThreadLocal<DiceRoller> roller = ThreadLocal.withInitial(() -> DEFAULT_ROLLER);
+
+    /**
+     * utility class, not to be instantiated
+     */
+    private Dice() {
+    }
+
+    /**
+     * gets the dice roller used by the current thread
+     * @return the dice roller
+     */
+    public static DiceRoller getRoller() {
+        return roller.get();
+    }
+
+    /**
+     * replaces the dice roller used by the current thread
+     * @param diceRoller the new dice roller, null to go back to the default one
+     */
+    public static void setRoller(DiceRoller diceRoller) {
+        if (diceRoller == null) {
+            roller.remove();
+        }
+        else {
+            roller.set(diceRoller);
+        }
+    }
+
+    /**
+     * makes the rolls of the current thread reproducible
+     * @param seed seed of the rolls
+     */
+    public static void seed(long seed) {
+        roller.set(new SplittableDiceRoller(seed));
+    }
+
+    /**
+     * rolls a dice
+     * @param sides number of sides of the dice
+     * @return a random number between 1 and sides
+     */
+    public static int roll(int sides) {
+        return roller.get().roll(sides);
+    }
+
+    /**
+     * rolls the dice described in d-notation, such as "d8", "2d6" or "1d20-1"
+     * @param notation the dice in d-notation
+     * @return the sum of the dice plus the modifier
+     */
+    public static int roll(String notation) {
+        return roller.get().roll(notation);
+    }
+
+    /**
+     * fills an array with rolls of the same dice
+     * @param out array where the rolls are stored
+     * @param sides number of sides of the dice
+     */
+    public static void fill(int[] out, int sides) {
+        roller.get().fill(out, sides);
+    }
+}
@@ -0,0 +1,76 @@
+package business;
+
+/**
+ * interface of a dice roller, which can roll single dice, dice in d-notation ("2d6+3") or many dice at once
+ * @author Youssef Bat, Alvaro Feher
+ */
+public interface DiceRoller {
+
+    /**
+     * rolls a dice
+     * @param sides number of sides of the dice
+     * @return a random number between 1 and sides
+     */
+    int roll(int sides);
+
+    /**
+     * rolls several dice and adds a modifier to their sum
+     * @param count number of dice
+     * @param sides number of sides of each dice
+     * @param modifier value added to the sum of the dice
+     * @return the sum of the dice plus the modifier
+     */
+    default int roll(int count, int sides, int modifier) {
+        int total = modifier;
+        for (int i = 0; i < count; i++) {
+            total += roll(sides);
+        }
+        return total;
+    }
+
+    /**
+     * rolls the dice described in d-notation, such as "d8", "2d6" or "1d20-1"
+     * @param notation the dice in d-notation
+     * @return the sum of the dice plus the modifier
+     */
+    default int roll(String notation) {
+        int[] dice = parse(notation);
+        return roll(dice[0], dice[1], dice[2]);
+    }
+
+    /**
+     * fills an array with rolls of the same dice
+     * @param out array where the rolls are stored
+     * @param sides number of sides of the dice
+     */
+    default void fill(int[] out, int sides) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = roll(sides);
+        }
+    }
+
+    /**
+     * parses dice in d-notation
+     * @param notation the dice in d-notation, such as "d8", "2d6" or "1d20-1"
+     * @return an array with the number of dice, the number of sides and the modifier
+     */
+    static int[] parse(String notation) {
+        String str = notation.trim().toLowerCase();
+        int d = str.indexOf('d');
+        if (d < 0) {
+            throw new IllegalArgumentException("Invalid dice notation: " + notation);
+        }
+        int sign = Math.max(str.indexOf('+', d), str.indexOf('-', d));
+        try {
+            int count = d == 0 ? 1 : Integer.parseInt(str.substring(0, d));
+            int sides = Integer.parseInt(sign < 0 ? str.substring(d + 1) : str.substring(d + 1, sign));
+            int modifier = sign < 0 ? 0 : Integer.parseInt(str.substring(sign));
+            if (count < 0 || sides < 1) {
+                throw new IllegalArgumentException("Invalid dice notation: " + notation);
+            }
+            return new int[] {count, sides, modifier};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid dice notation: " + notation, e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package business;
+
+import java.util.Arrays;
+
+/**
+ * order of the turns of the combatants of an encounter, kept in primitive arrays: the id of every combatant, which is
+ * the position in which it was added, and its initiative. the arrays are kept from one encounter to the next and only
+ * grow, so rolling the initiative, sorting it and walking the turns allocate nothing once they are big enough.
+ * the turns are walked with a cursor instead of an iterator:
+ * for (tracker.firstTurn(); tracker.hasTurn(); tracker.nextTurn()) { ... tracker.getTurnName() ... }
+ * @author Youssef Bat, Alvaro Feher
+ */
+public class InitiativeTracker {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * names of the combatants, by id
+     */
+    private String[] names = new String[INITIAL_CAPACITY];
+    /**
+     * ids of the combatants, by turn once sorted
+     */
+    private int[] ids = new int[INITIAL_CAPACITY];
+    /**
+     * initiatives of the combatants, by turn once sorted
+     */
+    private int[] initiatives = new int[INITIAL_CAPACITY];
+    private int size;
+    private int cursor;
+
+    /**
+     * removes all the combatants, keeping the arrays for the next encounter
+     */
+    public void clear() {
+        Arrays.fill(names, 0, size, null);
+        size = 0;
+        cursor = 0;
+    }
+
+    /**
+     * adds a combatant, whose id is the amount of combatants added before it
+     * @param name name of the combatant
+     * @param initiative initiative value of the combatant
+     */
+    public void add(String name, int initiative) {
+        if (size == ids.length) {
+            names = Arrays.copyOf(names, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+            initiatives = Arrays.copyOf(initiatives, size * 2);
+        }
+        names[size] = name;
+        ids[size] = size;
+        initiatives[size] = initiative;
+        size++;
+    }
+
+    /**
+     * sorts the combatants by their initiative, the highest first. combatants with the same initiative take their
+     * turns in the inverse order in which they were added. it is an insertion sort on the primitive arrays,
+     * since encounters only have a few combatants
+     */
+    public void sort() {
+        for (int i = 1; i < size; i++) {
+            int id = ids[i];
+            int initiative = initiatives[i];
+            int j = i - 1;
+            while (j >= 0 && (initiatives[j] < initiative || (initiatives[j] == initiative && ids[j] < id))) {
+                ids[j + 1] = ids[j];
+                initiatives[j + 1] = initiatives[j];
+                j--;
+            }
+            ids[j + 1] = id;
+            initiatives[j + 1] = initiative;
+        }
+        cursor = 0;
+    }
+
+    /**
+     * gets the amount of combatants
+     * @return the amount of combatants
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * gets the id of the combatant of a turn
+     * @param turn position of the turn in the round
+     * @return the id of the combatant
+     */
+    public int getId(int turn) {
+        return ids[turn];
+    }
+
+    /**
+     * gets the name of the combatant of a turn
+     * @param turn position of the turn in the round
+     * @return the name of the combatant
+     */
+    public String getName(int turn) {
+        return names[ids[turn]];
+    }
+
+    /**
+     * gets the initiative of the combatant of a turn
+     * @param turn position of the turn in the round
+     * @return the initiative value of the combatant
+     */
+    public int getInitiative(int turn) {
+        return initiatives[turn];
+    }
+
+    /**
+     * moves the cursor to the first turn of the round
+     */
+    public void firstTurn() {
+        cursor = 0;
+    }
+
+    /**
+     * checks if the cursor is on a turn, or the round is over
+     * @return true if there is a turn at the cursor
+     */
+    public boolean hasTurn() {
+        return cursor < size;
+    }
+
+    /**
+     * moves the cursor to the next turn
+     */
+    public void nextTurn() {
+        cursor++;
+    }
+
+    /**
+     * gets the id of the combatant whose turn it is
+     * @return the id of the combatant
+     */
+    public int getTurnId() {
+        return ids[cursor];
+    }
+
+    /**
+     * gets the name of the combatant whose turn it is
+     * @return the name of the combatant
+     */
+    public String getTurnName() {
+        return names[ids[cursor]];
+    }
+}
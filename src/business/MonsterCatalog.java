@@ -0,0 +1,151 @@
+package business;
+
+import business.entities.DamageType;
+import business.entities.Monster;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * immutable catalog of the monsters in the data set, indexed by name.
+ * it is built once from a list of monsters, so looking a monster up does not read the data set again
+ * @author Youssef Bat, Alvaro Feher
+ */
+public class MonsterCatalog {
+
+    private final List<Monster> monsters;
+    private final Map<String, Entry> byName;
+    private final Map<String, List<Monster>> byChallenge;
+    private final List<String> names;
+    private final List<String> challenges;
+
+    /**
+     * a monster with the values that are precomputed when the catalog is built
+     */
+    private static class Entry {
+        private final Monster monster;
+        private final boolean boss;
+        private final int damageDice;
+
+        /**
+         * constructor
+         * @param monster the monster
+         */
+        Entry(Monster monster) {
+            this.monster = monster;
+            this.boss = monster.isBoss();
+            this.damageDice = monster.getDamageDice();
+        }
+    }
+
+    /**
+     * constructor
+     * @param monsters the monsters of the data set, null if the data set could not be loaded
+     */
+    public MonsterCatalog(List<Monster> monsters) {
+        List<Monster> all = monsters == null ? new ArrayList<>() : new ArrayList<>(monsters);
+        List<String> all_names = new ArrayList<>();
+        List<String> all_challenges = new ArrayList<>();
+        Map<String, Entry> name_index = new HashMap<>();
+        Map<String, List<Monster>> challenge_index = new LinkedHashMap<>();
+        for (Monster monster : all) {
+            all_names.add(monster.getName());
+            all_challenges.add(monster.getChallenge());
+            name_index.putIfAbsent(monster.getName(), new Entry(monster));
+            challenge_index.computeIfAbsent(monster.getChallenge(), k -> new ArrayList<>()).add(monster);
+        }
+        for (Map.Entry<String, List<Monster>> entry : challenge_index.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        this.monsters = Collections.unmodifiableList(all);
+        this.names = Collections.unmodifiableList(all_names);
+        this.challenges = Collections.unmodifiableList(all_challenges);
+        this.byName = name_index;
+        this.byChallenge = Collections.unmodifiableMap(challenge_index);
+    }
+
+    /**
+     * gets all the monsters, in the order of the data set
+     * @return a list of monsters
+     */
+    public List<Monster> getAll() {
+        return monsters;
+    }
+
+    /**
+     * gets the names of all the monsters, in the order of the data set
+     * @return a list of monster names
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * gets the challenges of all the monsters, in the order of the data set
+     * @return a list of monster challenges
+     */
+    public List<String> getChallenges() {
+        return challenges;
+    }
+
+    /**
+     * gets the monster with the given name
+     * @param name monster name
+     * @return the monster if exists, null otherwise
+     */
+    public Monster findByName(String name) {
+        Entry entry = byName.get(name);
+        return entry == null ? null : entry.monster;
+    }
+
+    /**
+     * checks if the monster with the given name is a boss
+     * @param name monster name
+     * @return true if the monster exists and is a boss
+     */
+    public boolean isBoss(String name) {
+        Entry entry = byName.get(name);
+        return entry != null && entry.boss;
+    }
+
+    /**
+     * gets the number of sides of the damage dice of a monster
+     * @param name monster name
+     * @return the sides of the damage dice, Integer.MIN_VALUE if the monster does not exist
+     */
+    public int getDamageDice(String name) {
+        Entry entry = byName.get(name);
+        return entry == null ? Integer.MIN_VALUE : entry.damageDice;
+    }
+
+    /**
+     * gets the damage type of a monster
+     * @param name monster name
+     * @return the damage type, null if the monster does not exist
+     */
+    public DamageType getDamageType(String name) {
+        Entry entry = byName.get(name);
+        return entry == null ? null : entry.monster.getDamageKind();
+    }
+
+    /**
+     * gets the monsters of a challenge
+     * @param challenge the challenge, such as "Minion", "Lieutenant" or "Boss"
+     * @return a list of monsters of the challenge, empty if there is none
+     */
+    public List<Monster> getByChallenge(String challenge) {
+        return byChallenge.getOrDefault(challenge, Collections.emptyList());
+    }
+
+    /**
+     * gets the amount of monsters in the catalog
+     * @return number of monsters
+     */
+    public int size() {
+        return monsters.size();
+    }
+}
@@ -1,5 +1,6 @@
 package business;
 
+import business.entities.DamageType;
 import business.entities.Monster;
 import persistence.API.MonsterApiDAO;
 import persistence.JSON.MonstersJsonDAO;
@@ -8,7 +9,7 @@ import persistence.MonsterDAO;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * manages monster related features logic
@@ -20,6 +21,9 @@ import java.util.Objects;
 
 public class MonsterManager {
 
+    private static MonsterCatalog localCatalog;
+    private static MonsterCatalog cloudCatalog;
+
     private final MonsterDAO monsterJsonDAO;
     private final MonsterDAO monsterApiDAO;
     private boolean local;
@@ -52,19 +56,85 @@ public class MonsterManager {
         }
     }
 
+    /**
+     * gets the catalog of the monsters in the data set, loading it the first time it is needed.
+     * the catalog is shared by all the managers of the same data set (local or cloud)
+     * @return the monster catalog
+     */
+    public MonsterCatalog getCatalog() {
+        synchronized (MonsterManager.class) {
+            MonsterCatalog catalog = isLocal() ? localCatalog : cloudCatalog;
+            if (catalog == null) {
+                catalog = install(isLocal(), loadMonsters());
+            }
+            return catalog;
+        }
+    }
+
+    /**
+     * gets the catalog of the monsters in the data set without blocking the caller while it is loaded
+     * @return a future with the monster catalog
+     */
+    public CompletableFuture<MonsterCatalog> getCatalogAsync() {
+        boolean is_local = isLocal();
+        synchronized (MonsterManager.class) {
+            MonsterCatalog catalog = is_local ? localCatalog : cloudCatalog;
+            if (catalog != null) {
+                return CompletableFuture.completedFuture(catalog);
+            }
+        }
+        MonsterDAO dao = is_local ? monsterJsonDAO : monsterApiDAO;
+        return dao.getAllAsync().thenApply(monsters -> {
+            synchronized (MonsterManager.class) {
+                return install(is_local, monsters);
+            }
+        });
+    }
+
+    /**
+     * builds a catalog and shares it with the other managers of the same data set
+     * @param is_local true if the monsters come from the local data set
+     * @param monsters the monsters, null if the data set could not be loaded
+     * @return the new monster catalog
+     */
+    private static MonsterCatalog install(boolean is_local, List<Monster> monsters) {
+        MonsterCatalog catalog = new MonsterCatalog(monsters);
+        if (monsters == null) {
+            //the data set could not be loaded, so it is tried again next time
+            return catalog;
+        }
+        if (is_local) {
+            localCatalog = catalog;
+        }
+        else {
+            cloudCatalog = catalog;
+        }
+        return catalog;
+    }
+
+    /**
+     * loads the monsters of the data set again, for when the data set has been changed
+     * @return the new monster catalog
+     */
+    public MonsterCatalog refreshCatalog() {
+        synchronized (MonsterManager.class) {
+            if (isLocal()) {
+                localCatalog = null;
+            }
+            else {
+                cloudCatalog = null;
+            }
+            return getCatalog();
+        }
+    }
+
     /**
      * get a monster by a given name
      * @param monsterName monster name
      * @return a monster object whose name is the given name
      */
     public Monster findByName(String monsterName){
-        Monster monster = null;
-        for (Monster m: loadMonsters()){
-            if (Objects.equals(m.getName(), monsterName)){
-                monster =  m;
-            }
-        }
-        return monster;
+        return getCatalog().findByName(monsterName);
     }
 
     /**
@@ -88,21 +158,7 @@ public class MonsterManager {
      * @return true if monster is boss, false otherwise
      */
     public boolean isMonsterBoss(String currentMonsterName) {
-        List<Monster> monsters;
-        if (isLocal()) {
-            monsters = monsterJsonDAO.getAll();
-        }
-        else {
-            monsters = monsterApiDAO.getAll();
-        }
-        for (Monster monster: monsters) {
-            if (Objects.equals(monster.getName(), currentMonsterName)) {
-                if (Objects.equals(monster.getChallenge(), "Boss")) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return getCatalog().isBoss(currentMonsterName);
     }
 
     /**
@@ -110,18 +166,7 @@ public class MonsterManager {
      * @return a list of all the monsters name
      */
     public List<String> getAllMonstersName() {
-        List<String> names = new ArrayList<>();
-        if (isLocal()) {
-            for (int i = 0; i < monsterJsonDAO.getAll().size(); i++) {
-                names.add(monsterJsonDAO.getAll().get(i).getName());
-            }
-        }
-        else {
-            for (int i = 0; i < monsterApiDAO.getAll().size(); i++) {
-                names.add(monsterApiDAO.getAll().get(i).getName());
-            }
-        }
-        return names;
+        return new ArrayList<>(getCatalog().getNames());
     }
 
     /**
@@ -129,36 +174,23 @@ public class MonsterManager {
      * @return a list of all the monsters challenges
      */
     public List<String> getAllMonstersChallenges() {
-        List<String> challenges = new ArrayList<>();
-        if (isLocal()) {
-            for (int i = 0; i < monsterJsonDAO.getAll().size(); i++) {
-                challenges.add(monsterJsonDAO.getAll().get(i).getChallenge());
-            }
-        }
-        else {
-            for (int i = 0; i < monsterApiDAO.getAll().size(); i++) {
-                challenges.add(monsterApiDAO.getAll().get(i).getChallenge());
-            }
-        }
-        return challenges;
+        return new ArrayList<>(getCatalog().getChallenges());
     }
 
     /**
-     * get the initiative values of some monsters
-     * @param monsterNamesInEncounterUnfiltered monster names
-     * @return list of the initiative values of the monsters
+     * rolls the initiative of a monster
+     * @param monsterName monster name
+     * @return the initiative value of the monster
      */
-    public List<Integer> getInitValueByNames(List<String> monsterNamesInEncounterUnfiltered) {
-        List<Integer> init_values = new ArrayList<>();
-        for (String partyName : monsterNamesInEncounterUnfiltered) {
-            if (isLocal()) {
-                init_values.add((monsterJsonDAO.getInitValueByName(partyName)) + (int) (Math.random() * 12) + 1);
-            }
-            else {
-                init_values.add((monsterApiDAO.getInitValueByName(partyName)) + (int) (Math.random() * 12) + 1);
-            }
+    public int rollInitiative(String monsterName) {
+        Monster monster = getCatalog().findByName(monsterName);
+        if (monster != null) {
+            return monster.getInitiative() + Dice.roll(12);
         }
-        return init_values;
+        if (isLocal()) {
+            return monsterJsonDAO.getInitValueByName(monsterName) + Dice.roll(12);
+        }
+        return monsterApiDAO.getInitValueByName(monsterName) + Dice.roll(12);
     }
 
     /**
@@ -166,19 +198,7 @@ public class MonsterManager {
      * @param name monster's name
      * @return damage type of given monster
      */
-    public String getDamageTypeOfMonster(String name){
-        List<Monster> monsters;
-        if (isLocal()) {
-            monsters = monsterJsonDAO.getAll();
-        }
-        else {
-            monsters = monsterApiDAO.getAll();
-        }
-        for(Monster m: monsters){
-            if(Objects.equals(m.getName(), name)){
-                return m.getDamageType();
-            }
-        }
-        return "";
+    public DamageType getDamageTypeOfMonster(String name){
+        return getCatalog().getDamageType(name);
     }
 }
@@ -0,0 +1,117 @@
+package business;
+
+import business.entities.Adventure;
+import business.entities.Character;
+import business.entities.SimulationResult;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * spreads independent simulations of an adventure across all the cores using a fork/join pool.
+ * every task rolls its dice with its own split of a seeded generator, and the statistics of the tasks
+ * are merged into a single result through lock-free accumulators
+ * @author Youssef Bat, Alvaro Feher
+ */
+public class MonteCarloRunner {
+
+    /**
+     * minimum amount of simulations a task runs before it stops being split
+     */
+    private static final long MIN_RUNS_PER_TASK = 64;
+
+    private final ForkJoinPool pool;
+    private final ThreadLocal<CombatSimulator> simulators;
+
+    /**
+     * constructor using the common fork/join pool, which has as many threads as cores
+     */
+    public MonteCarloRunner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * constructor
+     * @param pool the pool where the simulations run
+     */
+    public MonteCarloRunner(ForkJoinPool pool) {
+        this.pool = pool;
+        this.simulators = ThreadLocal.withInitial(CombatSimulator::new);
+    }
+
+    /**
+     * simulates an adventure several times with the same party, in parallel
+     * @param adventure the adventure, with all of its encounters
+     * @param characters the characters of the party
+     * @param runs number of times the adventure is played
+     * @param seed seed of the dice, the same seed and pool size give the same statistics
+     * @return the aggregated statistics of all the runs
+     */
+    public SimulationResult run(Adventure adventure, List<Character> characters, long runs, long seed) {
+        SimulationResult result = new SimulationResult(adventure.getNum_encounters());
+        long threshold = Math.max(MIN_RUNS_PER_TASK, runs / (pool.getParallelism() * 8L));
+        pool.invoke(new SimulationTask(adventure, characters, runs, threshold, new SplittableDiceRoller(seed), result));
+        return result;
+    }
+
+    /**
+     * task running a range of simulations, splitting itself in two while the range is big enough
+     */
+    private class SimulationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Adventure adventure;
+        private final List<Character> characters;
+        private final long runs;
+        private final long threshold;
+        private final SplittableDiceRoller roller;
+        private final SimulationResult result;
+
+        /**
+         * constructor
+         * @param adventure the adventure to simulate
+         * @param characters the characters of the party
+         * @param runs number of simulations of this task
+         * @param threshold number of simulations under which the task is not split
+         * @param roller dice roller of this task
+         * @param result where the statistics are merged
+         */
+        SimulationTask(Adventure adventure, List<Character> characters, long runs, long threshold, SplittableDiceRoller roller, SimulationResult result) {
+            this.adventure = adventure;
+            this.characters = characters;
+            this.runs = runs;
+            this.threshold = threshold;
+            this.roller = roller;
+            this.result = result;
+        }
+
+        /**
+         * runs the simulations, or splits them in two tasks
+         */
+        @Override
+        protected void compute() {
+            if (runs <= threshold) {
+                // the worker thread may be shared, such as with the common pool, so its own roller is given back
+                DiceRoller previous = Dice.getRoller();
+                Dice.setRoller(roller);
+                try {
+                    CombatSimulator simulator = simulators.get();
+                    SimulationResult partial = new SimulationResult(adventure.getNum_encounters());
+                    for (long i = 0; i < runs; i++) {
+                        simulator.simulateOnce(adventure, characters, partial);
+                    }
+                    result.merge(partial);
+                } finally {
+                    Dice.setRoller(previous);
+                }
+            }
+            else {
+                long half = runs / 2;
+                invokeAll(new SimulationTask(adventure, characters, half, threshold, roller.split(), result),
+                        new SimulationTask(adventure, characters, runs - half, threshold, roller.split(), result));
+            }
+        }
+    }
+}
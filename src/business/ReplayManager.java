@@ -0,0 +1,95 @@
+package business;
+
+import persistence.Binary.ReplayFile;
+import persistence.DataDirectory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * records runs of the program into replay files and prepares them to be replayed. a recording seeds the dice of the
+ * thread running the program, keeps a snapshot of the local data files and then every line the user enters. a replay
+ * copies the snapshot into a new data directory, seeds the dice the same way and hands back the lines, so the run
+ * takes exactly the same course without touching the real data files
+ * @author Youssef Bat, Alvaro Feher
+ */
+public class ReplayManager {
+
+    private ReplayFile recording;
+    private Path replayDirectory;
+
+    /**
+     * starts recording a run. it has to be called from the thread that runs the program, before any dice is rolled
+     * @param path path of the replay file
+     * @return true if the recording started, false if the replay file can not be created
+     */
+    public boolean record(Path path) {
+        long seed = ThreadLocalRandom.current().nextLong();
+        try {
+            recording = ReplayFile.create(path, seed, DataDirectory.snapshot());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        Dice.seed(seed);
+        return true;
+    }
+
+    /**
+     * records a line entered by the user, if a run is being recorded
+     * @param input the line
+     */
+    public void recordInput(String input) {
+        if (recording == null) {
+            return;
+        }
+        try {
+            recording.append(input);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * stops recording the run
+     */
+    public void stop() {
+        if (recording == null) {
+            return;
+        }
+        try {
+            recording.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        recording = null;
+    }
+
+    /**
+     * prepares the replay of a recorded run: restores its data files into a new temporary directory, which becomes
+     * the data directory, and seeds the dice of the current thread. it has to be called before any manager is created,
+     * since the data access objects resolve the data directory only once
+     * @param path path of the replay file
+     * @return the lines the user entered during the run
+     * @throws IOException if the replay file can not be read or the data files can not be restored
+     */
+    public List<String> prepareReplay(Path path) throws IOException {
+        ReplayFile replay = ReplayFile.open(path);
+        replayDirectory = Files.createTempDirectory("lsrpg-replay");
+        DataDirectory.restore(replay.getFiles(), replayDirectory);
+        System.setProperty(DataDirectory.PROPERTY, replayDirectory.toString());
+        Dice.seed(replay.getSeed());
+        return replay.getInputs();
+    }
+
+    /**
+     * gets the data directory of the replay, which is kept once the replay is over so its data files can be inspected
+     * @return the data directory, null if no replay has been prepared
+     */
+    public Path getReplayDirectory() {
+        return replayDirectory;
+    }
+}
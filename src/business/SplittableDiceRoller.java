@@ -0,0 +1,59 @@
+package business;
+
+import java.util.SplittableRandom;
+
+/**
+ * seeded dice roller, the same seed always gives the same rolls. it must be used by a single thread,
+ * other threads get their own independent roller by splitting this one
+ * @author Youssef Bat, Alvaro Feher
+ */
+public class SplittableDiceRoller implements DiceRoller {
+
+    private final SplittableRandom random;
+
+    /**
+     * constructor
+     * @param seed seed of the rolls
+     */
+    public SplittableDiceRoller(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    /**
+     * constructor
+     * @param random generator of the rolls
+     */
+    private SplittableDiceRoller(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * creates a new roller whose rolls are independent from this one, to be used by another thread
+     * @return the new roller
+     */
+    public SplittableDiceRoller split() {
+        return new SplittableDiceRoller(random.split());
+    }
+
+    /**
+     * rolls a dice
+     * @param sides number of sides of the dice
+     * @return a random number between 1 and sides
+     */
+    @Override
+    public int roll(int sides) {
+        return random.nextInt(sides) + 1;
+    }
+
+    /**
+     * fills an array with rolls of the same dice
+     * @param out array where the rolls are stored
+     * @param sides number of sides of the dice
+     */
+    @Override
+    public void fill(int[] out, int sides) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = random.nextInt(sides) + 1;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package business;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * dice roller using the generator of the current thread. it can be shared by any number of threads
+ * without contention, but its rolls can not be reproduced
+ * @author Youssef Bat, Alvaro Feher
+ */
+public class ThreadLocalDiceRoller implements DiceRoller {
+
+    /**
+     * rolls a dice
+     * @param sides number of sides of the dice
+     * @return a random number between 1 and sides
+     */
+    @Override
+    public int roll(int sides) {
+        return ThreadLocalRandom.current().nextInt(sides) + 1;
+    }
+
+    /**
+     * fills an array with rolls of the same dice
+     * @param out array where the rolls are stored
+     * @param sides number of sides of the dice
+     */
+    @Override
+    public void fill(int[] out, int sides) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < out.length; i++) {
+            out[i] = random.nextInt(sides) + 1;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package business;
+
+import business.entities.Adventure;
+import persistence.AdventureDAO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * writes adventures to their data access object from a background thread, so the combat never waits for the storage.
+ * the changes of an adventure are coalesced, only its last state is written. the pending adventures are written every
+ * interval, as soon as a number of changes is reached, when flush is called, and when the program exits.
+ * the adventures handed to it must not be modified afterwards, which holds as the managers replace adventures instead
+ * of modifying them
+ * @author Youssef Bat, Alvaro Feher
+ */
+public class WriteBehindFlusher {
+
+    private final long intervalMillis;
+    private final int dirtyThreshold;
+    private final Map<String, Pending> pending;
+    private final Object writeLock;
+    private int dirtyCount;
+    private Thread thread;
+
+    /**
+     * last state of an adventure waiting to be written
+     */
+    private static class Pending {
+        private final AdventureDAO adventureDAO;
+        private final Adventure adventure;
+
+        /**
+         * constructor
+         * @param adventureDAO data access object where the adventure is written
+         * @param adventure the adventure
+         */
+        Pending(AdventureDAO adventureDAO, Adventure adventure) {
+            this.adventureDAO = adventureDAO;
+            this.adventure = adventure;
+        }
+    }
+
+    /**
+     * constructor
+     * @param intervalMillis milliseconds between two writes of the pending adventures
+     * @param dirtyThreshold amount of changes after which the pending adventures are written without waiting for the interval
+     */
+    public WriteBehindFlusher(long intervalMillis, int dirtyThreshold) {
+        this.intervalMillis = intervalMillis;
+        this.dirtyThreshold = dirtyThreshold;
+        this.pending = new LinkedHashMap<>();
+        this.writeLock = new Object();
+    }
+
+    /**
+     * queues the new state of an adventure to be written, replacing any older state of it still waiting
+     * @param adventureDAO data access object where the adventure is written
+     * @param adventure the adventure
+     */
+    public synchronized void submit(AdventureDAO adventureDAO, Adventure adventure) {
+        pending.put(adventure.getName(), new Pending(adventureDAO, adventure));
+        dirtyCount++;
+        start();
+        if (dirtyCount >= dirtyThreshold) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * writes all the pending adventures, waiting until they are written
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            List<Pending> batch;
+            synchronized (this) {
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+                dirtyCount = 0;
+            }
+            for (Pending p : batch) {
+                try {
+                    p.adventureDAO.update(p.adventure);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * checks if there are adventures waiting to be written
+     * @return true if there are pending adventures
+     */
+    public synchronized boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * starts the background thread the first time an adventure is queued
+     */
+    private void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(this::run, "adventure-write-behind");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush));
+    }
+
+    /**
+     * background loop, writing the pending adventures every interval or when there are too many changes
+     */
+    private void run() {
+        try {
+            while (true) {
+                synchronized (this) {
+                    long deadline = System.currentTimeMillis() + intervalMillis;
+                    long remaining = intervalMillis;
+                    while (dirtyCount < dirtyThreshold && remaining > 0) {
+                        wait(remaining);
+                        remaining = deadline - System.currentTimeMillis();
+                    }
+                }
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package business.entities;
+
+/**
+ * challenge levels of the monsters, with the name used for them in the data
+ * @author Youssef Bat, Alvaro Feher
+ */
+public enum ChallengeLevel {
+    MINION("Minion"),
+    LIEUTENANT("Lieutenant"),
+    BOSS("Boss");
+
+    private static final ChallengeLevel[] values = values();
+
+    private final String name;
+
+    /**
+     * constructor
+     * @param name name of the challenge level in the data
+     */
+    ChallengeLevel(String name) {
+        this.name = name;
+    }
+
+    /**
+     * gets the name of the challenge level in the data
+     * @return name of the challenge level
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * gets the challenge level with a given name
+     * @param name name of the challenge level in the data
+     * @return the challenge level, null if there is no challenge level with such name
+     */
+    public static ChallengeLevel of(String name) {
+        for (ChallengeLevel challengeLevel : values) {
+            if (challengeLevel.name.equals(name)) {
+                return challengeLevel;
+            }
+        }
+        return null;
+    }
+}
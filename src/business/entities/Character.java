@@ -23,6 +23,8 @@ public class Character  {
     private int spirit;
     @SerializedName(value="charClass", alternate="class")
     private String charClass;
+    // parsed once from charClass, which keeps the class written in the data
+    private transient CharacterClass characterClass;
 
     /**
      * constructor
@@ -41,6 +43,7 @@ public class Character  {
         this.mind = mind;
         this.spirit = spirit;
         this.charClass = charClass;
+        this.characterClass = CharacterClass.of(charClass);
     }
 
 
@@ -136,6 +139,14 @@ public class Character  {
         return charClass;
     }
 
+    /**
+     * class getter, as an enum
+     * @return class, null if the class is unknown
+     */
+    public CharacterClass getCharacterClass() {
+        return characterClass;
+    }
+
     /**
      * get value for paladin print
      * @return
@@ -0,0 +1,59 @@
+package business.entities;
+
+/**
+ * classes a character can have, with the name used for them in the data and the type of damage of their attacks
+ * @author Youssef Bat, Alvaro Feher
+ */
+public enum CharacterClass {
+    ADVENTURER("Adventurer", DamageType.PHYSICAL),
+    WARRIOR("Warrior", DamageType.PHYSICAL),
+    CHAMPION("Champion", DamageType.PHYSICAL),
+    CLERIC("Cleric", DamageType.PSYCHICAL),
+    PALADIN("Paladin", DamageType.PSYCHICAL),
+    WIZARD("Wizard", DamageType.MAGICAL);
+
+    private static final CharacterClass[] values = values();
+
+    private final String name;
+    private final DamageType attackType;
+
+    /**
+     * constructor
+     * @param name name of the class in the data
+     * @param attackType type of damage of the attacks of the class
+     */
+    CharacterClass(String name, DamageType attackType) {
+        this.name = name;
+        this.attackType = attackType;
+    }
+
+    /**
+     * gets the name of the class in the data
+     * @return name of the class
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * gets the type of damage of the attacks of the class
+     * @return the damage type
+     */
+    public DamageType getAttackType() {
+        return attackType;
+    }
+
+    /**
+     * gets the class with a given name
+     * @param name name of the class in the data
+     * @return the class, null if there is no class with such name
+     */
+    public static CharacterClass of(String name) {
+        for (CharacterClass charClass : values) {
+            if (charClass.name.equals(name)) {
+                return charClass;
+            }
+        }
+        return null;
+    }
+}
@@ -1,5 +1,6 @@
 package business.entities.Classes;
 
+import business.Dice;
 import business.entities.Character;
 import business.entities.Party;
 import persistence.CharacterDAO;
@@ -32,7 +33,7 @@ public class Adventurer extends Character {
      */
     @Override
     public int doAction() {
-        return (int)Math.floor(Math.random() * (6) + 1) + getBody();
+        return Dice.roll(6) + getBody();
     } // sword slash
 
     /**
@@ -58,8 +59,8 @@ public class Adventurer extends Character {
     public List<Party> preparationStageAction(List<Party> party, String charName, CharacterDAO dao) {
         List<Party> newParty = new ArrayList<>();
         for(Party c: party){
-            if(Objects.equals(c.getCharacter(dao).getName(), charName)){
-                newParty.add(new Party(new Character(c.getCharacter(dao).getName(),c.getCharacter(dao).getPlayer(),c.getCharacter(dao).getXp(),c.getCharacter(dao).getBody(),c.getCharacter(dao).getMind(),c.getCharacter(dao).getSpirit()+1,c.getCharacter(dao).getCharClass()),c.getHitPoint(),dao,0));
+            if(Objects.equals(c.getCharacter().getName(), charName)){
+                newParty.add(new Party(new Character(c.getCharacter().getName(),c.getCharacter().getPlayer(),c.getCharacter().getXp(),c.getCharacter().getBody(),c.getCharacter().getMind(),c.getCharacter().getSpirit()+1,c.getCharacter().getCharClass()),c.getHitPoint(),dao,0));
             }else
                 newParty.add(c);
         }
@@ -78,9 +79,9 @@ public class Adventurer extends Character {
     public List<Party> shortRestAction(List<Party> parties, String charName, CharacterDAO dao){
         List<Party> newParty = new ArrayList<>();
         for(Party c: parties){
-            int rand =(int)Math.floor(Math.random() * (8) + 1);
-            if(Objects.equals(c.getCharacter(dao).getName(), charName)){
-                Character ca = new Character(c.getCharacter(dao).getName(),c.getCharacter(dao).getPlayer(),c.getCharacter(dao).getXp(),c.getCharacter(dao).getBody(),c.getCharacter(dao).getMind(),c.getCharacter(dao).getSpirit(),c.getCharacter(dao).getCharClass());
+            int rand =Dice.roll(8);
+            if(Objects.equals(c.getCharacter().getName(), charName)){
+                Character ca = new Character(c.getCharacter().getName(),c.getCharacter().getPlayer(),c.getCharacter().getXp(),c.getCharacter().getBody(),c.getCharacter().getMind(),c.getCharacter().getSpirit(),c.getCharacter().getCharClass());
                 newParty.add(new Party(ca,c.getHitPoint()+rand,dao,0));
             }else
                 newParty.add(c);
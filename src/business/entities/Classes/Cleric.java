@@ -1,5 +1,6 @@
 package business.entities.Classes;
 
+import business.Dice;
 import business.entities.Character;
 import business.entities.Party;
 import persistence.CharacterDAO;
@@ -55,7 +56,7 @@ public class Cleric extends Character {
      * @return Healing amount
      */
     public int prayerOfHealing(int mind){
-        return (int)Math.floor(Math.random() * (10) + 1) + mind;
+        return Dice.roll(10) + mind;
     }
 
     /**
@@ -64,7 +65,7 @@ public class Cleric extends Character {
      * @return Damage amount of attack
      */
     public int notOnMyWatch(int spirit){
-        return (int)Math.floor(Math.random() * (4) + 1) + spirit;
+        return Dice.roll(4) + spirit;
     }
 
     /**
@@ -80,8 +81,8 @@ public class Cleric extends Character {
     public List<Party> preparationStageAction(List<Party> party, String charName, CharacterDAO dao) {
         List<Party> newParty = new ArrayList<>();
         for(Party c: party){
-            if(!Objects.equals(c.getCharacter(dao).getName(), charName)){
-                newParty.add(new Party(new Character(c.getCharacter(dao).getName(),c.getCharacter(dao).getPlayer(),c.getCharacter(dao).getXp(),c.getCharacter(dao).getBody(),c.getCharacter(dao).getMind()+1,c.getCharacter(dao).getSpirit(),c.getCharacter(dao).getCharClass()),c.getHitPoint(),dao,0));
+            if(!Objects.equals(c.getCharacter().getName(), charName)){
+                newParty.add(new Party(new Character(c.getCharacter().getName(),c.getCharacter().getPlayer(),c.getCharacter().getXp(),c.getCharacter().getBody(),c.getCharacter().getMind()+1,c.getCharacter().getSpirit(),c.getCharacter().getCharClass()),c.getHitPoint(),dao,0));
             }else
                 newParty.add(c);
         }
@@ -99,9 +100,9 @@ public class Cleric extends Character {
     public List<Party> shortRestAction(List<Party> parties, String charName, CharacterDAO dao){
         List<Party> newParty = new ArrayList<>();
         for(Party c: parties){
-            int rand =(int)Math.floor(Math.random() * (10) + 1);
-            if(Objects.equals(c.getCharacter(dao).getName(), charName)){
-                Character ca = new Character(c.getCharacter(dao).getName(),c.getCharacter(dao).getPlayer(),c.getCharacter(dao).getXp(),c.getCharacter(dao).getBody(),c.getCharacter(dao).getMind(),c.getCharacter(dao).getSpirit(),c.getCharacter(dao).getCharClass());
+            int rand =Dice.roll(10);
+            if(Objects.equals(c.getCharacter().getName(), charName)){
+                Character ca = new Character(c.getCharacter().getName(),c.getCharacter().getPlayer(),c.getCharacter().getXp(),c.getCharacter().getBody(),c.getCharacter().getMind(),c.getCharacter().getSpirit(),c.getCharacter().getCharClass());
                 newParty.add(new Party(ca,c.getHitPoint()+rand,dao,0));
             }else
                 newParty.add(c);
@@ -1,5 +1,6 @@
 package business.entities.Classes;
 
+import business.Dice;
 import business.entities.Character;
 import business.entities.Party;
 import persistence.CharacterDAO;
@@ -64,7 +65,7 @@ public class Paladin extends Character {
      * @return Healing amount to each member
      */
     public int prayerOfMassHealing(int mind){
-        return (int)Math.floor(Math.random() * (10) + 1) + mind;
+        return Dice.roll(10) + mind;
     }
 
     /**
@@ -73,7 +74,7 @@ public class Paladin extends Character {
      * @return Damage amount of attack
      */
     public int  neverOnMyWatch(int spirit){
-        return (int)Math.floor(Math.random() * (8) + 1) + spirit;
+        return Dice.roll(8) + spirit;
     }
 
 
@@ -88,10 +89,10 @@ public class Paladin extends Character {
     @Override
     public List<Party> preparationStageAction(List<Party> party, String charName, CharacterDAO dao) {
         List<Party> newParty = new ArrayList<>();
-        this.testPrepStage = (int)Math.floor(Math.random() * (3) + 1);
+        this.testPrepStage = Dice.roll(3);
         for(Party c: party){
-            if(!Objects.equals(c.getCharacter(dao).getName(), charName)){
-                newParty.add(new Party(new Character(c.getCharacter(dao).getName(),c.getCharacter(dao).getPlayer(),c.getCharacter(dao).getXp(),c.getCharacter(dao).getBody(),c.getCharacter(dao).getMind()+this.testPrepStage,c.getCharacter(dao).getSpirit(),c.getCharacter(dao).getCharClass()),c.getHitPoint(),dao,0));
+            if(!Objects.equals(c.getCharacter().getName(), charName)){
+                newParty.add(new Party(new Character(c.getCharacter().getName(),c.getCharacter().getPlayer(),c.getCharacter().getXp(),c.getCharacter().getBody(),c.getCharacter().getMind()+this.testPrepStage,c.getCharacter().getSpirit(),c.getCharacter().getCharClass()),c.getHitPoint(),dao,0));
             }else
                 newParty.add(c);
         }
@@ -110,9 +111,9 @@ public class Paladin extends Character {
     public List<Party> shortRestAction(List<Party> parties, String charName, CharacterDAO dao){
         List<Party> newParty = new ArrayList<>();
         for(Party c: parties){
-            int rand =(int)Math.floor(Math.random() * (10) + 1);
-            if(Objects.equals(c.getCharacter(dao).getName(), charName)){
-                Character ca = new Character(c.getCharacter(dao).getName(),c.getCharacter(dao).getPlayer(),c.getCharacter(dao).getXp(),c.getCharacter(dao).getBody(),c.getCharacter(dao).getMind(),c.getCharacter(dao).getSpirit(),c.getCharacter(dao).getCharClass());
+            int rand =Dice.roll(10);
+            if(Objects.equals(c.getCharacter().getName(), charName)){
+                Character ca = new Character(c.getCharacter().getName(),c.getCharacter().getPlayer(),c.getCharacter().getXp(),c.getCharacter().getBody(),c.getCharacter().getMind(),c.getCharacter().getSpirit(),c.getCharacter().getCharClass());
                 newParty.add(new Party(ca,c.getHitPoint()+rand,dao,0));
             }else
                 newParty.add(c);
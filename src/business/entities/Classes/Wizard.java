@@ -1,5 +1,6 @@
 package business.entities.Classes;
 
+import business.Dice;
 import business.entities.Character;
 import business.entities.Party;
 import persistence.CharacterDAO;
@@ -75,7 +76,7 @@ public class Wizard extends Character {
      * @return damage by attack
      */
     public int arcaneMissile(int mind){
-        return (int)Math.floor(Math.random() * (6) + 1) + mind;
+        return Dice.roll(6) + mind;
     }
 
     /**
@@ -84,7 +85,7 @@ public class Wizard extends Character {
      * @return damage by attack
      */
     public int fireballAttack(int mind){
-        return (int)Math.floor(Math.random() * (4) + 1) + mind;
+        return Dice.roll(4) + mind;
     }
 
     /**
@@ -100,11 +101,12 @@ public class Wizard extends Character {
         int mind;
         int level ;
         for(Party c: party){
-            if(Objects.equals(c.getCharacter(dao).getName(), charName)){
-                mind = c.getCharacter(dao).getMind();
-                level = (c.getCharacter(dao).getXp()/100) +1;
-                setShield(((int)Math.floor(Math.random() * (6) + 1) + mind)*level);
-                Character ca = new Wizard(c.getCharacter(dao).getName(),c.getCharacter(dao).getPlayer(),c.getCharacter(dao).getXp(),c.getCharacter(dao).getBody(),c.getCharacter(dao).getMind(),c.getCharacter(dao).getSpirit(),c.getCharacter(dao).getCharClass(),this.shield);
+            if(Objects.equals(c.getCharacter().getName(), charName)){
+                mind = c.getCharacter().getMind();
+                level = (c.getCharacter().getXp()/100) +1;
+                // the wizard is shared by the party stored before, so the shield goes to a new one
+                int shield = (Dice.roll(6) + mind)*level;
+                Character ca = new Wizard(c.getCharacter().getName(),c.getCharacter().getPlayer(),c.getCharacter().getXp(),c.getCharacter().getBody(),c.getCharacter().getMind(),c.getCharacter().getSpirit(),c.getCharacter().getCharClass(),shield);
                 newParty.add(new Party(ca,c.getHitPoint(),dao,shield));
             }else
                 newParty.add(c);
@@ -0,0 +1,48 @@
+package business.entities;
+
+/**
+ * events of a combat log. every event carries up to three numbers, which are the values left after the action and
+ * not the amounts rolled, so applying an event twice gives the same state
+ * @author Youssef Bat, Alvaro Feher
+ */
+public enum CombatEvent {
+    /**
+     * the hit roll of a turn: 0 fail, 1 normal hit, 2 critical hit. it does not change the adventure
+     */
+    ROLL,
+    /**
+     * a party member is attacked: party position, hit points and shield left
+     */
+    ATTACK_PARTY,
+    /**
+     * the shield of a party member takes a whole attack: party position and shield left
+     */
+    SHIELD,
+    /**
+     * a monster is attacked: encounter position, monster position and hit points left
+     */
+    ATTACK_MONSTER,
+    /**
+     * a monster dies and is removed from its encounter: encounter position and monster position
+     */
+    MONSTER_DIES,
+    /**
+     * a party member is healed, losing its shield: party position and hit points
+     */
+    HEAL,
+    /**
+     * a party member gains experience: party position, experience and class it has afterwards
+     */
+    XP;
+
+    private static final CombatEvent[] values = values();
+
+    /**
+     * gets the event with a given code
+     * @param code the code of the event, its position in the enum
+     * @return the event
+     */
+    public static CombatEvent of(int code) {
+        return values[code];
+    }
+}
@@ -0,0 +1,45 @@
+package business.entities;
+
+/**
+ * types of damage of the attacks of characters and monsters, with the name used for them in the data
+ * @author Youssef Bat, Alvaro Feher
+ */
+public enum DamageType {
+    PHYSICAL("Physical"),
+    MAGICAL("Magical"),
+    PSYCHICAL("Psychical");
+
+    private static final DamageType[] values = values();
+
+    private final String name;
+
+    /**
+     * constructor
+     * @param name name of the damage type in the data
+     */
+    DamageType(String name) {
+        this.name = name;
+    }
+
+    /**
+     * gets the name of the damage type in the data
+     * @return name of the damage type
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * gets the damage type with a given name
+     * @param name name of the damage type in the data
+     * @return the damage type, null if there is no damage type with such name
+     */
+    public static DamageType of(String name) {
+        for (DamageType damageType : values) {
+            if (damageType.name.equals(name)) {
+                return damageType;
+            }
+        }
+        return null;
+    }
+}
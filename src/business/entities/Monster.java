@@ -12,6 +12,11 @@ public class Monster{
     private String damageDice;
     private String damageType;
 
+    // parsed once from the fields above, which keep the values written in the data
+    private transient ChallengeLevel challengeLevel;
+    private transient DamageType damageKind;
+    private transient int damageDiceSides;
+
     /**
      * constructor
      * @param name monster name
@@ -30,6 +35,52 @@ public class Monster{
         this.initiative = initiative;
         this.damageDice = damageDice;
         this.damageType = damageType;
+        this.challengeLevel = ChallengeLevel.of(challenge);
+        this.damageKind = DamageType.of(damageType);
+        this.damageDiceSides = parseDiceSides(damageDice);
+    }
+
+    /**
+     * copy constructor, with other hit points. the values parsed from the data are copied instead of parsed again
+     * @param monster monster to copy
+     * @param hitPoints hit points of the copy
+     */
+    private Monster(Monster monster, int hitPoints) {
+        this.name = monster.name;
+        this.challenge = monster.challenge;
+        this.experience = monster.experience;
+        this.hitPoints = hitPoints;
+        this.initiative = monster.initiative;
+        this.damageDice = monster.damageDice;
+        this.damageType = monster.damageType;
+        this.challengeLevel = monster.challengeLevel;
+        this.damageKind = monster.damageKind;
+        this.damageDiceSides = monster.damageDiceSides;
+    }
+
+    /**
+     * gets the number of sides of a damage dice ("d6" has 6)
+     * @param damageDice damage dice, as written in the data
+     * @return the number of sides, 0 if the damage dice is not valid
+     */
+    private static int parseDiceSides(String damageDice) {
+        if (damageDice == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(damageDice.substring(damageDice.indexOf('d') + 1));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * creates a copy of the monster with other hit points
+     * @param hitPoints hit points of the copy
+     * @return the copy
+     */
+    public Monster withHitPoints(int hitPoints) {
+        return new Monster(this, hitPoints);
     }
 
 
@@ -49,6 +100,22 @@ public class Monster{
         return challenge;
     }
 
+    /**
+     * challenge level getter
+     * @return challenge level, null if the challenge is unknown
+     */
+    public ChallengeLevel getChallengeLevel() {
+        return challengeLevel;
+    }
+
+    /**
+     * checks if the monster is a boss
+     * @return true if its challenge is Boss
+     */
+    public boolean isBoss() {
+        return challengeLevel == ChallengeLevel.BOSS;
+    }
+
     /**
      * xp getter
      * @return xp
@@ -81,12 +148,31 @@ public class Monster{
         return damageType;
     }
 
+    /**
+     * damage type getter, as an enum
+     * @return damage type, null if the damage type is unknown
+     */
+    public DamageType getDamageKind() {
+        return damageKind;
+    }
+
     /**
      * damage dice getter but only its digit part
      * @return damage dice as an integer
      */
     public int getDamageDice() {
-        return Integer.parseInt(damageDice.split("d")[1]);
+        if (damageDiceSides == 0) {
+            return Integer.parseInt(damageDice.split("d")[1]);
+        }
+        return damageDiceSides;
+    }
+
+    /**
+     * damage dice getter, as written in the data ("d4", "2d6"...)
+     * @return damage dice
+     */
+    public String getDamageDiceNotation() {
+        return damageDice;
     }
 
     /**
@@ -13,21 +13,38 @@ public class Party {
 
 
     /**
-     * constructor
+     * constructor. the character is converted to the instance of its class, unless it already is one with this shield,
+     * as the characters read from the data are, in which case it is kept as it is
      * @param character character object
      * @param hitPoint hit point
+     * @param dao characterDao used to assign the class to the character
+     * @param shield wizard's shield
      */
     public Party(Character character, int hitPoint, CharacterDAO dao, int shield) {
-        this.character = dao.assignClass(character.getName(), character.getPlayer(), character.getXp(),character.getBody(), character.getMind(), character.getSpirit(), character.getCharClass(), shield);
+        if (character.getClass() != Character.class && character.getShield() == shield) {
+            this.character = character;
+        } else {
+            this.character = dao.assignClass(character.getName(), character.getPlayer(), character.getXp(),character.getBody(), character.getMind(), character.getSpirit(), character.getCharClass(), shield);
+        }
         this.hitPoint = hitPoint;
     }
 
     /**
-     * character getter
+     * constructor keeping the character as it is, already of its class
+     * @param character character object
+     * @param hitPoint hit point
+     */
+    public Party(Character character, int hitPoint) {
+        this.character = character;
+        this.hitPoint = hitPoint;
+    }
+
+    /**
+     * character getter. the character is the instance of its class, Wizard, Paladin...
      * @return character
      */
-    public Character getCharacter(CharacterDAO dao) {
-        return dao.assignClass(character.getName(),character.getPlayer(),character.getXp(),character.getBody(),character.getMind(),character.getSpirit(),character.getCharClass(),0);
+    public Character getCharacter() {
+        return character;
     }
 
     /**
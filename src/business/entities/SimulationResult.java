@@ -0,0 +1,194 @@
+package business.entities;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * aggregated statistics of a set of simulated adventures.
+ * all the counters are lock-free accumulators, so several threads can record or merge results at the same time
+ */
+public class SimulationResult {
+
+    /**
+     * damage values from this one on are counted in the last bucket of the damage histograms
+     */
+    public static final int MAX_DAMAGE = 64;
+
+    private final LongAdder runs;
+    private final LongAdder wins;
+    private final LongAdder tpus;
+    private final LongAdder[] encounterRounds;
+    private final LongAdder[] encountersPlayed;
+    private final Map<String, LongAdder[]> damageHistograms;
+
+    /**
+     * constructor
+     * @param num_encounters number of encounters of the simulated adventure
+     */
+    public SimulationResult(int num_encounters) {
+        runs = new LongAdder();
+        wins = new LongAdder();
+        tpus = new LongAdder();
+        encounterRounds = newCounters(num_encounters);
+        encountersPlayed = newCounters(num_encounters);
+        damageHistograms = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * creates an array of counters starting at 0
+     * @param size size of the array
+     * @return the array of counters
+     */
+    private static LongAdder[] newCounters(int size) {
+        LongAdder[] counters = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * records the end of a simulated adventure
+     * @param won true if the party completed every encounter
+     * @param tpu true if the whole party fell unconscious
+     */
+    public void recordRun(boolean won, boolean tpu) {
+        runs.increment();
+        if (won) {
+            wins.increment();
+        }
+        if (tpu) {
+            tpus.increment();
+        }
+    }
+
+    /**
+     * records how many rounds an encounter lasted
+     * @param encounter_pos the encounter position
+     * @param rounds number of rounds
+     */
+    public void recordEncounter(int encounter_pos, int rounds) {
+        encountersPlayed[encounter_pos].increment();
+        encounterRounds[encounter_pos].add(rounds);
+    }
+
+    /**
+     * records the damage of an attack made by a character
+     * @param charClass class of the attacking character
+     * @param damage damage dealt
+     */
+    public void recordDamage(String charClass, int damage) {
+        histogram(charClass)[Math.max(0, Math.min(damage, MAX_DAMAGE))].increment();
+    }
+
+    /**
+     * gets the damage histogram of a class, creating it if it does not exist yet
+     * @param charClass character class
+     * @return the damage histogram
+     */
+    private LongAdder[] histogram(String charClass) {
+        return damageHistograms.computeIfAbsent(charClass, k -> newCounters(MAX_DAMAGE + 1));
+    }
+
+    /**
+     * adds all the statistics of another result of the same adventure to this one
+     * @param other the other result
+     */
+    public void merge(SimulationResult other) {
+        runs.add(other.runs.sum());
+        wins.add(other.wins.sum());
+        tpus.add(other.tpus.sum());
+        for (int i = 0; i < encounterRounds.length; i++) {
+            encounterRounds[i].add(other.encounterRounds[i].sum());
+            encountersPlayed[i].add(other.encountersPlayed[i].sum());
+        }
+        for (Map.Entry<String, LongAdder[]> entry : other.damageHistograms.entrySet()) {
+            LongAdder[] histogram = histogram(entry.getKey());
+            for (int damage = 0; damage <= MAX_DAMAGE; damage++) {
+                histogram[damage].add(entry.getValue()[damage].sum());
+            }
+        }
+    }
+
+    /**
+     * number of simulated adventures getter
+     * @return number of simulated adventures
+     */
+    public long getRuns() {
+        return runs.sum();
+    }
+
+    /**
+     * gets the ratio of adventures completed by the party
+     * @return win rate between 0 and 1
+     */
+    public double getWinRate() {
+        long total = runs.sum();
+        return total == 0 ? 0 : (double) wins.sum() / total;
+    }
+
+    /**
+     * gets the ratio of adventures that ended in a TPU
+     * @return TPU rate between 0 and 1
+     */
+    public double getTpuRate() {
+        long total = runs.sum();
+        return total == 0 ? 0 : (double) tpus.sum() / total;
+    }
+
+    /**
+     * gets the average number of rounds an encounter lasted
+     * @param encounter_pos the encounter position
+     * @return average number of rounds, 0 if the encounter was never played
+     */
+    public double getAverageRounds(int encounter_pos) {
+        long played = encountersPlayed[encounter_pos].sum();
+        if (played == 0) {
+            return 0;
+        }
+        return (double) encounterRounds[encounter_pos].sum() / played;
+    }
+
+    /**
+     * gets the classes of the characters that dealt damage
+     * @return the character classes
+     */
+    public Set<String> getCharacterClasses() {
+        return new TreeSet<>(damageHistograms.keySet());
+    }
+
+    /**
+     * gets how many attacks of a class dealt each amount of damage
+     * @param charClass character class
+     * @return a histogram where each position is a damage value and holds the number of attacks
+     */
+    public long[] getDamageHistogram(String charClass) {
+        long[] histogram = new long[MAX_DAMAGE + 1];
+        LongAdder[] counters = damageHistograms.get(charClass);
+        if (counters != null) {
+            for (int damage = 0; damage <= MAX_DAMAGE; damage++) {
+                histogram[damage] = counters[damage].sum();
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * gets the average damage of the attacks made by a class
+     * @param charClass character class
+     * @return average damage per attack
+     */
+    public double getAverageDamage(String charClass) {
+        long[] histogram = getDamageHistogram(charClass);
+        long attacks = 0;
+        long total = 0;
+        for (int damage = 0; damage < histogram.length; damage++) {
+            attacks += histogram[damage];
+            total += histogram[damage] * damage;
+        }
+        return attacks == 0 ? 0 : (double) total / attacks;
+    }
+}
@@ -3,20 +3,25 @@ package persistence.API;
 import business.entities.Adventure;
 import business.entities.Party;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonElement;
 import persistence.AdventureDAO;
 import persistence.JSON.CharacterJsonDAO;
+import persistence.JSON.JsonSerialization;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class AdventureApiDAO implements AdventureDAO {
 
     private ApiHelper apiHelper;
     private final String base_url = "https://balandrau.salle.url.edu/dpoo/S1-Project_ICE10/adventures";
+    private final Map<String, JsonElement> synced = new ConcurrentHashMap<>();
 
     /**
      * Constructor initializing a new object of Api Helper
@@ -37,8 +42,9 @@ public class AdventureApiDAO implements AdventureDAO {
     @Override
     public int add(Adventure adventure) {
         try {
-            String body = new Gson().toJson(adventure);
-            apiHelper.postToUrl(base_url, body);
+            JsonElement state = JsonSerialization.COMPACT.toJsonTree(adventure);
+            apiHelper.postToUrl(base_url, state.toString());
+            synced.put(adventure.getName(), state);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -53,8 +59,8 @@ public class AdventureApiDAO implements AdventureDAO {
     public List<Adventure> getAll() {
         try {
             String all = apiHelper.getFromUrl(base_url);
-            Gson gson = new Gson();
-            Type type = new TypeToken<ArrayList<Adventure>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.ADVENTURE_LIST;
             return gson.fromJson(all, type);
         } catch (IOException e) {
             e.printStackTrace();
@@ -62,6 +68,22 @@ public class AdventureApiDAO implements AdventureDAO {
         return null;
     }
 
+    /**
+     * get all the adventures stored in the API server without blocking the caller
+     * @return a future with a list of all the adventures available, null if the server can't be reached
+     */
+    @Override
+    public CompletableFuture<List<Adventure>> getAllAsync() {
+        return apiHelper.getFromUrlAsync(base_url).handle((all, e) -> {
+            if (e != null) {
+                e.printStackTrace();
+                return null;
+            }
+            Type type = JsonSerialization.ADVENTURE_LIST;
+            return JsonSerialization.COMPACT.fromJson(all, type);
+        });
+    }
+
     /**
      * get an adventure object whose name is str
      * @param str name of the adventure
@@ -71,9 +93,10 @@ public class AdventureApiDAO implements AdventureDAO {
     public Adventure getAdventureByName(String str) {
         try {
             String s = apiHelper.getFromUrl(base_url + "?name="+str);
-            Gson gson = new Gson();
-            Type type = new TypeToken<List<Adventure>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.ADVENTURE_LIST;
             List<Adventure> list = gson.fromJson(s, type);
+            synced.put(str, gson.toJsonTree(list.get(0)));
             return list.get(0);
         } catch (IOException e) {
             e.printStackTrace();
@@ -81,12 +104,31 @@ public class AdventureApiDAO implements AdventureDAO {
         return null;
     }
 
+    /**
+     * get an adventure object whose name is str without blocking the caller
+     * @param str name of the adventure
+     * @return a future with the adventure abject if exists, null otherwise
+     */
+    @Override
+    public CompletableFuture<Adventure> getAdventureByNameAsync(String str) {
+        return apiHelper.getFromUrlAsync(base_url + "?name="+str).handle((s, e) -> {
+            if (e != null) {
+                e.printStackTrace();
+                return null;
+            }
+            Type type = JsonSerialization.ADVENTURE_LIST;
+            List<Adventure> list = JsonSerialization.COMPACT.fromJson(s, type);
+            return list == null || list.isEmpty() ? null : list.get(0);
+        });
+    }
+
     /**
      * deletes an adventure by giving its name as parameter
      * @param current_adventure name of adventure to delete
      */
     private void deleteByName(String current_adventure) {
         try {
+            synced.remove(current_adventure);
             apiHelper.deleteFromUrl(base_url + "?name="+current_adventure);
         } catch (IOException e) {
             e.printStackTrace();
@@ -94,11 +136,16 @@ public class AdventureApiDAO implements AdventureDAO {
     }
 
     /**
-     * updates an adventure
+     * updates an adventure by deleting it and posting it again. nothing is sent if the adventure is the same as the
+     * last time it was read or written
      * @param adventure adventure object
      */
     @Override
     public void update(Adventure adventure) {
+        JsonElement state = JsonSerialization.COMPACT.toJsonTree(adventure);
+        if (state.equals(synced.get(adventure.getName()))) {
+            return;
+        }
         deleteByName(adventure.getName());
         add(adventure);
     }
@@ -111,8 +158,8 @@ public class AdventureApiDAO implements AdventureDAO {
     public String getNameByIndex(int inx) {
         try {
             String s = apiHelper.getFromUrl(base_url + "/"+inx);
-            Gson gson = new Gson();
-            Type type = new TypeToken<Adventure>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = Adventure.class;
             Adventure list = gson.fromJson(s, type);
             return list.getName();
         } catch (IOException e) {
@@ -129,8 +176,8 @@ public class AdventureApiDAO implements AdventureDAO {
     public int getNumOfEncountersByName(String currentAdventure) {
         try {
             String s = apiHelper.getFromUrl(base_url + "?name="+currentAdventure);
-            Gson gson = new Gson();
-            Type type = new TypeToken<List<Adventure>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.ADVENTURE_LIST;
             List<Adventure> list = gson.fromJson(s, type);
             return list.get(0).getNum_encounters();
         } catch (IOException e) {
@@ -148,8 +195,8 @@ public class AdventureApiDAO implements AdventureDAO {
     public List<String> getMonstersInEncounter(int i, String currentAdventure) {
         try {
             String s = apiHelper.getFromUrl(base_url + "?name="+currentAdventure);
-            Gson gson = new Gson();
-            Type type = new TypeToken<List<Adventure>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.ADVENTURE_LIST;
             List<Adventure> list = gson.fromJson(s, type);
             List<String> names = new ArrayList<>();
             for (int j=0;j<list.get(0).getEncounters().get(i).size();j++) {
@@ -170,8 +217,8 @@ public class AdventureApiDAO implements AdventureDAO {
     public List<Party> getPartyByName(String currentAdventure) {
         try {
             String s = apiHelper.getFromUrl(base_url + "?name="+currentAdventure);
-            Gson gson = new Gson();
-            Type type = new TypeToken<List<Adventure>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.ADVENTURE_LIST;
             List<Adventure> list = gson.fromJson(s, type);
             return list.get(0).getParties();
         } catch (IOException e) {
@@ -190,8 +237,8 @@ public class AdventureApiDAO implements AdventureDAO {
     public boolean isNameMonster(String currentAdventure, int encounter_pos, String name) {
         try {
             String s = apiHelper.getFromUrl(base_url + "?name="+currentAdventure);
-            Gson gson = new Gson();
-            Type type = new TypeToken<List<Adventure>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.ADVENTURE_LIST;
             List<Adventure> list = gson.fromJson(s, type);
             for (int i=0;i<list.get(0).getEncounters().get(encounter_pos).size();i++) {
                 if (Objects.equals(list.get(0).getEncounters().get(encounter_pos).get(i).getName(), name)) {
@@ -215,8 +262,8 @@ public class AdventureApiDAO implements AdventureDAO {
     public int getDamageDiceByName(String currentAdventure, int encounter_pos, String name) {
         try {
             String s = apiHelper.getFromUrl(base_url + "?name="+currentAdventure);
-            Gson gson = new Gson();
-            Type type = new TypeToken<List<Adventure>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.ADVENTURE_LIST;
             List<Adventure> list = gson.fromJson(s, type);
             for (int i=0;i<list.get(0).getEncounters().get(encounter_pos).size();i++) {
                 if (Objects.equals(list.get(0).getEncounters().get(encounter_pos).get(i).getName(), name)) {
@@ -239,8 +286,8 @@ public class AdventureApiDAO implements AdventureDAO {
     public boolean areMonstersAllDead(String currentAdventure, int encounter_pos) {
         try {
             String s = apiHelper.getFromUrl(base_url + "?name="+currentAdventure);
-            Gson gson = new Gson();
-            Type type = new TypeToken<List<Adventure>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.ADVENTURE_LIST;
             List<Adventure> list = gson.fromJson(s, type);
             for (int i=0;i<list.get(0).getEncounters().get(encounter_pos).size();i++) {
                 if (list.get(0).getEncounters().get(encounter_pos).get(i).getHitPoints() > 0) {
@@ -262,8 +309,8 @@ public class AdventureApiDAO implements AdventureDAO {
     public boolean arePartyAllUnconscious(String currentAdventure) {
         try {
             String s = apiHelper.getFromUrl(base_url + "?name="+currentAdventure);
-            Gson gson = new Gson();
-            Type type = new TypeToken<List<Adventure>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.ADVENTURE_LIST;
             List<Adventure> list = gson.fromJson(s, type);
             for (int i=0;i<list.get(0).getParties().size();i++) {
                 if (list.get(0).getParties().get(i).getHitPoint() > 0) {
@@ -286,8 +333,8 @@ public class AdventureApiDAO implements AdventureDAO {
     public int getXpGainedInEncounter(String adventure_name, int encounter_pos) {
         try {
             String s = apiHelper.getFromUrl(base_url + "?name="+adventure_name);
-            Gson gson = new Gson();
-            Type type = new TypeToken<List<Adventure>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.ADVENTURE_LIST;
             List<Adventure> list = gson.fromJson(s, type);
             int sum = 0;
             for (int i=0;i<list.get(0).getEncounters().get(encounter_pos).size();i++) {
@@ -319,8 +366,8 @@ public class AdventureApiDAO implements AdventureDAO {
     public int getAdventuresSize() {
         try {
             String all = apiHelper.getFromUrl(base_url);
-            Gson gson = new Gson();
-            Type type = new TypeToken<ArrayList<Adventure>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.ADVENTURE_LIST;
             List<Adventure> list = gson.fromJson(all, type);
             return list.size();
         } catch (IOException e) {
@@ -338,11 +385,11 @@ public class AdventureApiDAO implements AdventureDAO {
     public boolean isPartyUnconsciousByName(String currentAdventure, String name) {
         try {
             String s = apiHelper.getFromUrl(base_url + "?name="+currentAdventure);
-            Gson gson = new Gson();
-            Type type = new TypeToken<List<Adventure>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.ADVENTURE_LIST;
             List<Adventure> list = gson.fromJson(s, type);
             for (int i=0;i<list.get(0).getParties().size();i++) {
-                if (Objects.equals(list.get(0).getParties().get(i).getCharacter(new CharacterApiDAO()).getName(), name)) {
+                if (Objects.equals(list.get(0).getParties().get(i).getCharacter().getName(), name)) {
                     return list.get(0).getParties().get(i).getHitPoint() <= 0;
                 }
             }
@@ -362,8 +409,8 @@ public class AdventureApiDAO implements AdventureDAO {
     public boolean isMonsterAlive(String currentAdventure, int encounter_pos, String str) {
         try {
             String s = apiHelper.getFromUrl(base_url + "?name="+currentAdventure);
-            Gson gson = new Gson();
-            Type type = new TypeToken<List<Adventure>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.ADVENTURE_LIST;
             List<Adventure> list = gson.fromJson(s, type);
             for (int i=0;i<list.get(0).getEncounters().get(encounter_pos).size();i++) {
                 if (Objects.equals(list.get(0).getEncounters().get(encounter_pos).get(i).getName(), str)) {
@@ -389,8 +436,8 @@ public class AdventureApiDAO implements AdventureDAO {
     public boolean isPartyUnconsciousByPosition(String currentAdventure, int party_pos) {
         try {
             String s = apiHelper.getFromUrl(base_url + "?name="+currentAdventure);
-            Gson gson = new Gson();
-            Type type = new TypeToken<List<Adventure>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.ADVENTURE_LIST;
             List<Adventure> list = gson.fromJson(s, type);
             return list.get(0).getParties().get(party_pos).getHitPoint() <= 0;
         } catch (IOException e) {
@@ -12,6 +12,12 @@ import java.net.http.HttpResponse;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.X509Certificate;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 
 /**
  * Helper class with the responsibility of reading and posting Strings to an HTTPS persistence.API. Due to a misconfiguration
@@ -20,6 +26,24 @@ import java.security.cert.X509Certificate;
  * key part of ensuring security in the context of Internet communications
  */
 public final class ApiHelper {
+    /**
+     * Maximum number of asynchronous requests in flight at the same time, shared by all the helpers
+     */
+    private static final int MAX_CONCURRENT_REQUESTS = 8;
+    private static final Semaphore permits = new Semaphore(MAX_CONCURRENT_REQUESTS);
+    private static final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Responses to GET requests are served from memory for this long before being revalidated with the server
+     */
+    private static final long CACHE_TTL_MILLIS = 5000;
+    /**
+     * Maximum number of responses kept in memory, shared by all the helpers
+     */
+    private static final int MAX_CACHE_ENTRIES = 256;
+    private static final HttpCache cache = new HttpCache(MAX_CACHE_ENTRIES, CACHE_TTL_MILLIS);
+    private static final SingleFlight flights = new SingleFlight();
+
     private final HttpClient client;
 
     /**
@@ -47,20 +71,61 @@ public final class ApiHelper {
      * @throws IOException If the URL is malformed or the server can't be reached.
      */
     public String getFromUrl(String url) throws IOException {
+        // A response that has been read recently is served from memory
+        HttpCache.Entry cached = cache.get(url);
+        if (cache.isFresh(cached)) {
+            return cache.body(cached);
+        }
+        // If the same URL is already being read, we wait for that response instead of sending another request
+        CompletableFuture<String> flight = new CompletableFuture<>();
+        CompletableFuture<String> leader = flights.join(url, flight);
+        if (leader != null) {
+            return await(leader);
+        }
         try {
             // Define the request
-            // The default method is GET, so we don't need to specify it (but we could do so by calling .GET() before .build()
-            // The HttpRequest.Builder pattern offers a ton of customization for the request (headers, body, HTTP version...)
-            HttpRequest request = HttpRequest.newBuilder().uri(new URI(url)).build();
+            // If there is a stale response, the server is asked to only send the body again if it has changed
+            HttpRequest request = cache.conditionalGet(HttpRequest.newBuilder().uri(new URI(url)), cached);
+            long generation = cache.generation();
 
             // We use the default BodyHandler for Strings (so we can get the body of the response as a String)
-            // Note we could also send the request asynchronously, but things would escalate in terms of coding complexity
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
 
-            // Just return the body
-            return response.body();
+            // Return the body, either the new one or the cached one if the server says it has not changed
+            String body = cache.store(url, cached, response, generation);
+            flight.complete(body);
+            return body;
         } catch (URISyntaxException | IOException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             // Exceptions are simplified for any classes that need to catch them
+            IOException exception = new IOException(e);
+            flight.completeExceptionally(exception);
+            throw exception;
+        } catch (RuntimeException e) {
+            // The callers waiting for this response would otherwise wait forever
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.land(url, flight);
+        }
+    }
+
+    /**
+     * Waits for the response of a request sent by another caller
+     *
+     * @param flight The future of the request.
+     * @return The body of the response.
+     * @throws IOException If the request failed or the wait was interrupted.
+     */
+    private static String await(CompletableFuture<String> flight) throws IOException {
+        try {
+            return flight.get();
+        } catch (ExecutionException e) {
+            throw toIOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new IOException(e);
         }
     }
@@ -81,12 +146,15 @@ public final class ApiHelper {
             HttpRequest request = HttpRequest.newBuilder().uri(new URI(url)).headers("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body)).build();
 
             // We could use a BodyHandler that discards the response body, but here we return the persistence.API's response
-            // Note we could also send the request asynchronously, but things would escalate in terms of coding complexity
+            // The async methods can be used to send the request without blocking
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             return response.body();
         } catch (URISyntaxException | IOException | InterruptedException e) {
             // Exceptions are simplified for any classes that need to catch them
             throw new IOException(e);
+        } finally {
+            // The cached responses of the resource are no longer valid
+            invalidate(url);
         }
     }
 
@@ -106,15 +174,191 @@ public final class ApiHelper {
             HttpRequest request = HttpRequest.newBuilder().uri(new URI(url)).DELETE().build();
 
             // We use the default BodyHandler for Strings (so we can get the body of the response as a String)
-            // Note we could also send the request asynchronously, but things would escalate in terms of coding complexity
+            // The async methods can be used to send the request without blocking
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             return response.body();
         } catch (URISyntaxException | IOException | InterruptedException e) {
             // Exceptions are simplified for any classes that need to catch them
             throw new IOException(e);
+        } finally {
+            // The cached responses of the resource are no longer valid
+            invalidate(url);
         }
     }
 
+    /**
+     * Drops every response cached by the helpers, so the next GET requests are answered by the server
+     */
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Makes the next GET requests to a resource that has been written go to the server
+     *
+     * @param url The URL that has been written to.
+     */
+    private static void invalidate(String url) {
+        flights.forget(url);
+        cache.invalidate(url);
+    }
+
+    /**
+     * Gets the number of GET requests made by all the helpers that were not answered by the cache
+     *
+     * @return The number of requests, including the coalesced ones.
+     */
+    public static long getUncachedGetRequests() {
+        return flights.getRequests();
+    }
+
+    /**
+     * Gets the number of GET requests made by all the helpers that shared the response of an identical request in flight
+     *
+     * @return The number of coalesced requests.
+     */
+    public static long getCoalescedGetRequests() {
+        return flights.getCoalesced();
+    }
+
+    /**
+     * Gets the ratio of GET requests not answered by the cache that were coalesced instead of being sent
+     *
+     * @return The coalescing ratio between 0 and 1.
+     */
+    public static double getCoalescingRatio() {
+        long requests = flights.getRequests();
+        return requests == 0 ? 0 : (double) flights.getCoalesced() / requests;
+    }
+
+    /**
+     * Asynchronous version of getFromUrl. The request is sent without blocking the calling thread.
+     *
+     * @param url A String representation of the URL to read from, which will be assumed to use HTTP/HTTPS.
+     * @return A future completed with the contents of the URL, or completed exceptionally with an IOException
+     *         if the URL is malformed or the server can't be reached.
+     */
+    public CompletableFuture<String> getFromUrlAsync(String url) {
+        HttpCache.Entry cached = cache.get(url);
+        if (cache.isFresh(cached)) {
+            return CompletableFuture.completedFuture(cache.body(cached));
+        }
+        CompletableFuture<String> flight = new CompletableFuture<>();
+        CompletableFuture<String> leader = flights.join(url, flight);
+        if (leader != null) {
+            // A copy is returned so callers can't complete the shared future
+            return leader.copy();
+        }
+        long generation = cache.generation();
+        sendAsync(() -> cache.conditionalGet(HttpRequest.newBuilder().uri(new URI(url)), cached))
+                .thenApply(response -> cache.store(url, cached, response, generation))
+                .whenComplete((body, e) -> {
+                    flights.land(url, flight);
+                    if (e != null) {
+                        flight.completeExceptionally(toIOException(e));
+                    } else {
+                        flight.complete(body);
+                    }
+                });
+        return flight.copy();
+    }
+
+    /**
+     * Asynchronous version of postToUrl. The request is sent without blocking the calling thread.
+     *
+     * @param url  A String representation of the URL to post to, which will be assumed to use HTTP/HTTPS.
+     * @param body The content to post, which will be sent to the server in the request body.
+     * @return A future completed with the contents of the response, or completed exceptionally with an IOException
+     *         if the URL is malformed or the server can't be reached.
+     */
+    public CompletableFuture<String> postToUrlAsync(String url, String body) {
+        return sendAsync(() -> HttpRequest.newBuilder().uri(new URI(url)).headers("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body)).build())
+                .whenComplete((response, e) -> invalidate(url))
+                .thenApply(HttpResponse::body);
+    }
+
+    /**
+     * Asynchronous version of deleteFromUrl. The request is sent without blocking the calling thread.
+     *
+     * @param url A String representation of the URL to delete from, which will be assumed to use HTTP/HTTPS.
+     * @return A future completed with the contents of the response, or completed exceptionally with an IOException
+     *         if the URL is malformed or the server can't be reached.
+     */
+    public CompletableFuture<String> deleteFromUrlAsync(String url) {
+        return sendAsync(() -> HttpRequest.newBuilder().uri(new URI(url)).DELETE().build())
+                .whenComplete((response, e) -> invalidate(url))
+                .thenApply(HttpResponse::body);
+    }
+
+    /**
+     * Builds a request that may fail because of a malformed URL
+     */
+    @FunctionalInterface
+    private interface RequestBuilder {
+        HttpRequest build() throws URISyntaxException;
+    }
+
+    /**
+     * Sends a request asynchronously once there are less than MAX_CONCURRENT_REQUESTS requests in flight.
+     * Requests over the limit wait in a queue instead of blocking a thread.
+     *
+     * @param builder Builds the request to send.
+     * @return A future completed with the response.
+     */
+    private CompletableFuture<HttpResponse<String>> sendAsync(RequestBuilder builder) {
+        CompletableFuture<HttpResponse<String>> result = new CompletableFuture<>();
+        waiting.add(() -> {
+            try {
+                client.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofString()).whenComplete((response, e) -> {
+                    release();
+                    if (e != null) {
+                        result.completeExceptionally(toIOException(e));
+                    } else {
+                        result.complete(response);
+                    }
+                });
+            } catch (URISyntaxException | RuntimeException e) {
+                release();
+                result.completeExceptionally(toIOException(e));
+            }
+        });
+        drain();
+        return result;
+    }
+
+    /**
+     * Gives back a permit of the limiter and starts the next waiting request, if any
+     */
+    private static void release() {
+        permits.release();
+        drain();
+    }
+
+    /**
+     * Starts waiting requests while there are free permits
+     */
+    private static void drain() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                permits.release();
+            } else {
+                next.run();
+            }
+        }
+    }
+
+    /**
+     * Simplifies the exceptions of the asynchronous requests, as done with the blocking ones
+     *
+     * @param e The exception that made the request fail.
+     * @return The exception as an IOException.
+     */
+    private static IOException toIOException(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof IOException ? (IOException) cause : new IOException(cause);
+    }
+
     /**
      * Helper function that sets up a SSLContext designed to ignore certificates, accepting anything by default
      * NOT TO BE USED IN REAL PRODUCTION ENVIRONMENTS
@@ -1,21 +1,23 @@
 package persistence.API;
 
 import business.entities.Character;
-import business.entities.Classes.*;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonElement;
 import persistence.CharacterDAO;
+import persistence.JSON.JsonSerialization;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.Objects;
 
 public class CharacterApiDAO implements CharacterDAO {
 
     private ApiHelper apiHelper;
     private final String url = "https://balandrau.salle.url.edu/dpoo/S1-Project_ICE10/characters";
+    private volatile JsonElement synced;
 
     /**
      * default constructor
@@ -41,7 +43,8 @@ public class CharacterApiDAO implements CharacterDAO {
                     return 0;
                 }
             }
-            String body = new Gson().toJson(character);
+            String body = JsonSerialization.COMPACT.toJson(character);
+            synced = null;
             apiHelper.postToUrl(url, body);
             return 1;
         } catch (IOException e) {
@@ -56,6 +59,7 @@ public class CharacterApiDAO implements CharacterDAO {
     @Override
     public void delete(String str) {
         try {
+            synced = null;
             apiHelper.deleteFromUrl(url + "?name="+str);
         } catch (IOException e) {
             e.printStackTrace();
@@ -70,15 +74,33 @@ public class CharacterApiDAO implements CharacterDAO {
     public List<Character> getAll() {
         try {
             String all = apiHelper.getFromUrl(url);
-            Gson gson = new Gson();
-            Type type = new TypeToken<ArrayList<Character>>() {}.getType();
-            return gson.fromJson(all, type);
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.CHARACTER_LIST;
+            List<Character> characters = gson.fromJson(all, type);
+            synced = gson.toJsonTree(characters);
+            return characters;
         }catch (IOException e) {
             e.printStackTrace();
         }
         return null;
     }
 
+    /**
+     * retrieve all the characters that are stored in the cloud without blocking the caller
+     * @return a future with a list of all the characters in the cloud, null if the cloud can't be reached
+     */
+    @Override
+    public CompletableFuture<List<Character>> getAllAsync() {
+        return apiHelper.getFromUrlAsync(url).handle((all, e) -> {
+            if (e != null) {
+                e.printStackTrace();
+                return null;
+            }
+            Type type = JsonSerialization.CHARACTER_LIST;
+            return JsonSerialization.COMPACT.fromJson(all, type);
+        });
+    }
+
 
     /**
      * get all characters that in their player's name contains str
@@ -89,8 +111,8 @@ public class CharacterApiDAO implements CharacterDAO {
     public List<Character> getCharactersByPart(String str) {
         try {
             String all = apiHelper.getFromUrl(url + "?player="+str);
-            Gson gson = new Gson();
-            Type type = new TypeToken<ArrayList<Character>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.CHARACTER_LIST;
             return gson.fromJson(all, type);
         }catch (IOException e) {
             e.printStackTrace();
@@ -106,8 +128,8 @@ public class CharacterApiDAO implements CharacterDAO {
     public List<String> getCharactersNames() {
         try {
             String all = apiHelper.getFromUrl(url);
-            Gson gson = new Gson();
-            Type type = new TypeToken<ArrayList<Character>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.CHARACTER_LIST;
             List<String> names = new ArrayList<>();
             List<Character> characters = gson.fromJson(all, type);
             for (Character character : characters) {
@@ -128,8 +150,8 @@ public class CharacterApiDAO implements CharacterDAO {
     public List<Character> getCharactersByIndexes(int[] parties_inx) {
         try {
             String all = apiHelper.getFromUrl(url);
-            Gson gson = new Gson();
-            Type type = new TypeToken<ArrayList<Character>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.CHARACTER_LIST;
             List<Character> characterList = gson.fromJson(all, type);
             List<Character> characters = new ArrayList<>();
             for (int partiesInx : parties_inx) {
@@ -143,16 +165,22 @@ public class CharacterApiDAO implements CharacterDAO {
     }
 
     /**
-     * update the dataset of characters
+     * update the dataset of characters by deleting it and posting it again. nothing is sent if the characters are the
+     * same as the last time all of them were read or written
      * @param new_characterList a list of all the characters
      */
     @Override
     public void update(List<Character> new_characterList) {
+        JsonElement state = JsonSerialization.COMPACT.toJsonTree(new_characterList);
+        if (state.equals(synced)) {
+            return;
+        }
         try {
             apiHelper.deleteFromUrl(url);
-            String body = new Gson().toJson(new_characterList);
-            apiHelper.postToUrl(url, body);
+            apiHelper.postToUrl(url, state.toString());
+            synced = state;
         } catch (IOException e) {
+            synced = null;
             e.printStackTrace();
         }
     }
@@ -166,8 +194,8 @@ public class CharacterApiDAO implements CharacterDAO {
     public int getCharactersSpiritByName(String partyName) {
         try {
             String all = apiHelper.getFromUrl(url + "?name="+partyName);
-            Gson gson = new Gson();
-            Type type = new TypeToken<ArrayList<Character>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.CHARACTER_LIST;
             List<Character> list = gson.fromJson(all, type);
             return list.get(0).getSpirit();
         }catch (IOException e) {
@@ -190,20 +218,6 @@ public class CharacterApiDAO implements CharacterDAO {
      */
     @Override
     public Character assignClass(String name, String player, int xp, int body, int mind, int spirit, String charClass, int shield) {
-        switch(charClass){
-            case "Adventurer":
-                return  new Adventurer(name, player, xp, body, mind, spirit, charClass);
-            case "Warrior":
-                return  new Warrior( name, player, xp, body, mind, spirit, charClass);
-            case "Champion":
-                return  new Champion(name, player, xp, body, mind, spirit, charClass);
-            case "Cleric":
-                return  new Cleric(name, player, xp, body, mind, spirit, charClass);
-            case "Paladin":
-                return  new Paladin(name, player, xp, body, mind, spirit, charClass);
-            case "Wizard":
-                return  new Wizard(name, player, xp, body, mind, spirit, charClass,shield);
-        }
-        return null;
+        return JsonSerialization.newCharacter(name, player, xp, body, mind, spirit, charClass, shield);
     }
 }
@@ -0,0 +1,197 @@
+package persistence.API;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the responses to GET requests, used by the ApiHelper. Responses are served from memory while they are
+ * fresh, and revalidated with a conditional request (If-None-Match / If-Modified-Since) once they are stale, so an
+ * unchanged resource is not downloaded again. The least recently used responses are evicted when the cache is full,
+ * and every response of a resource is dropped when the resource is written with a POST or DELETE request.
+ */
+final class HttpCache {
+
+    private static final int NOT_MODIFIED = 304;
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+    private long generation;
+
+    /**
+     * A cached response body, along with the validators the server sent with it
+     */
+    static final class Entry {
+        private final String body;
+        private final String etag;
+        private final String lastModified;
+        private volatile long validatedAt;
+
+        /**
+         * Constructor
+         *
+         * @param body         The body of the response.
+         * @param etag         The ETag header of the response, null if there was none.
+         * @param lastModified The Last-Modified header of the response, null if there was none.
+         */
+        private Entry(String body, String etag, String lastModified) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.validatedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxEntries Number of responses after which the least recently used ones are evicted.
+     * @param ttlMillis  Milliseconds a response is served without asking the server again.
+     */
+    HttpCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        // An access-ordered LinkedHashMap keeps the least recently used response first
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > HttpCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets the cached response of a URL
+     *
+     * @param url The URL of the GET request.
+     * @return The cached response, or null if there is none.
+     */
+    synchronized Entry get(String url) {
+        return entries.get(url);
+    }
+
+    /**
+     * Checks if a cached response can be served without asking the server
+     *
+     * @param entry The cached response, may be null.
+     * @return True if the response exists and its time to live has not expired.
+     */
+    boolean isFresh(Entry entry) {
+        return entry != null && System.currentTimeMillis() - entry.validatedAt < ttlMillis;
+    }
+
+    /**
+     * Gets the body of a cached response
+     *
+     * @param entry The cached response.
+     * @return The body of the response.
+     */
+    String body(Entry entry) {
+        return entry.body;
+    }
+
+    /**
+     * Builds a GET request that asks the server to answer 304 if the cached response is still valid
+     *
+     * @param builder The request, with its URI already set.
+     * @param entry   The stale cached response, may be null.
+     * @return The GET request.
+     */
+    HttpRequest conditionalGet(HttpRequest.Builder builder, Entry entry) {
+        if (entry != null && entry.etag != null) {
+            builder.header("If-None-Match", entry.etag);
+        }
+        if (entry != null && entry.lastModified != null) {
+            builder.header("If-Modified-Since", entry.lastModified);
+        }
+        return builder.GET().build();
+    }
+
+    /**
+     * Gets the current generation of the cache, which changes every time a resource is written.
+     * It has to be read before sending a GET request, to be given back when storing its response.
+     *
+     * @return The current generation.
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Stores the response of a GET request, or refreshes the cached one if the server says it has not changed.
+     * The response is not stored if a resource has been written while the request was in flight, as it could be outdated.
+     *
+     * @param url        The URL of the GET request.
+     * @param entry      The cached response the request was conditioned on, may be null.
+     * @param response   The response of the server.
+     * @param generation The generation of the cache when the request was sent.
+     * @return The body to give to the caller.
+     */
+    String store(String url, Entry entry, HttpResponse<String> response, long generation) {
+        if (response.statusCode() == NOT_MODIFIED && entry != null) {
+            entry.validatedAt = System.currentTimeMillis();
+            return entry.body;
+        }
+        if (response.statusCode() >= 200 && response.statusCode() < 300) {
+            Entry fresh = new Entry(response.body(),
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null));
+            synchronized (this) {
+                if (generation == this.generation) {
+                    entries.put(url, fresh);
+                }
+            }
+        }
+        return response.body();
+    }
+
+    /**
+     * Drops every cached response of the resource a URL points to, along with its sub-resources.
+     * Query parameters are ignored, so deleting "adventures?name=X" drops "adventures", "adventures/0" and so on.
+     *
+     * @param url The URL that has been written to.
+     */
+    synchronized void invalidate(String url) {
+        generation++;
+        Iterator<String> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            if (sameResource(it.next(), url)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Drops every cached response
+     */
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Checks if a URL points to the resource of a written URL or to one of its sub-resources
+     *
+     * @param url     The URL to check.
+     * @param written The URL that has been written to.
+     * @return True if both URLs point to the same resource, ignoring query parameters.
+     */
+    static boolean sameResource(String url, String written) {
+        String resource = resourceOf(written);
+        String other = resourceOf(url);
+        return other.equals(resource) || other.startsWith(resource + "/");
+    }
+
+    /**
+     * Gets the resource of a URL, that is, the URL without its query parameters
+     *
+     * @param url The URL.
+     * @return The URL without the query parameters.
+     */
+    private static String resourceOf(String url) {
+        int query = url.indexOf('?');
+        return query < 0 ? url : url.substring(0, query);
+    }
+}
@@ -2,13 +2,13 @@ package persistence.API;
 
 import business.entities.Monster;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import persistence.MonsterDAO;
+import persistence.JSON.JsonSerialization;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class MonsterApiDAO implements MonsterDAO {
 
@@ -34,14 +34,29 @@ public class MonsterApiDAO implements MonsterDAO {
     public List<Monster> getAll() {
         try {
             String all = apiHelper.getFromUrl(base_url);
-            Gson gson = new Gson();
-            Type type = new TypeToken<ArrayList<Monster>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.MONSTER_LIST;
             return gson.fromJson(all , type);
         } catch (IOException e) {
             return null;
         }
     }
 
+    /**
+     * retrieve all the monsters that are stored in the cloud without blocking the caller
+     * @return a future with a list of all the monsters in the cloud, null if the cloud can't be reached
+     */
+    @Override
+    public CompletableFuture<List<Monster>> getAllAsync() {
+        return apiHelper.getFromUrlAsync(base_url).handle((all, e) -> {
+            if (e != null) {
+                return null;
+            }
+            Type type = JsonSerialization.MONSTER_LIST;
+            return JsonSerialization.COMPACT.fromJson(all, type);
+        });
+    }
+
     /**
      * get all the monsters with a certain initial value
      * @param init_val initial value
@@ -50,8 +65,8 @@ public class MonsterApiDAO implements MonsterDAO {
     public List<Monster> getByInitiative(int init_val) {
         try {
             String s = apiHelper.getFromUrl(base_url + "?initiative="+init_val);
-            Gson gson = new Gson();
-            Type type = new TypeToken<ArrayList<Monster>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.MONSTER_LIST;
             return gson.fromJson(s , type);
 
         } catch (IOException e) {
@@ -68,8 +83,8 @@ public class MonsterApiDAO implements MonsterDAO {
     public int getInitValueByName(String monster_name) {
         try {
             String s =  apiHelper.getFromUrl(base_url + "?name="+monster_name);
-            Gson gson = new Gson();
-            Type type = new TypeToken<ArrayList<Monster>>() {}.getType();
+            Gson gson = JsonSerialization.COMPACT;
+            Type type = JsonSerialization.MONSTER_LIST;
             List<Monster> monster = gson.fromJson(s, type);
             return monster.get(0).getInitiative();
         } catch (IOException e) {
@@ -0,0 +1,80 @@
+package persistence.API;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplication of concurrent GET requests, used by the ApiHelper. The first caller asking for a URL sends the
+ * request and every caller asking for the same URL while it is in flight waits for that same response instead
+ * of sending its own. It also counts how many requests have been saved this way.
+ */
+final class SingleFlight {
+
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight;
+    private final LongAdder requests;
+    private final LongAdder coalesced;
+
+    /**
+     * Constructor
+     */
+    SingleFlight() {
+        inFlight = new ConcurrentHashMap<>();
+        requests = new LongAdder();
+        coalesced = new LongAdder();
+    }
+
+    /**
+     * Registers a caller that wants to send a GET request
+     *
+     * @param url    The URL of the request.
+     * @param flight The future the caller will complete if it ends up sending the request.
+     * @return The future of the request already in flight for the URL, or null if the caller has to send it.
+     */
+    CompletableFuture<String> join(String url, CompletableFuture<String> flight) {
+        requests.increment();
+        CompletableFuture<String> leader = inFlight.putIfAbsent(url, flight);
+        if (leader != null) {
+            coalesced.increment();
+        }
+        return leader;
+    }
+
+    /**
+     * Unregisters a request once it has been answered, so the next callers send a new one
+     *
+     * @param url    The URL of the request.
+     * @param flight The future of the request.
+     */
+    void land(String url, CompletableFuture<String> flight) {
+        inFlight.remove(url, flight);
+    }
+
+    /**
+     * Stops new callers from joining the requests in flight for a resource that has just been written,
+     * as their responses may not include the change
+     *
+     * @param url The URL that has been written to.
+     */
+    void forget(String url) {
+        inFlight.keySet().removeIf(key -> HttpCache.sameResource(key, url));
+    }
+
+    /**
+     * Gets the number of GET requests that were not answered by the cache
+     *
+     * @return The number of requests, sent or coalesced.
+     */
+    long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Gets the number of GET requests that waited for a request already in flight instead of being sent
+     *
+     * @return The number of coalesced requests.
+     */
+    long getCoalesced() {
+        return coalesced.sum();
+    }
+}
@@ -0,0 +1,278 @@
+package persistence;
+
+import business.entities.Adventure;
+import business.entities.Monster;
+import business.entities.Party;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * adventure data access object answering every query from adventures held in memory.
+ * the subclasses decide how an adventure is found and how adventures are written, and every query
+ * is synchronized on the data access object, so adventures can be written from a background thread while they are being read
+ * @author Youssef Bat, Alvaro Feher
+ */
+public abstract class AbstractAdventureDAO implements AdventureDAO {
+
+    protected final CharacterDAO characterDAO;
+
+    /**
+     * constructor
+     * @param characterDAO data access object used to give their class to the characters of the parties
+     */
+    protected AbstractAdventureDAO(CharacterDAO characterDAO) {
+        this.characterDAO = characterDAO;
+    }
+
+    /**
+     * finds an adventure by its name
+     * @param name name of the adventure
+     * @return the adventure if exists, null otherwise
+     */
+    protected abstract Adventure find(String name);
+
+    /**
+     * gets an object of adventure which has the name in the parameter
+     * @param str name of the adventure
+     * @return an object of adventure
+     */
+    @Override
+    public synchronized Adventure getAdventureByName(String str) {
+        return find(str);
+    }
+
+    /**
+     * gets the number of encounters of the adventure if exists
+     * @param currentAdventure name of the adventure
+     * @return the number of encounters of the adventure if exists
+     */
+    @Override
+    public synchronized int getNumOfEncountersByName(String currentAdventure) {
+        Adventure adventure = find(currentAdventure);
+        if (adventure == null) {
+            return Integer.MIN_VALUE;
+        }
+        return adventure.getNum_encounters();
+    }
+
+    /**
+     * gets all the names of monsters in an encounter of the adventure if exists
+     * @param i position of the encounter
+     * @param currentAdventure name of the adventure
+     * @return all the names of monsters in an encounter of the adventure if exists
+     */
+    @Override
+    public synchronized List<String> getMonstersInEncounter(int i, String currentAdventure) {
+        List<String> monsters = new ArrayList<>();
+        Adventure adventure = find(currentAdventure);
+        if (adventure != null) {
+            for (Monster monster : adventure.getEncounters().get(i)) {
+                monsters.add(monster.getName());
+            }
+        }
+        return monsters;
+    }
+
+    /**
+     * gets all the parties of the adventure if exists
+     * @param currentAdventure name of the adventure
+     * @return list of parties objects of the adventure if exists
+     */
+    @Override
+    public synchronized List<Party> getPartyByName(String currentAdventure) {
+        Adventure adventure = find(currentAdventure);
+        if (adventure == null) {
+            return new ArrayList<>();
+        }
+        return adventure.getParties();
+    }
+
+    /**
+     * looks if a monster is in an encounter of an adventure
+     * @param currentAdventure name of the adventure
+     * @param encounter_pos the encounter position
+     * @param name the name of the monster
+     * @return if a monster is in an encounter of an adventure
+     */
+    @Override
+    public synchronized boolean isNameMonster(String currentAdventure, int encounter_pos, String name) {
+        return findMonster(currentAdventure, encounter_pos, name) != null;
+    }
+
+    /**
+     * get the damage dice of a monster in an encounter of an adventure
+     * @param currentAdventure name of the adventure
+     * @param encounter_pos the encounter position
+     * @param name the name of the monster
+     * @return the damage dice of a monster in an encounter of an adventure
+     */
+    @Override
+    public synchronized int getDamageDiceByName(String currentAdventure, int encounter_pos, String name) {
+        Monster monster = findMonster(currentAdventure, encounter_pos, name);
+        if (monster == null) {
+            return Integer.MIN_VALUE;
+        }
+        return monster.getDamageDice();
+    }
+
+    /**
+     * finds the first monster with the given name in an encounter of an adventure
+     * @param currentAdventure name of the adventure
+     * @param encounter_pos the encounter position
+     * @param name the name of the monster
+     * @return the monster if exists, null otherwise
+     */
+    private Monster findMonster(String currentAdventure, int encounter_pos, String name) {
+        Adventure adventure = find(currentAdventure);
+        if (adventure == null) {
+            return null;
+        }
+        for (Monster monster : adventure.getEncounters().get(encounter_pos)) {
+            if (Objects.equals(monster.getName(), name)) {
+                return monster;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * checks if all monsters in an encounter of an adventure are dead
+     * @param currentAdventure name of the adventure
+     * @param encounter_pos the encounter position
+     * @return true if all monsters in an encounter of an adventure are dead
+     */
+    @Override
+    public synchronized boolean areMonstersAllDead(String currentAdventure, int encounter_pos) {
+        Adventure adventure = find(currentAdventure);
+        if (adventure == null) {
+            return true;
+        }
+        for (Monster monster : adventure.getEncounters().get(encounter_pos)) {
+            if (monster.getHitPoints() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * checks if all characters in an adventure are unconscious
+     * @param currentAdventure name of the adventure
+     * @return true if all characters in an adventure are unconscious
+     */
+    @Override
+    public synchronized boolean arePartyAllUnconscious(String currentAdventure) {
+        Adventure adventure = find(currentAdventure);
+        if (adventure == null || adventure.getParties() == null) {
+            return true;
+        }
+        for (Party party : adventure.getParties()) {
+            if (party.getHitPoint() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * get the xp gained in an encounter of an adventure
+     * @param adventure_name name of the adventure
+     * @param encounter_pos the encounter position
+     * @return the xp gained in an encounter of an adventure
+     */
+    @Override
+    public synchronized int getXpGainedInEncounter(String adventure_name, int encounter_pos) {
+        Adventure adventure = find(adventure_name);
+        int sum_xp = 0;
+        if (adventure != null) {
+            for (Monster monster : adventure.getEncounters().get(encounter_pos)) {
+                sum_xp += monster.getExperience();
+            }
+        }
+        return sum_xp;
+    }
+
+    /**
+     * gets the character mind in an adventure
+     * @param adventure_name name of the adventure
+     * @param partyName name of the character
+     * @return the character mind in an adventure
+     */
+    @Override
+    public synchronized int getCharactersMindByName(String adventure_name, String partyName) {
+        Party party = findParty(adventure_name, partyName);
+        if (party == null) {
+            return Integer.MIN_VALUE;
+        }
+        return party.getCharacter().getMind();
+    }
+
+    /**
+     * finds a member of the party of an adventure by its name
+     * @param currentAdventure name of the adventure
+     * @param partyName name of the character
+     * @return the party member if exists, null otherwise
+     */
+    private Party findParty(String currentAdventure, String partyName) {
+        Adventure adventure = find(currentAdventure);
+        if (adventure == null || adventure.getParties() == null) {
+            return null;
+        }
+        for (Party party : adventure.getParties()) {
+            if (Objects.equals(party.getCharacter().getName(), partyName)) {
+                return party;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * checks if a specific character ( by name ) in an adventure is unconscious
+     * @param currentAdventure name of the adventure
+     * @param s the party name
+     * @return true if the character is unconscious
+     */
+    @Override
+    public synchronized boolean isPartyUnconsciousByName(String currentAdventure, String s) {
+        Party party = findParty(currentAdventure, s);
+        return party != null && party.getHitPoint() < 1;
+    }
+
+    /**
+     * checks if a specific monster ( by name ) in an encounter of an adventure is alive
+     * @param currentAdventure name of the adventure
+     * @param encounter_pos the encounter position
+     * @param s the monster name
+     * @return true if monster is alive
+     */
+    @Override
+    public synchronized boolean isMonsterAlive(String currentAdventure, int encounter_pos, String s) {
+        Adventure adventure = find(currentAdventure);
+        if (adventure == null) {
+            return false;
+        }
+        for (Monster monster : adventure.getEncounters().get(encounter_pos)) {
+            if (Objects.equals(monster.getName(), s) && monster.getHitPoints() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * checks if a specific character (by position )in an adventure is unconscious
+     * @param currentAdventure name of the adventure
+     * @param party_pos the party position
+     * @return true if the character is unconscious
+     */
+    @Override
+    public synchronized boolean isPartyUnconsciousByPosition(String currentAdventure, int party_pos) {
+        Adventure adventure = find(currentAdventure);
+        if (adventure == null) {
+            return false;
+        }
+        return adventure.getParties().get(party_pos).getHitPoint() < 1;
+    }
+}
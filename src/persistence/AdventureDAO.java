@@ -4,6 +4,7 @@ import business.entities.Adventure;
 import business.entities.Party;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * interface of adventure json data access object
@@ -22,6 +23,14 @@ public interface AdventureDAO {
      */
     List<Adventure> getAll();
 
+    /**
+     * gets all the adventures without blocking the caller if the database is remote
+     * @return a future with a list of adventure objects
+     */
+    default CompletableFuture<List<Adventure>> getAllAsync() {
+        return CompletableFuture.completedFuture(getAll());
+    }
+
     /**
      * gets an object of adventure which has the name in the parameter
      * @param str name of the adventure
@@ -29,6 +38,15 @@ public interface AdventureDAO {
      */
     Adventure getAdventureByName(String str);
 
+    /**
+     * gets an object of adventure which has the name in the parameter without blocking the caller if the database is remote
+     * @param str name of the adventure
+     * @return a future with an object of adventure
+     */
+    default CompletableFuture<Adventure> getAdventureByNameAsync(String str) {
+        return CompletableFuture.completedFuture(getAdventureByName(str));
+    }
+
     /**
      * updates an adventure by another adventure
      * @param adventure adventure object
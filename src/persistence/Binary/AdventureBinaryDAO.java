@@ -0,0 +1,171 @@
+package persistence.Binary;
+
+import business.entities.Adventure;
+import persistence.AbstractAdventureDAO;
+import persistence.DataDirectory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * adventure data access object backed by the binary adventure file, see {@link BinaryFormat}.
+ * the file is read only once and kept in memory, every query is answered from memory, and every modification rewrites
+ * the file atomically. it is thread safe, so adventures can be written from a background thread while they are being read
+ * @author Youssef Bat, Alvaro Feher
+ */
+public class AdventureBinaryDAO extends AbstractAdventureDAO {
+
+    private static final String path = DataDirectory.resolve("adventures.bin");
+
+    private final Path file;
+    private final List<Adventure> adventures;
+    private final Map<String, Integer> indexByName;
+    private boolean loaded;
+
+    /**
+     * constructor, using the default file. the file is read on the first access
+     */
+    public AdventureBinaryDAO() {
+        this(path);
+    }
+
+    /**
+     * constructor. the file is read on the first access
+     * @param path path of the binary adventure file
+     */
+    public AdventureBinaryDAO(String path) {
+        super(new CharacterBinaryDAO());
+        file = Paths.get(path);
+        adventures = new ArrayList<>();
+        indexByName = new HashMap<>();
+    }
+
+    /**
+     * checks if the adventures have been imported to the default binary file
+     * @return true if the binary adventure file exists
+     */
+    public static boolean exists() {
+        return Files.exists(Paths.get(path));
+    }
+
+    /**
+     * reads the adventure file into memory if it was not read yet
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        try {
+            byte[] data = BinaryFormat.read(file);
+            if (data != null) {
+                for (Adventure adventure : BinaryFormat.decodeAdventures(data, characterDAO)) {
+                    index(adventure);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        loaded = true;
+    }
+
+    /**
+     * appends an adventure to the in memory model, keeping the name index up to date
+     * @param adventure adventure object
+     */
+    private void index(Adventure adventure) {
+        indexByName.putIfAbsent(adventure.getName(), adventures.size());
+        adventures.add(adventure);
+    }
+
+    /**
+     * writes all the adventures of the in memory model to the adventure file
+     * @return true if the file is written
+     */
+    private boolean save() {
+        return BinaryFormat.write(file, BinaryFormat.encodeAdventures(adventures, characterDAO));
+    }
+
+    /**
+     * finds an adventure by its name
+     * @param name name of the adventure
+     * @return the adventure if exists, null otherwise
+     */
+    @Override
+    protected Adventure find(String name) {
+        load();
+        Integer i = indexByName.get(name);
+        if (i == null) {
+            return null;
+        }
+        return adventures.get(i);
+    }
+
+    /**
+     * add an adventure to the database
+     * @param adventure adventure object
+     * @return if the adventure is added or not
+     */
+    @Override
+    public synchronized int add(Adventure adventure) {
+        load();
+        index(adventure);
+        return save() ? 0 : -1;
+    }
+
+    /**
+     * gets all the adventures
+     * @return list of adventure objects
+     */
+    @Override
+    public synchronized List<Adventure> getAll() {
+        load();
+        return new ArrayList<>(adventures);
+    }
+
+    /**
+     * updates an adventure by another adventure
+     * @param adventureToUpdate adventure object
+     */
+    @Override
+    public synchronized void update(Adventure adventureToUpdate) {
+        load();
+        boolean found = false;
+        for (int i = 0; i < adventures.size(); i++) {
+            if (Objects.equals(adventures.get(i).getName(), adventureToUpdate.getName())) {
+                adventures.set(i, adventureToUpdate);
+                found = true;
+            }
+        }
+        if (found) {
+            save();
+        }
+    }
+
+    /**
+     * gets the name of the adventure if exists
+     * @param inx position of the adventure
+     * @return the name of the adventure if exists
+     */
+    @Override
+    public synchronized String getNameByIndex(int inx) {
+        load();
+        return adventures.get(inx).getName();
+    }
+
+    /**
+     * gets the number of adventures
+     * @return the number of adventures
+     */
+    @Override
+    public synchronized int getAdventuresSize() {
+        load();
+        return adventures.size();
+    }
+}
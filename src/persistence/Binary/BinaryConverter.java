@@ -0,0 +1,91 @@
+package persistence.Binary;
+
+import business.entities.Adventure;
+import business.entities.Character;
+import com.google.gson.Gson;
+import persistence.DataDirectory;
+import persistence.JSON.AdventureCacheJsonDAO;
+import persistence.JSON.CharacterJsonDAO;
+import persistence.JSON.JsonSerialization;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * import/export tool between the json data files and the binary ones.
+ * importing copies data/adventures.json and data/characters.json (along with their write-ahead logs) to
+ * data/adventures.bin and data/characters.bin, after which the managers use the binary files. exporting writes the
+ * binary files back as json files, in the same layout as the original ones
+ * @author Youssef Bat, Alvaro Feher
+ */
+public class BinaryConverter {
+
+    /**
+     * utility class, not to be instantiated
+     */
+    private BinaryConverter() {
+    }
+
+    /**
+     * copies the json data files to the binary ones
+     * @return true if both files are written
+     */
+    public static boolean importJson() {
+        List<Adventure> adventures = new AdventureCacheJsonDAO().getAll();
+        List<Character> characters = new CharacterJsonDAO().getAll();
+        if (characters == null) {
+            return false;
+        }
+        new CharacterBinaryDAO().update(characters);
+        return BinaryFormat.write(Paths.get(DataDirectory.resolve("adventures.bin")),
+                BinaryFormat.encodeAdventures(adventures, new CharacterBinaryDAO()));
+    }
+
+    /**
+     * writes the binary data files as json files
+     * @param directory directory where adventures.json and characters.json are written
+     * @return true if both files are written
+     */
+    public static boolean exportJson(String directory) {
+        Gson gson = JsonSerialization.PRETTY;
+        List<Character> characters = new CharacterBinaryDAO().getAll();
+        if (characters == null) {
+            return false;
+        }
+        List<Adventure> adventures = new AdventureBinaryDAO().getAll();
+        Path root = Paths.get(directory);
+        try {
+            Files.createDirectories(root);
+            try (Writer writer = Files.newBufferedWriter(root.resolve("adventures.json"), StandardCharsets.UTF_8)) {
+                gson.toJson(adventures, writer);
+            }
+            try (Writer writer = Files.newBufferedWriter(root.resolve("characters.json"), StandardCharsets.UTF_8)) {
+                gson.toJson(characters, writer);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * import/export tool
+     * @param args "import", or "export" optionally followed by the directory of the json files (data/export by default)
+     */
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("export")) {
+            String directory = args.length > 1 ? args[1] : "data/export";
+            System.out.println(exportJson(directory) ? "Data exported to " + directory + "." : "The data could not be exported.");
+        } else if (args.length == 0 || args[0].equals("import")) {
+            System.out.println(importJson() ? "Data imported to the binary files." : "The data could not be imported.");
+        } else {
+            System.out.println("Usage: BinaryConverter [import | export [directory]]");
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package persistence.Binary;
+
+import business.entities.Adventure;
+import business.entities.Character;
+import business.entities.Monster;
+import business.entities.Party;
+import persistence.CharacterDAO;
+import persistence.JSON.JsonSerialization;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * versioned binary encoding of the adventures and characters.
+ * every file starts with a magic number and the version of the format. an adventure file holds, in this order:
+ * the monster templates (every field of a monster but its hit points), the characters of the parties, and the
+ * adventures. a monster of an encounter is then a fixed-width record (template index, hit points), and so is a member
+ * of a party (character index, hit points, shield), so a template or a character is stored once no matter how many
+ * times it appears. version 1 party records have no shield, which is read as 0. a character file holds the characters
+ * one after the other.
+ * integers are big-endian, strings are stored as their length in utf-8 bytes (-1 for null) followed by those bytes,
+ * and lists as their size (-1 for null) followed by their elements
+ * @author Youssef Bat, Alvaro Feher
+ */
+final class BinaryFormat {
+
+    /**
+     * "ADVB", first bytes of an adventure file
+     */
+    static final int ADVENTURES_MAGIC = 0x41445642;
+
+    /**
+     * "CHRB", first bytes of a character file
+     */
+    static final int CHARACTERS_MAGIC = 0x43485242;
+
+    /**
+     * version written by this code, and the newest version it can read
+     */
+    static final int VERSION = 2;
+
+    /**
+     * amount of integers of a monster record
+     */
+    private static final int MONSTER_RECORD = 2;
+
+    /**
+     * amount of integers of a party record, which has no shield before version 2
+     */
+    private static final int PARTY_RECORD = 3;
+
+    /**
+     * utility class, not to be instantiated
+     */
+    private BinaryFormat() {
+    }
+
+    /**
+     * encodes a list of adventures
+     * @param adventures list of adventure objects
+     * @param characterDAO data access object used to get the characters of the parties
+     * @return the encoded adventures
+     */
+    static byte[] encodeAdventures(List<Adventure> adventures, CharacterDAO characterDAO) {
+        List<Monster> templates = new ArrayList<>();
+        Map<List<Object>, Integer> templateIndex = new HashMap<>();
+        List<Character> characters = new ArrayList<>();
+        Map<List<Object>, Integer> characterIndex = new HashMap<>();
+        List<int[]> monsterRecords = new ArrayList<>();
+        List<int[]> partyRecords = new ArrayList<>();
+
+        // first pass, interning the templates and characters, and building the fixed-width records
+        for (Adventure adventure : adventures) {
+            if (adventure.getEncounters() != null) {
+                for (List<Monster> encounter : adventure.getEncounters()) {
+                    int[] records = new int[encounter.size() * MONSTER_RECORD];
+                    for (int i = 0; i < encounter.size(); i++) {
+                        Monster monster = encounter.get(i);
+                        Integer index = templateIndex.putIfAbsent(templateKey(monster), templates.size());
+                        if (index == null) {
+                            index = templates.size();
+                            templates.add(monster);
+                        }
+                        records[i * MONSTER_RECORD] = index;
+                        records[i * MONSTER_RECORD + 1] = monster.getHitPoints();
+                    }
+                    monsterRecords.add(records);
+                }
+            }
+            if (adventure.getParties() != null) {
+                int[] records = new int[adventure.getParties().size() * PARTY_RECORD];
+                for (int i = 0; i < adventure.getParties().size(); i++) {
+                    Party party = adventure.getParties().get(i);
+                    Character character = party.getCharacter();
+                    Integer index = characterIndex.putIfAbsent(characterKey(character), characters.size());
+                    if (index == null) {
+                        index = characters.size();
+                        characters.add(character);
+                    }
+                    records[i * PARTY_RECORD] = index;
+                    records[i * PARTY_RECORD + 1] = party.getHitPoint();
+                    records[i * PARTY_RECORD + 2] = character.getShield();
+                }
+                partyRecords.add(records);
+            }
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(ADVENTURES_MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(templates.size());
+            for (Monster template : templates) {
+                writeString(out, template.getName());
+                writeString(out, template.getChallenge());
+                out.writeInt(template.getExperience());
+                out.writeInt(template.getInitiative());
+                writeString(out, template.getDamageDiceNotation());
+                writeString(out, template.getDamageType());
+            }
+            out.writeInt(characters.size());
+            for (Character character : characters) {
+                writeCharacter(out, character);
+            }
+            out.writeInt(adventures.size());
+            int nextEncounter = 0;
+            int nextParty = 0;
+            for (Adventure adventure : adventures) {
+                writeString(out, adventure.getName());
+                out.writeInt(adventure.getNum_encounters());
+                if (adventure.getEncounters() == null) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(adventure.getEncounters().size());
+                    for (int i = 0; i < adventure.getEncounters().size(); i++) {
+                        writeRecords(out, monsterRecords.get(nextEncounter++), MONSTER_RECORD);
+                    }
+                }
+                if (adventure.getParties() == null) {
+                    out.writeInt(-1);
+                } else {
+                    writeRecords(out, partyRecords.get(nextParty++), PARTY_RECORD);
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // writing to memory does not fail
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * decodes a list of adventures
+     * @param data the encoded adventures
+     * @param characterDAO data access object used to give their class to the characters of the parties
+     * @return list of adventure objects
+     * @throws IOException if the data is not an adventure file of a supported version, or it is corrupt
+     */
+    static List<Adventure> decodeAdventures(byte[] data, CharacterDAO characterDAO) throws IOException {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            int version = checkHeader(in, ADVENTURES_MAGIC);
+            Monster[] templates = new Monster[in.getInt()];
+            for (int i = 0; i < templates.length; i++) {
+                String name = readString(in);
+                String challenge = readString(in);
+                int experience = in.getInt();
+                int initiative = in.getInt();
+                String damageDice = readString(in);
+                String damageType = readString(in);
+                templates[i] = new Monster(name, challenge, experience, 0, initiative, damageDice, damageType);
+            }
+            Character[] characters = new Character[in.getInt()];
+            for (int i = 0; i < characters.length; i++) {
+                characters[i] = readCharacter(in);
+            }
+            int size = in.getInt();
+            List<Adventure> adventures = new ArrayList<>(size);
+            for (int a = 0; a < size; a++) {
+                String name = readString(in);
+                int num_encounters = in.getInt();
+                List<List<Monster>> encounters = null;
+                int encounterCount = in.getInt();
+                if (encounterCount >= 0) {
+                    encounters = new ArrayList<>(encounterCount);
+                    for (int e = 0; e < encounterCount; e++) {
+                        int monsterCount = in.getInt();
+                        List<Monster> encounter = new ArrayList<>(monsterCount);
+                        for (int m = 0; m < monsterCount; m++) {
+                            Monster t = templates[in.getInt()];
+                            int hitPoints = in.getInt();
+                            encounter.add(new Monster(t.getName(), t.getChallenge(), t.getExperience(), hitPoints,
+                                    t.getInitiative(), t.getDamageDiceNotation(), t.getDamageType()));
+                        }
+                        encounters.add(encounter);
+                    }
+                }
+                List<Party> parties = null;
+                int partyCount = in.getInt();
+                if (partyCount >= 0) {
+                    parties = new ArrayList<>(partyCount);
+                    for (int p = 0; p < partyCount; p++) {
+                        Character character = characters[in.getInt()];
+                        int hitPoint = in.getInt();
+                        int shield = version >= 2 ? in.getInt() : 0;
+                        parties.add(new Party(character, hitPoint, characterDAO, shield));
+                    }
+                }
+                adventures.add(new Adventure(name, num_encounters, encounters, parties));
+            }
+            return adventures;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("corrupt binary file", e);
+        }
+    }
+
+    /**
+     * encodes a list of characters
+     * @param characters list of character objects
+     * @return the encoded characters
+     */
+    static byte[] encodeCharacters(List<Character> characters) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(CHARACTERS_MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(characters.size());
+            for (Character character : characters) {
+                writeCharacter(out, character);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // writing to memory does not fail
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * decodes a list of characters
+     * @param data the encoded characters
+     * @return list of character objects
+     * @throws IOException if the data is not a character file of a supported version, or it is corrupt
+     */
+    static List<Character> decodeCharacters(byte[] data) throws IOException {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            checkHeader(in, CHARACTERS_MAGIC);
+            int size = in.getInt();
+            List<Character> characters = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                characters.add(readCharacter(in));
+            }
+            return characters;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("corrupt binary file", e);
+        }
+    }
+
+    /**
+     * reads a whole file
+     * @param path path of the file
+     * @return the content of the file, null if the file does not exist
+     * @throws IOException if the file can not be read
+     */
+    static byte[] read(Path path) throws IOException {
+        try {
+            return Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * writes a whole file to a temporary file next to it, syncs it, and renames it over the file,
+     * so the file holds either its old content or the new one, never a mix of both
+     * @param path path of the file
+     * @param data the new content of the file
+     * @return true if the file is written
+     */
+    static boolean write(Path path, byte[] data) {
+        Path tmp = Paths.get(path + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(tmp.toFile());
+             BufferedOutputStream out = new BufferedOutputStream(file)) {
+            out.write(data);
+            out.flush();
+            file.getFD().sync();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        try {
+            try {
+                Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        try (FileChannel dir = FileChannel.open(path.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // the rename is still atomic, only its durability is left to the system
+        }
+        return true;
+    }
+
+    /**
+     * checks the magic number and the version of a file
+     * @param in the file
+     * @param magic the magic number the file must start with
+     * @return the version of the file
+     * @throws IOException if the file is not of the expected kind or its version is not supported
+     */
+    private static int checkHeader(ByteBuffer in, int magic) throws IOException {
+        if (in.remaining() < 8 || in.getInt() != magic) {
+            throw new IOException("not a binary " + (magic == ADVENTURES_MAGIC ? "adventure" : "character") + " file");
+        }
+        int version = in.getInt();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("unsupported binary format version " + version);
+        }
+        return version;
+    }
+
+    /**
+     * gets the fields identifying a monster template, that is, every field but the hit points
+     * @param monster monster object
+     * @return the fields of the template
+     */
+    private static List<Object> templateKey(Monster monster) {
+        return Arrays.asList(monster.getName(), monster.getChallenge(), monster.getExperience(),
+                monster.getInitiative(), monster.getDamageDiceNotation(), monster.getDamageType());
+    }
+
+    /**
+     * gets the fields identifying a character
+     * @param character character object
+     * @return the fields of the character
+     */
+    private static List<Object> characterKey(Character character) {
+        return Arrays.asList(character.getName(), character.getPlayer(), character.getXp(), character.getBody(),
+                character.getMind(), character.getSpirit(), character.getCharClass());
+    }
+
+    /**
+     * writes a list of fixed-width records, as its number of records followed by the records
+     * @param out where the records are written
+     * @param records the records, one after the other
+     * @param width amount of integers of a record
+     * @throws IOException if the records can not be written
+     */
+    private static void writeRecords(DataOutputStream out, int[] records, int width) throws IOException {
+        out.writeInt(records.length / width);
+        for (int value : records) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * writes a character
+     * @param out where the character is written
+     * @param character character object
+     * @throws IOException if the character can not be written
+     */
+    private static void writeCharacter(DataOutputStream out, Character character) throws IOException {
+        writeString(out, character.getName());
+        writeString(out, character.getPlayer());
+        out.writeInt(character.getXp());
+        out.writeInt(character.getBody());
+        out.writeInt(character.getMind());
+        out.writeInt(character.getSpirit());
+        writeString(out, character.getCharClass());
+    }
+
+    /**
+     * reads a character, as the instance of its class
+     * @param in where the character is read from
+     * @return character object
+     * @throws IOException if the character can not be read
+     */
+    private static Character readCharacter(ByteBuffer in) throws IOException {
+        String name = readString(in);
+        String player = readString(in);
+        int xp = in.getInt();
+        int body = in.getInt();
+        int mind = in.getInt();
+        int spirit = in.getInt();
+        String charClass = readString(in);
+        Character character = JsonSerialization.newCharacter(name, player, xp, body, mind, spirit, charClass, 0);
+        if (character == null) {
+            character = new Character(name, player, xp, body, mind, spirit, charClass);
+        }
+        return character;
+    }
+
+    /**
+     * writes a string that may be null
+     * @param out where the string is written
+     * @param value the string
+     * @throws IOException if the string can not be written
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * reads a string that may be null
+     * @param in where the string is read from
+     * @return the string
+     * @throws IOException if the string can not be read
+     */
+    private static String readString(ByteBuffer in) throws IOException {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new IOException("truncated binary file");
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,252 @@
+package persistence.Binary;
+
+import business.entities.Character;
+import persistence.CharacterDAO;
+import persistence.DataDirectory;
+import persistence.JSON.JsonSerialization;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * character data access object backed by the binary character file, see {@link BinaryFormat}.
+ * the file is read only once and kept in memory, shared by all the data access objects of the file,
+ * and every modification rewrites the file atomically
+ * @author Youssef Bat, Alvaro Feher
+ */
+public class CharacterBinaryDAO implements CharacterDAO {
+
+    private static final String path = DataDirectory.resolve("characters.bin");
+
+    private static final Map<Path, Table> tables = new HashMap<>();
+
+    private final Path file;
+    private final Table table;
+
+    /**
+     * characters of a file held in memory, shared by all the data access objects of the file
+     */
+    private static class Table {
+        private List<Character> characters;
+    }
+
+    /**
+     * default constructor. the file is read on the first access
+     */
+    public CharacterBinaryDAO() {
+        this(path);
+    }
+
+    /**
+     * constructor. the file is read on the first access
+     * @param path path of the binary character file
+     */
+    public CharacterBinaryDAO(String path) {
+        file = Paths.get(path).toAbsolutePath().normalize();
+        synchronized (tables) {
+            table = tables.computeIfAbsent(file, f -> new Table());
+        }
+    }
+
+    /**
+     * checks if the characters have been imported to the default binary file
+     * @return true if the binary character file exists
+     */
+    public static boolean exists() {
+        return Files.exists(Paths.get(path));
+    }
+
+    /**
+     * reads all the characters of the file into memory if they were not read yet
+     * @return a list of all the characters, null if the file can't be read
+     */
+    private List<Character> readAll() {
+        if (table.characters == null) {
+            try {
+                byte[] data = BinaryFormat.read(file);
+                table.characters = data == null ? new ArrayList<>() : BinaryFormat.decodeCharacters(data);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+        return table.characters;
+    }
+
+    /**
+     * writes all the characters in memory to the file
+     */
+    private void save() {
+        BinaryFormat.write(file, BinaryFormat.encodeCharacters(table.characters));
+    }
+
+    /**
+     * adds a character in the database
+     * @param character character object
+     * @return if character is added
+     */
+    @Override
+    public int add(Character character) {
+        synchronized (table) {
+            List<Character> list = readAll();
+            if (list == null) {
+                return 0;
+            }
+            for (Character value : list) {
+                if (Objects.equals(value.getName(), character.getName())) {
+                    return 0;
+                }
+            }
+            list.add(character);
+            save();
+            return 1;
+        }
+    }
+
+    /**
+     * deletes a character by its name
+     * @param str character name
+     */
+    @Override
+    public void delete(String str) {
+        synchronized (table) {
+            List<Character> list = readAll();
+            if (list != null && list.removeIf(character -> Objects.equals(character.getName(), str))) {
+                save();
+            }
+        }
+    }
+
+    /**
+     * gets a list of all the characters
+     * @return a list of all the characters
+     */
+    @Override
+    public List<Character> getAll() {
+        synchronized (table) {
+            List<Character> list = readAll();
+            return list == null ? null : new ArrayList<>(list);
+        }
+    }
+
+    /**
+     * gets a list of all the character that their player's name is a whole of str
+     * @param str a substring of player's name
+     * @return a list of all the character that their player's name is a whole of str
+     */
+    @Override
+    public List<Character> getCharactersByPart(String str) {
+        synchronized (table) {
+            List<Character> names = new ArrayList<>();
+            List<Character> list = readAll();
+            if (list == null) {
+                return null;
+            }
+            for (Character character : list) {
+                if (Objects.equals(str, "")) {
+                    names.add(character);
+                }
+                if (character.getPlayer().toLowerCase().contains(str.toLowerCase()) && !str.isEmpty()) {
+                    names.add(character);
+                }
+            }
+            return names;
+        }
+    }
+
+    /**
+     * gets a list of all the character names
+     * @return a list of all the character names
+     */
+    @Override
+    public List<String> getCharactersNames() {
+        synchronized (table) {
+            List<String> names = new ArrayList<>();
+            List<Character> list = readAll();
+            if (list == null) {
+                return null;
+            }
+            for (Character character : list) {
+                names.add(character.getName());
+            }
+            return names;
+        }
+    }
+
+    /**
+     * get a list of characters that are positioned in the value of the parties_inx array
+     * @param parties_inx an array containing the indexes of the characters
+     * @return the character objects referring to their indexes
+     */
+    @Override
+    public List<Character> getCharactersByIndexes(int[] parties_inx) {
+        synchronized (table) {
+            List<Character> characterList = new ArrayList<>();
+            List<Character> list = readAll();
+            if (list == null) {
+                return null;
+            }
+            for (int partiesInx : parties_inx) {
+                characterList.add(list.get(partiesInx));
+            }
+            return characterList;
+        }
+    }
+
+    /**
+     * update the dataset of characters
+     * @param new_characterList a list of all the characters
+     */
+    @Override
+    public void update(List<Character> new_characterList) {
+        synchronized (table) {
+            table.characters = new ArrayList<>(new_characterList);
+            save();
+        }
+    }
+
+    /**
+     * get the character's spirit by the character's name
+     * @param partyName the name of the charater
+     * @return the character's spirit
+     */
+    @Override
+    public int getCharactersSpiritByName(String partyName) {
+        synchronized (table) {
+            List<Character> list = readAll();
+            if (list == null) {
+                return Integer.MIN_VALUE;
+            }
+            for (Character character : list) {
+                if (Objects.equals(partyName, character.getName())) {
+                    return character.getSpirit();
+                }
+            }
+            return Integer.MIN_VALUE;
+        }
+    }
+
+    /**
+     * method to assign a class to a given character by its attributes. converts instance of object depending on its character class attribute
+     * @param name character's name
+     * @param player player whi created the character
+     * @param xp character's xp
+     * @param body character's body
+     * @param mind character's mind
+     * @param spirit character's spirit
+     * @param charClass character's class
+     * @param shield wizard's shield
+     * @return new instance of character depending on its class
+     */
+    @Override
+    public Character assignClass(String name, String player, int xp, int body, int mind, int spirit, String charClass, int shield){
+        return JsonSerialization.newCharacter(name, player, xp, body, mind, spirit, charClass, shield);
+    }
+}
@@ -0,0 +1,242 @@
+package persistence.Binary;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * memory-mapped file holding the hit points of the party and of the monsters of an adventure being played, so a
+ * change of hit points is a single in-place write of an integer, with no serialization at all. the layout is fixed when
+ * the file is created: a header (magic number, version, fingerprint and name of the adventure, number of party members,
+ * number of encounters and number of monsters of each encounter), followed by one integer per party member and one
+ * integer per monster slot, encounter after encounter.
+ * the structure of the adventure (which characters and monsters there are) is stored in the main store, the
+ * fingerprint tells which version of that structure the hit points belong to
+ * @author Youssef Bat, Alvaro Feher
+ */
+public final class HitPointFile {
+
+    /**
+     * "HPMM", first bytes of a hit point file. it is written last, so a file whose creation was interrupted is invalid
+     */
+    private static final int MAGIC = 0x48504D4D;
+    private static final int VERSION = 1;
+
+    /**
+     * hit points of a monster slot whose monster has been removed from its encounter
+     */
+    public static final int REMOVED = Integer.MIN_VALUE;
+
+    private final Path path;
+    private final MappedByteBuffer map;
+    private final String adventureName;
+    private final long fingerprint;
+    private final int parties;
+    private final int[] monsters;
+    private final int partyOffset;
+    private final int[] encounterOffsets;
+
+    /**
+     * constructor
+     * @param path path of the file
+     * @param map the mapped content of the file
+     * @param adventureName name of the adventure
+     * @param fingerprint fingerprint of the structure of the adventure
+     * @param parties number of party members
+     * @param monsters number of monster slots of each encounter
+     * @param partyOffset position of the hit points of the first party member
+     */
+    private HitPointFile(Path path, MappedByteBuffer map, String adventureName, long fingerprint, int parties, int[] monsters, int partyOffset) {
+        this.path = path;
+        this.map = map;
+        this.adventureName = adventureName;
+        this.fingerprint = fingerprint;
+        this.parties = parties;
+        this.monsters = monsters;
+        this.partyOffset = partyOffset;
+        this.encounterOffsets = new int[monsters.length];
+        int offset = partyOffset + parties * Integer.BYTES;
+        for (int e = 0; e < monsters.length; e++) {
+            encounterOffsets[e] = offset;
+            offset += monsters[e] * Integer.BYTES;
+        }
+    }
+
+    /**
+     * creates a hit point file, replacing any previous one. every hit point starts at 0
+     * @param path path of the file
+     * @param adventureName name of the adventure
+     * @param fingerprint fingerprint of the structure of the adventure
+     * @param parties number of party members
+     * @param monsters number of monsters of each encounter
+     * @return the hit point file
+     * @throws IOException if the file can not be created
+     */
+    public static HitPointFile create(Path path, String adventureName, long fingerprint, int parties, int[] monsters) throws IOException {
+        byte[] name = adventureName.getBytes(StandardCharsets.UTF_8);
+        int partyOffset = 4 + 4 + 8 + 4 + name.length + 4 + 4 + monsters.length * Integer.BYTES;
+        int size = partyOffset + parties * Integer.BYTES;
+        for (int count : monsters) {
+            size += count * Integer.BYTES;
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        MappedByteBuffer map;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // the mapping stays valid once the channel is closed
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        map.putInt(4, VERSION);
+        map.putLong(8, fingerprint);
+        map.putInt(16, name.length);
+        map.put(20, name);
+        map.putInt(20 + name.length, parties);
+        map.putInt(24 + name.length, monsters.length);
+        for (int e = 0; e < monsters.length; e++) {
+            map.putInt(28 + name.length + e * Integer.BYTES, monsters[e]);
+        }
+        map.force();
+        map.putInt(0, MAGIC);
+        map.force();
+        return new HitPointFile(path, map, adventureName, fingerprint, parties, monsters.clone(), partyOffset);
+    }
+
+    /**
+     * opens an existing hit point file
+     * @param path path of the file
+     * @return the hit point file
+     * @throws IOException if the file can not be read or is not a complete hit point file
+     */
+    public static HitPointFile open(Path path) throws IOException {
+        MappedByteBuffer map;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        try {
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                throw new IOException("not a hit point file: " + path);
+            }
+            long fingerprint = map.getLong(8);
+            byte[] name = new byte[map.getInt(16)];
+            map.get(20, name);
+            int parties = map.getInt(20 + name.length);
+            int[] monsters = new int[map.getInt(24 + name.length)];
+            long size = 28L + name.length + (long) monsters.length * Integer.BYTES + (long) parties * Integer.BYTES;
+            for (int e = 0; e < monsters.length; e++) {
+                monsters[e] = map.getInt(28 + name.length + e * Integer.BYTES);
+                size += (long) monsters[e] * Integer.BYTES;
+            }
+            if (parties < 0 || size != map.capacity()) {
+                throw new IOException("truncated hit point file: " + path);
+            }
+            int partyOffset = 28 + name.length + monsters.length * Integer.BYTES;
+            return new HitPointFile(path, map, new String(name, StandardCharsets.UTF_8), fingerprint, parties, monsters, partyOffset);
+        } catch (IndexOutOfBoundsException | BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IOException("corrupt hit point file: " + path, e);
+        }
+    }
+
+    /**
+     * gets the name of the adventure the hit points belong to
+     * @return the name of the adventure
+     */
+    public String getAdventureName() {
+        return adventureName;
+    }
+
+    /**
+     * gets the fingerprint of the structure of the adventure the hit points belong to
+     * @return the fingerprint
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * gets the number of party members
+     * @return the number of party members
+     */
+    public int getParties() {
+        return parties;
+    }
+
+    /**
+     * gets the number of encounters
+     * @return the number of encounters
+     */
+    public int getEncounters() {
+        return monsters.length;
+    }
+
+    /**
+     * gets the number of monster slots of an encounter
+     * @param encounter_pos the encounter position
+     * @return the number of monster slots
+     */
+    public int getMonsters(int encounter_pos) {
+        return monsters[encounter_pos];
+    }
+
+    /**
+     * gets the hit points of a party member
+     * @param party_pos the party position
+     * @return the hit points
+     */
+    public int getPartyHitPoint(int party_pos) {
+        return map.getInt(partyOffset + party_pos * Integer.BYTES);
+    }
+
+    /**
+     * sets the hit points of a party member
+     * @param party_pos the party position
+     * @param hitPoint the hit points
+     */
+    public void setPartyHitPoint(int party_pos, int hitPoint) {
+        map.putInt(partyOffset + party_pos * Integer.BYTES, hitPoint);
+    }
+
+    /**
+     * gets the hit points of a monster slot
+     * @param encounter_pos the encounter position
+     * @param slot the monster slot in the encounter
+     * @return the hit points, REMOVED if the monster has been removed from the encounter
+     */
+    public int getMonsterHitPoints(int encounter_pos, int slot) {
+        return map.getInt(encounterOffsets[encounter_pos] + slot * Integer.BYTES);
+    }
+
+    /**
+     * sets the hit points of a monster slot
+     * @param encounter_pos the encounter position
+     * @param slot the monster slot in the encounter
+     * @param hitPoints the hit points, REMOVED if the monster has been removed from the encounter
+     */
+    public void setMonsterHitPoints(int encounter_pos, int slot, int hitPoints) {
+        map.putInt(encounterOffsets[encounter_pos] + slot * Integer.BYTES, hitPoints);
+    }
+
+    /**
+     * writes the hit points to the disk. they survive the process being killed without it, but not a power loss
+     */
+    public void force() {
+        map.force();
+    }
+
+    /**
+     * deletes the file. the hit points must not be used afterwards
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package persistence.Binary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+/**
+ * gzip-compressed file with what is needed to reproduce a run of the program: the seed of the dice, the data files as
+ * they were when the run started and every line the user entered. the layout is a magic number, the seed, the number
+ * of data files, the path, length and content of every file, and then the input lines one after the other until the end
+ * of the file. every line is flushed as soon as it is entered, so a run that crashes keeps the inputs that led to it
+ * @author Youssef Bat, Alvaro Feher
+ */
+public final class ReplayFile implements AutoCloseable {
+
+    /**
+     * "LSRP", first bytes of a replay file
+     */
+    private static final int MAGIC = 0x4C535250;
+
+    private final long seed;
+    private final Map<String, byte[]> files;
+    private final List<String> inputs;
+    private final DataOutputStream out;
+
+    /**
+     * constructor
+     * @param seed seed of the dice
+     * @param files content of the data files, by their path relative to the data directory
+     * @param inputs lines entered by the user
+     * @param out stream where new lines are written, null if the file is only read
+     */
+    private ReplayFile(long seed, Map<String, byte[]> files, List<String> inputs, DataOutputStream out) {
+        this.seed = seed;
+        this.files = files;
+        this.inputs = inputs;
+        this.out = out;
+    }
+
+    /**
+     * creates a replay file, replacing any previous one, to which the inputs of the run are then appended
+     * @param path path of the file
+     * @param seed seed of the dice
+     * @param files content of the data files, by their path relative to the data directory
+     * @return the replay file
+     * @throws IOException if the file can not be created
+     */
+    public static ReplayFile create(Path path, long seed, Map<String, byte[]> files) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        DataOutputStream out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(path)), true));
+        out.writeInt(MAGIC);
+        out.writeLong(seed);
+        out.writeInt(files.size());
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            out.writeUTF(file.getKey());
+            out.writeInt(file.getValue().length);
+            out.write(file.getValue());
+        }
+        out.flush();
+        return new ReplayFile(seed, files, new ArrayList<>(), out);
+    }
+
+    /**
+     * reads a replay file. a file whose run was interrupted is read up to its last complete input line
+     * @param path path of the file
+     * @return the replay file, which can not be appended to
+     * @throws IOException if the file can not be read or is not a replay file
+     */
+    public static ReplayFile open(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(Files.newInputStream(path))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a replay file: " + path);
+            }
+            long seed = in.readLong();
+            int count = in.readInt();
+            Map<String, byte[]> files = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                byte[] content = new byte[in.readInt()];
+                in.readFully(content);
+                files.put(name, content);
+            }
+            List<String> inputs = new ArrayList<>();
+            try {
+                while (true) {
+                    inputs.add(in.readUTF());
+                }
+            } catch (EOFException | ZipException e) {
+                // end of the inputs, or the run stopped before the file was closed
+            }
+            return new ReplayFile(seed, files, Collections.unmodifiableList(inputs), null);
+        }
+    }
+
+    /**
+     * appends a line entered by the user
+     * @param input the line
+     * @throws IOException if the line can not be written
+     */
+    public void append(String input) throws IOException {
+        out.writeUTF(input);
+        out.flush();
+        inputs.add(input);
+    }
+
+    /**
+     * gets the seed of the dice
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * gets the data files as they were when the run started
+     * @return the content of every file, by its path relative to the data directory
+     */
+    public Map<String, byte[]> getFiles() {
+        return files;
+    }
+
+    /**
+     * gets the lines entered by the user
+     * @return the lines, in the order they were entered
+     */
+    public List<String> getInputs() {
+        return inputs;
+    }
+
+    /**
+     * closes the file, if it was being written
+     * @throws IOException if the file can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+    }
+}
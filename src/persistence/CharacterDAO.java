@@ -3,6 +3,7 @@ package persistence;
 import business.entities.Character;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * interface of character json data access object
@@ -27,6 +28,14 @@ public interface CharacterDAO {
      */
     List<Character> getAll();
 
+    /**
+     * gets a list of all the characters without blocking the caller if the database is remote
+     * @return a future with a list of all the characters
+     */
+    default CompletableFuture<List<Character>> getAllAsync() {
+        return CompletableFuture.completedFuture(getAll());
+    }
+
     /**
      * gets a list of all the character that their player's name is a whole of str
      * @param str a substring of player's name
@@ -0,0 +1,85 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * directory holding the local data files. it is "data" unless the system property lsrpg.data names another one, which
+ * has to be set before the data is first accessed, since the data access objects resolve their paths once
+ * @author Youssef Bat, Alvaro Feher
+ */
+public final class DataDirectory {
+
+    /**
+     * name of the system property with the data directory
+     */
+    public static final String PROPERTY = "lsrpg.data";
+
+    /**
+     * utility class, not to be instantiated
+     */
+    private DataDirectory() {
+    }
+
+    /**
+     * gets the data directory
+     * @return the path of the data directory
+     */
+    public static Path get() {
+        return Paths.get(System.getProperty(PROPERTY, "data"));
+    }
+
+    /**
+     * gets the path of a file of the data directory
+     * @param file name of the file, relative to the data directory
+     * @return the path of the file, as a string
+     */
+    public static String resolve(String file) {
+        return get().resolve(file).toString();
+    }
+
+    /**
+     * reads all the files of the data directory, including the write-ahead logs and the subdirectories
+     * @return the content of every file, by its path relative to the data directory, an empty map if there is no directory
+     * @throws IOException if a file can not be read
+     */
+    public static Map<String, byte[]> snapshot() throws IOException {
+        Path directory = get();
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            paths = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            files.put(directory.relativize(path).toString().replace('\\', '/'), Files.readAllBytes(path));
+        }
+        return files;
+    }
+
+    /**
+     * writes the files of a snapshot into a directory
+     * @param files the content of every file, by its path relative to the directory
+     * @param directory the directory where the files are written
+     * @throws IOException if a file can not be written
+     */
+    public static void restore(Map<String, byte[]> files, Path directory) throws IOException {
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            Path path = directory.resolve(file.getKey()).normalize();
+            if (!path.startsWith(directory.normalize())) {
+                throw new IOException("File outside of the data directory: " + file.getKey());
+            }
+            Files.createDirectories(path.getParent());
+            Files.write(path, file.getValue());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package persistence.JSON;
+
+import business.entities.Adventure;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import persistence.AbstractAdventureDAO;
+import persistence.DataDirectory;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * adventure data access object that loads the adventure json file only once and keeps it in memory.
+ * every query is answered from memory, and every modification is written through to the file's write-ahead log.
+ * it is thread safe, so adventures can be written from a background thread while they are being read.
+ * @author Youssef Bat, Alvaro Feher
+ */
+public class AdventureCacheJsonDAO extends AbstractAdventureDAO {
+
+    private static final String path = DataDirectory.resolve("adventures.json");
+
+    private final Gson gson;
+    private final JsonLogStore store;
+    private final List<Adventure> adventures;
+    private final Map<String, Integer> indexByName;
+    private boolean loaded;
+
+    /**
+     * constructor where we create a new file in case of the file does not exist.
+     * the file itself is read on the first access
+     */
+    public AdventureCacheJsonDAO() {
+        super(new CharacterJsonDAO());
+        File file = new File(path);
+        if (!file.exists()) {
+            try {
+                file.createNewFile();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        gson = JsonSerialization.COMPACT;
+        store = JsonLogStore.open(path, "name");
+        adventures = new ArrayList<>();
+        indexByName = new HashMap<>();
+    }
+
+    /**
+     * reads the adventure file into memory if it was not read yet
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        List<JsonElement> list = store.values();
+        if (list != null) {
+            for (JsonElement adventure : list) {
+                index(gson.fromJson(adventure, Adventure.class));
+            }
+        }
+        loaded = true;
+    }
+
+    /**
+     * appends an adventure to the in memory model, keeping the name index up to date
+     * @param adventure adventure object
+     */
+    private void index(Adventure adventure) {
+        indexByName.putIfAbsent(adventure.getName(), adventures.size());
+        adventures.add(adventure);
+    }
+
+    /**
+     * writes an adventure of the in memory model to the adventure file
+     * @param adventure adventure object
+     */
+    private void save(Adventure adventure) {
+        store.put(gson.toJsonTree(adventure));
+    }
+
+    /**
+     * finds an adventure by its name
+     * @param name name of the adventure
+     * @return the adventure if exists, null otherwise
+     */
+    @Override
+    protected Adventure find(String name) {
+        load();
+        Integer i = indexByName.get(name);
+        if (i == null) {
+            return null;
+        }
+        return adventures.get(i);
+    }
+
+    /**
+     * add an adventure to the database
+     * @param adventure adventure object
+     * @return if the adventure is added or not
+     */
+    @Override
+    public synchronized int add(Adventure adventure) {
+        load();
+        index(adventure);
+        save(adventure);
+        return 0;
+    }
+
+    /**
+     * gets all the adventures
+     * @return list of adventure objects
+     */
+    @Override
+    public synchronized List<Adventure> getAll() {
+        load();
+        return new ArrayList<>(adventures);
+    }
+
+    /**
+     * updates an adventure by another adventure
+     * @param adventureToUpdate adventure object
+     */
+    @Override
+    public synchronized void update(Adventure adventureToUpdate) {
+        load();
+        boolean found = false;
+        for (int i = 0; i < adventures.size(); i++) {
+            if (Objects.equals(adventures.get(i).getName(), adventureToUpdate.getName())) {
+                adventures.set(i, adventureToUpdate);
+                found = true;
+            }
+        }
+        if (found) {
+            save(adventureToUpdate);
+        }
+    }
+
+    /**
+     * gets the name of the adventure if exists
+     * @param inx position of the adventure
+     * @return the name of the adventure if exists
+     */
+    @Override
+    public synchronized String getNameByIndex(int inx) {
+        load();
+        return adventures.get(inx).getName();
+    }
+
+    /**
+     * gets the number of adventures
+     * @return the number of adventures
+     */
+    @Override
+    public synchronized int getAdventuresSize() {
+        load();
+        return adventures.size();
+    }
+}
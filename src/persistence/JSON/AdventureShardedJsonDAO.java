@@ -0,0 +1,409 @@
+package persistence.JSON;
+
+import business.entities.Adventure;
+import business.entities.Monster;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import persistence.AbstractAdventureDAO;
+import persistence.DataDirectory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * adventure data access object that stores every adventure in its own json file under data/adventures, along with a
+ * small manifest listing the adventures in order. only the manifest is read up front, an adventure file is read the
+ * first time the adventure is asked for, and a modification rewrites the file of that adventure only, so the cost of
+ * an operation depends on the size of one adventure instead of the whole catalog.
+ * the adventures read are kept in a bounded cache, and every file is replaced atomically, so a crash leaves either the
+ * old or the new version of an adventure. the number of encounters and the monsters of an encounter of an adventure
+ * that is not in memory are read by streaming its file, without building the adventure.
+ * the layout is created from data/adventures.json with {@link #migrate(String, String)}
+ * @author Youssef Bat, Alvaro Feher
+ */
+public class AdventureShardedJsonDAO extends AbstractAdventureDAO {
+
+    private static final String directory = DataDirectory.resolve("adventures");
+    private static final String manifestName = "manifest.json";
+    private static final String extension = ".adventure.json";
+
+    /**
+     * maximum amount of adventures kept in memory, the least recently used ones are read again from their file
+     */
+    private static final int MAX_CACHED_ADVENTURES = 32;
+
+    private static final Type manifestType = new TypeToken<List<Shard>>() {}.getType();
+
+    private final Path root;
+    private final Gson gson;
+    private final Map<String, Adventure> cache;
+    private List<Shard> manifest;
+    private Map<String, Shard> shardByName;
+
+    /**
+     * entry of the manifest, the name of an adventure and the file holding it
+     */
+    private static class Shard {
+        private final String name;
+        private final String file;
+
+        /**
+         * constructor
+         * @param name name of the adventure
+         * @param file name of the file holding the adventure, relative to the directory of the manifest
+         */
+        Shard(String name, String file) {
+            this.name = name;
+            this.file = file;
+        }
+    }
+
+    /**
+     * constructor, using the default directory. the manifest is read on the first access
+     */
+    public AdventureShardedJsonDAO() {
+        this(directory);
+    }
+
+    /**
+     * constructor. the manifest is read on the first access
+     * @param directory directory holding the manifest and the adventure files
+     */
+    public AdventureShardedJsonDAO(String directory) {
+        super(new CharacterJsonDAO());
+        root = Paths.get(directory);
+        gson = JsonSerialization.PRETTY;
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Adventure> eldest) {
+                return size() > MAX_CACHED_ADVENTURES;
+            }
+        };
+    }
+
+    /**
+     * checks if the adventures have been migrated to the sharded layout in the default directory
+     * @return true if the manifest exists
+     */
+    public static boolean exists() {
+        return Files.exists(Paths.get(directory, manifestName));
+    }
+
+    /**
+     * reads the manifest if it was not read yet. a missing manifest is an empty catalog
+     */
+    private void load() {
+        if (manifest != null) {
+            return;
+        }
+        manifest = new ArrayList<>();
+        shardByName = new HashMap<>();
+        try (Reader reader = Files.newBufferedReader(root.resolve(manifestName), StandardCharsets.UTF_8)) {
+            List<Shard> shards = gson.fromJson(reader, manifestType);
+            if (shards != null) {
+                for (Shard shard : shards) {
+                    if (shardByName.putIfAbsent(shard.name, shard) == null) {
+                        manifest.add(shard);
+                    }
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // nothing has been stored yet
+        } catch (IOException | JsonParseException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * reads the file of an adventure
+     * @param shard manifest entry of the adventure
+     * @return the adventure, null if its file can not be read
+     */
+    private Adventure read(Shard shard) {
+        try (Reader reader = Files.newBufferedReader(root.resolve(shard.file), StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, Adventure.class);
+        } catch (IOException | JsonParseException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * writes the file of an adventure
+     * @param shard manifest entry of the adventure
+     * @param adventure adventure object
+     * @return true if the file is written
+     */
+    private boolean write(Shard shard, Adventure adventure) {
+        return JsonLogStore.writeAtomically(root.resolve(shard.file), adventure, gson);
+    }
+
+    /**
+     * writes the manifest
+     * @return true if the manifest is written
+     */
+    private boolean writeManifest() {
+        return JsonLogStore.writeAtomically(root.resolve(manifestName), manifest, gson);
+    }
+
+    /**
+     * finds an adventure by its name, reading its file if it is not in memory
+     * @param name name of the adventure
+     * @return the adventure if exists, null otherwise
+     */
+    @Override
+    protected Adventure find(String name) {
+        load();
+        Adventure adventure = cache.get(name);
+        if (adventure != null) {
+            return adventure;
+        }
+        Shard shard = shardByName.get(name);
+        if (shard == null) {
+            return null;
+        }
+        adventure = read(shard);
+        if (adventure != null) {
+            cache.put(name, adventure);
+        }
+        return adventure;
+    }
+
+    /**
+     * gets the manifest entry of an adventure that is not in memory
+     * @param name name of the adventure
+     * @return the manifest entry, null if the adventure is in memory or does not exist
+     */
+    private Shard uncached(String name) {
+        load();
+        return cache.containsKey(name) ? null : shardByName.get(name);
+    }
+
+    /**
+     * gets the number of encounters of the adventure if exists. if it is not in memory, its file is read only up to
+     * the number of encounters
+     * @param currentAdventure name of the adventure
+     * @return the number of encounters of the adventure if exists
+     */
+    @Override
+    public synchronized int getNumOfEncountersByName(String currentAdventure) {
+        Shard shard = uncached(currentAdventure);
+        if (shard == null) {
+            return super.getNumOfEncountersByName(currentAdventure);
+        }
+        try {
+            return JsonStreams.read(root.resolve(shard.file).toString(), "num_encounters", JsonReader::nextInt, Integer.MIN_VALUE);
+        } catch (IOException | IllegalStateException e) {
+            e.printStackTrace();
+            return Integer.MIN_VALUE;
+        }
+    }
+
+    /**
+     * gets all the names of monsters in an encounter of the adventure if exists. if it is not in memory, only that
+     * encounter is built from its file
+     * @param i position of the encounter
+     * @param currentAdventure name of the adventure
+     * @return all the names of monsters in an encounter of the adventure if exists
+     */
+    @Override
+    public synchronized List<String> getMonstersInEncounter(int i, String currentAdventure) {
+        Shard shard = uncached(currentAdventure);
+        if (shard == null) {
+            return super.getMonstersInEncounter(i, currentAdventure);
+        }
+        List<String> monsters = new ArrayList<>();
+        try {
+            List<Monster> encounter = JsonStreams.read(root.resolve(shard.file).toString(), "encounters", reader -> {
+                if (!JsonStreams.skipTo(reader, i)) {
+                    throw new IndexOutOfBoundsException("Index " + i + " out of bounds for the encounters of " + currentAdventure);
+                }
+                return gson.<List<Monster>>fromJson(reader, JsonSerialization.MONSTER_LIST);
+            }, null);
+            if (encounter != null) {
+                for (Monster monster : encounter) {
+                    monsters.add(monster.getName());
+                }
+            }
+        } catch (IOException | IllegalStateException | JsonParseException e) {
+            e.printStackTrace();
+        }
+        return monsters;
+    }
+
+    /**
+     * add an adventure to the database. an adventure with the same name as an existing one replaces it
+     * @param adventure adventure object
+     * @return if the adventure is added or not
+     */
+    @Override
+    public synchronized int add(Adventure adventure) {
+        load();
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return -1;
+        }
+        Shard shard = shardByName.get(adventure.getName());
+        boolean added = shard == null;
+        if (added) {
+            shard = new Shard(adventure.getName(), fileOf(adventure.getName(), shardByName.values()));
+        }
+        // the adventure file is written before the manifest, so the manifest never points to a missing file
+        if (!write(shard, adventure)) {
+            return -1;
+        }
+        if (added) {
+            manifest.add(shard);
+            shardByName.put(shard.name, shard);
+            if (!writeManifest()) {
+                manifest.remove(manifest.size() - 1);
+                shardByName.remove(shard.name);
+                return -1;
+            }
+        }
+        cache.put(adventure.getName(), adventure);
+        return 0;
+    }
+
+    /**
+     * gets all the adventures, reading the files of the ones that are not in memory
+     * @return list of adventure objects
+     */
+    @Override
+    public synchronized List<Adventure> getAll() {
+        load();
+        List<Adventure> adventures = new ArrayList<>();
+        for (Shard shard : manifest) {
+            Adventure adventure = find(shard.name);
+            if (adventure != null) {
+                adventures.add(adventure);
+            }
+        }
+        return adventures;
+    }
+
+    /**
+     * updates an adventure by another adventure, rewriting the file of that adventure only
+     * @param adventureToUpdate adventure object
+     */
+    @Override
+    public synchronized void update(Adventure adventureToUpdate) {
+        load();
+        Shard shard = shardByName.get(adventureToUpdate.getName());
+        if (shard != null && write(shard, adventureToUpdate)) {
+            cache.put(shard.name, adventureToUpdate);
+        }
+    }
+
+    /**
+     * gets the name of the adventure if exists, from the manifest
+     * @param inx position of the adventure
+     * @return the name of the adventure if exists
+     */
+    @Override
+    public synchronized String getNameByIndex(int inx) {
+        load();
+        return manifest.get(inx).name;
+    }
+
+    /**
+     * gets the number of adventures, from the manifest
+     * @return the number of adventures
+     */
+    @Override
+    public synchronized int getAdventuresSize() {
+        load();
+        return manifest.size();
+    }
+
+    /**
+     * gets the name of the file of a new adventure, made of the letters and digits of its name
+     * @param name name of the adventure
+     * @param shards the adventures already stored, whose files can not be used
+     * @return the name of the file
+     */
+    private static String fileOf(String name, Iterable<Shard> shards) {
+        String base = name == null ? "" : name.replaceAll("[^A-Za-z0-9_-]", "_");
+        if (base.isEmpty()) {
+            base = "adventure";
+        }
+        Set<String> used = new HashSet<>();
+        for (Shard shard : shards) {
+            used.add(shard.file.toLowerCase());
+        }
+        String file = base + extension;
+        for (int i = 2; used.contains(file.toLowerCase()); i++) {
+            file = base + "_" + i + extension;
+        }
+        return file;
+    }
+
+    /**
+     * copies the adventures of a json file, along with its write-ahead log, to the sharded layout. adventures already
+     * in the sharded layout are replaced, and when a name is repeated in the file only its first adventure is copied
+     * @param source path of the adventure json file
+     * @param target directory of the sharded layout
+     * @return the amount of adventures copied, -1 if the file can not be read
+     */
+    public static int migrate(String source, String target) {
+        List<JsonElement> values = JsonLogStore.open(source, "name").values();
+        if (values == null) {
+            return -1;
+        }
+        AdventureShardedJsonDAO sharded = new AdventureShardedJsonDAO(target);
+        Set<String> copied = new HashSet<>();
+        for (JsonElement value : values) {
+            Adventure adventure = JsonSerialization.COMPACT.fromJson(value, Adventure.class);
+            if (copied.add(adventure.getName()) && sharded.add(adventure) != 0) {
+                return -1;
+            }
+        }
+        // an empty catalog still gets its manifest, so the sharded layout is used from now on
+        if (copied.isEmpty()) {
+            sharded.load();
+            try {
+                Files.createDirectories(sharded.root);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return -1;
+            }
+            if (!sharded.writeManifest()) {
+                return -1;
+            }
+        }
+        return copied.size();
+    }
+
+    /**
+     * migration tool, copying data/adventures.json to data/adventures
+     * @param args optionally, the path of the adventure json file and the directory of the sharded layout
+     */
+    public static void main(String[] args) {
+        String source = args.length > 0 ? args[0] : "data/adventures.json";
+        String target = args.length > 1 ? args[1] : directory;
+        int copied = migrate(source, target);
+        if (copied < 0) {
+            System.out.println("The adventures could not be migrated.");
+        } else {
+            System.out.println(copied + " adventures migrated to " + target + ".");
+        }
+    }
+}
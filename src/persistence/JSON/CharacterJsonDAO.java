@@ -1,26 +1,26 @@
 package persistence.JSON;
 
 import business.entities.Character;
-import business.entities.Classes.*;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
-import com.google.gson.stream.JsonReader;
+import com.google.gson.JsonElement;
 import persistence.CharacterDAO;
+import persistence.DataDirectory;
 
 import java.io.*;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 /**
- * gets, adds or modifies data from the character json file
+ * gets, adds or modifies data from the character json file. modifications are appended to the file's write-ahead log
  * @author Youssef Bat, Alvaro Feher
  */
 
 public class CharacterJsonDAO implements CharacterDAO {
-    private static final String path = "data/characters.json";
+    private static final String path = DataDirectory.resolve("characters.json");
+
+    private final Gson gson = JsonSerialization.COMPACT;
+    private final JsonLogStore store;
 
     /**
      * default constructor
@@ -34,6 +34,23 @@ public class CharacterJsonDAO implements CharacterDAO {
                 e.printStackTrace();
             }
         }
+        store = JsonLogStore.open(path, "name");
+    }
+
+    /**
+     * reads all the characters of the file, including the modifications in the write-ahead log
+     * @return a list of all the characters, null if the file can't be read
+     */
+    private List<Character> readAll() {
+        List<JsonElement> values = store.values();
+        if (values == null) {
+            return null;
+        }
+        List<Character> list = new ArrayList<>();
+        for (JsonElement value : values) {
+            list.add(gson.fromJson(value, Character.class));
+        }
+        return list;
     }
 
     /**
@@ -43,27 +60,15 @@ public class CharacterJsonDAO implements CharacterDAO {
      */
     @Override
     public int add(Character character) {
-        try {
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            JsonReader reader = new JsonReader(new FileReader(path));
-            Type type = new TypeToken<List<Character>>() {}.getType();
-            List<Character> list = gson.fromJson(reader, type);
-            reader.close();
-            if (list == null) {
-                list = new ArrayList<>();
-            }
+        List<Character> list = readAll();
+        if (list != null) {
             for (Character value : list) {
                 if (Objects.equals(value.getName(), character.getName())) {
                     return 0;
                 }
             }
-            list.add(character);
-            FileWriter writer = new FileWriter(path);
-            writer.write(gson.toJson(list));
-            writer.close();
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+        store.put(gson.toJsonTree(character));
         return 1;
     }
 
@@ -73,25 +78,7 @@ public class CharacterJsonDAO implements CharacterDAO {
      */
     @Override
     public void delete(String str) {
-        try {
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            JsonReader reader = new JsonReader(new FileReader(path));
-            Type type = new TypeToken<List<Character>>() {}.getType();
-            List<Character> list = gson.fromJson(reader, type);
-            reader.close();
-            int index = -1;
-            for (int i=0;i< list.size();i++) {
-                if (Objects.equals(list.get(i).getName(), str)) {
-                    index = i;
-                }
-            }
-            list.remove(index);
-            FileWriter writer = new FileWriter(path);
-            writer.write(gson.toJson(list));
-            writer.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        store.delete(str);
     }
 
     /**
@@ -100,18 +87,7 @@ public class CharacterJsonDAO implements CharacterDAO {
      */
     @Override
     public List<Character> getAll() {
-        JsonReader reader = null;
-        List<Character> list;
-        try {
-            reader = new JsonReader(new FileReader(path));
-            list = new Gson().fromJson(reader, new TypeToken<List<Character>>() {}.getType());
-            if (list == null) {
-                list = new ArrayList<>();
-            }
-        } catch (FileNotFoundException e) {
-            return null;
-        }
-        return list;
+        return readAll();
     }
 
     /**
@@ -121,16 +97,9 @@ public class CharacterJsonDAO implements CharacterDAO {
      */
     @Override
     public List<Character> getCharactersByPart(String str) {
-        JsonReader reader = null;
-        List<Character> list;
         List<Character> names = new ArrayList<>();
-        try {
-            reader = new JsonReader(new FileReader(path));
-            list = new Gson().fromJson(reader, new TypeToken<List<Character>>() {}.getType());
-            if (list == null) {
-                return null;
-            }
-        } catch (FileNotFoundException e) {
+        List<Character> list = readAll();
+        if (list == null) {
             return null;
         }
         for (Character character : list) {
@@ -150,16 +119,9 @@ public class CharacterJsonDAO implements CharacterDAO {
      */
     @Override
     public List<String> getCharactersNames() {
-        JsonReader reader;
-        List<Character> list;
         List<String> names = new ArrayList<>();
-        try {
-            reader = new JsonReader(new FileReader(path));
-            list = new Gson().fromJson(reader, new TypeToken<List<Character>>() {}.getType());
-            if (list == null) {
-                list = new ArrayList<>();
-            }
-        } catch (FileNotFoundException e) {
+        List<Character> list = readAll();
+        if (list == null) {
             return null;
         }
         for (Character character : list) {
@@ -175,16 +137,9 @@ public class CharacterJsonDAO implements CharacterDAO {
      */
     @Override
     public List<Character> getCharactersByIndexes(int[] parties_inx) {
-        JsonReader reader = null;
-        List<Character> list;
         List<Character> characterList = new ArrayList<>();
-        try {
-            reader = new JsonReader(new FileReader(path));
-            list = new Gson().fromJson(reader, new TypeToken<List<Character>>() {}.getType());
-            if (list == null) {
-                return null;
-            }
-        } catch (FileNotFoundException e) {
+        List<Character> list = readAll();
+        if (list == null) {
             return null;
         }
         for (int partiesInx : parties_inx) {
@@ -199,14 +154,11 @@ public class CharacterJsonDAO implements CharacterDAO {
      */
     @Override
     public void update(List<Character> new_characterList) {
-        try {
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            FileWriter writer = new FileWriter(path);
-            writer.write(gson.toJson(new_characterList));
-            writer.close();
-        } catch (IOException e) {
-            e.printStackTrace();
+        List<JsonElement> values = new ArrayList<>();
+        for (Character character : new_characterList) {
+            values.add(gson.toJsonTree(character));
         }
+        store.replaceAll(values);
     }
 
     /**
@@ -216,15 +168,8 @@ public class CharacterJsonDAO implements CharacterDAO {
      */
     @Override
     public int getCharactersSpiritByName(String partyName) {
-        JsonReader reader = null;
-        List<Character> list;
-        try {
-            reader = new JsonReader(new FileReader(path));
-            list = new Gson().fromJson(reader, new TypeToken<List<Character>>() {}.getType());
-            if (list == null) {
-                return Integer.MIN_VALUE;
-            }
-        } catch (FileNotFoundException e) {
+        List<Character> list = readAll();
+        if (list == null) {
             return Integer.MIN_VALUE;
         }
         for (Character character : list) {
@@ -248,21 +193,7 @@ public class CharacterJsonDAO implements CharacterDAO {
      * @return new instance of character depending on its class
      */
     public Character assignClass(String name, String player, int xp, int body, int mind, int spirit, String charClass, int shield){
-        switch(charClass){
-            case "Adventurer":
-                return  new Adventurer(name, player, xp, body, mind, spirit, charClass);
-            case "Warrior":
-                return  new Warrior( name, player, xp, body, mind, spirit, charClass);
-            case "Champion":
-                return  new Champion(name, player, xp, body, mind, spirit, charClass);
-            case "Cleric":
-                return  new Cleric(name, player, xp, body, mind, spirit, charClass);
-            case "Paladin":
-                return  new Paladin(name, player, xp, body, mind, spirit, charClass);
-            case "Wizard":
-                return  new Wizard(name, player, xp, body, mind, spirit, charClass,shield);
-        }
-        return null;
+        return JsonSerialization.newCharacter(name, player, xp, body, mind, spirit, charClass, shield);
     }
 
 }
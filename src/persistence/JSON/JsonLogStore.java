@@ -0,0 +1,451 @@
+package persistence.JSON;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * storage engine of a json file holding an array of objects identified by a key member (such as "name").
+ * the json file is a snapshot, and every modification is appended to a write-ahead log next to it, so a modification
+ * costs as much as the modified object instead of the whole file. the log is written on every modification, so it
+ * survives the process being killed, and it is synced to the disk in groups. when the log grows, it is compacted into
+ * a new snapshot which atomically replaces the old one. on load, the log is replayed on top of the snapshot,
+ * discarding any record torn by a crash.
+ * there is a single store per file, shared by all the data access objects of the file
+ * @author Youssef Bat, Alvaro Feher
+ */
+final class JsonLogStore {
+
+    /**
+     * the log is synced to the disk once this amount of records have been appended since the last sync
+     */
+    private static final int GROUP_SYNC_RECORDS = 16;
+    /**
+     * the log is synced to the disk if this amount of milliseconds have passed since the last sync
+     */
+    private static final long GROUP_SYNC_MILLIS = 200;
+    /**
+     * the log is compacted into a new snapshot once it holds this amount of records
+     */
+    private static final int COMPACTION_RECORDS = 128;
+
+    private static final Map<Path, JsonLogStore> stores = new HashMap<>();
+
+    private final Path snapshot;
+    private final Path log;
+    private final String keyMember;
+    private final Gson gson;
+    private List<JsonElement> values;
+    private FileChannel channel;
+    private int logRecords;
+    private int unsyncedRecords;
+    private long lastSync;
+
+    /**
+     * constructor
+     * @param snapshot path of the json file
+     * @param keyMember name of the member identifying each object
+     */
+    private JsonLogStore(Path snapshot, String keyMember) {
+        this.snapshot = snapshot;
+        this.log = Paths.get(snapshot + ".wal");
+        this.keyMember = keyMember;
+        this.gson = JsonSerialization.PRETTY;
+    }
+
+    /**
+     * gets the store of a json file, creating it the first time
+     * @param path path of the json file
+     * @param keyMember name of the member identifying each object
+     * @return the store of the file
+     */
+    static JsonLogStore open(String path, String keyMember) {
+        Path snapshot = Paths.get(path).toAbsolutePath().normalize();
+        synchronized (stores) {
+            if (stores.isEmpty()) {
+                Runtime.getRuntime().addShutdownHook(new Thread(JsonLogStore::syncAll));
+            }
+            return stores.computeIfAbsent(snapshot, p -> new JsonLogStore(p, keyMember));
+        }
+    }
+
+    /**
+     * syncs the logs of all the stores to the disk
+     */
+    static void syncAll() {
+        List<JsonLogStore> all;
+        synchronized (stores) {
+            all = new ArrayList<>(stores.values());
+        }
+        for (JsonLogStore store : all) {
+            store.sync();
+        }
+    }
+
+    /**
+     * gets all the objects of the file, in order
+     * @return a copy of the list of objects, null if the file could not be read
+     */
+    synchronized List<JsonElement> values() {
+        if (!load()) {
+            return null;
+        }
+        return new ArrayList<>(values);
+    }
+
+    /**
+     * replaces the objects with the key of the given object, or adds the object at the end if there is none
+     * @param value the object
+     */
+    synchronized void put(JsonElement value) {
+        if (!load()) {
+            return;
+        }
+        String key = keyOf(value);
+        apply("put", key, value);
+        JsonObject record = new JsonObject();
+        record.addProperty("op", "put");
+        record.addProperty("key", key);
+        record.add("value", value);
+        append(record);
+    }
+
+    /**
+     * removes the objects with the given key
+     * @param key the key
+     */
+    synchronized void delete(String key) {
+        if (!load()) {
+            return;
+        }
+        apply("delete", key, null);
+        JsonObject record = new JsonObject();
+        record.addProperty("op", "delete");
+        record.addProperty("key", key);
+        append(record);
+    }
+
+    /**
+     * replaces all the objects of the file, writing only the ones that have changed
+     * @param newValues the new objects, in order
+     */
+    synchronized void replaceAll(List<JsonElement> newValues) {
+        if (!load()) {
+            return;
+        }
+        List<String> newKeys = new ArrayList<>();
+        for (JsonElement value : newValues) {
+            newKeys.add(keyOf(value));
+        }
+        List<String> oldKeys = new ArrayList<>();
+        for (JsonElement value : values) {
+            oldKeys.add(keyOf(value));
+        }
+        // the order the objects would have after deleting the missing ones and adding the new ones at the end
+        List<String> expectedKeys = new ArrayList<>(oldKeys);
+        expectedKeys.retainAll(newKeys);
+        for (String key : newKeys) {
+            if (!oldKeys.contains(key)) {
+                expectedKeys.add(key);
+            }
+        }
+        boolean unique = newKeys.stream().distinct().count() == newKeys.size() && oldKeys.stream().distinct().count() == oldKeys.size();
+        if (!unique || !expectedKeys.equals(newKeys)) {
+            // the objects have been reordered, so the whole array is written
+            JsonArray all = new JsonArray();
+            newValues.forEach(all::add);
+            values = new ArrayList<>(newValues);
+            JsonObject record = new JsonObject();
+            record.addProperty("op", "reset");
+            record.add("values", all);
+            append(record);
+            return;
+        }
+        for (String key : oldKeys) {
+            if (!newKeys.contains(key)) {
+                delete(key);
+            }
+        }
+        for (JsonElement value : newValues) {
+            int i = indexOf(keyOf(value));
+            if (i < 0 || !values.get(i).equals(value)) {
+                put(value);
+            }
+        }
+    }
+
+    /**
+     * syncs the log to the disk
+     */
+    synchronized void sync() {
+        if (channel == null || unsyncedRecords == 0) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        unsyncedRecords = 0;
+        lastSync = System.currentTimeMillis();
+    }
+
+    /**
+     * writes all the objects to a new snapshot, which atomically replaces the old one, and empties the log
+     */
+    synchronized void compact() {
+        if (!load()) {
+            return;
+        }
+        if (!writeAtomically(snapshot, values, gson)) {
+            return;
+        }
+        try {
+            // if the process dies before this point, the log is replayed on the new snapshot, which is harmless
+            channel.truncate(0);
+            channel.force(false);
+            logRecords = 0;
+            unsyncedRecords = 0;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * reads the snapshot and replays the log on top of it, the first time the store is used
+     * @return true if the store is loaded
+     */
+    private boolean load() {
+        if (values != null) {
+            return true;
+        }
+        List<JsonElement> loaded = new ArrayList<>();
+        try {
+            if (Files.exists(snapshot) && Files.size(snapshot) > 0) {
+                try (BufferedReader reader = Files.newBufferedReader(snapshot, StandardCharsets.UTF_8)) {
+                    JsonElement all = JsonParser.parseReader(reader);
+                    if (all.isJsonArray()) {
+                        all.getAsJsonArray().forEach(loaded::add);
+                    }
+                }
+            }
+            values = loaded;
+            channel = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            replay();
+            lastSync = System.currentTimeMillis();
+            return true;
+        } catch (IOException | JsonParseException e) {
+            e.printStackTrace();
+            values = null;
+            return false;
+        }
+    }
+
+    /**
+     * applies the records of the log to the objects read from the snapshot. the log is cut at the first record
+     * that is incomplete or corrupted, and the next records are appended from there
+     * @throws IOException if the log can not be read
+     */
+    private void replay() throws IOException {
+        long valid = 0;
+        channel.position(0);
+        InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        long offset = 0;
+        int b;
+        while ((b = in.read()) != -1) {
+            offset++;
+            if (b != '\n') {
+                line.write(b);
+                continue;
+            }
+            JsonObject record = decode(line.toString(StandardCharsets.UTF_8));
+            line.reset();
+            if (record == null) {
+                break;
+            }
+            String op = record.get("op").getAsString();
+            if (op.equals("reset")) {
+                values = new ArrayList<>();
+                record.getAsJsonArray("values").forEach(values::add);
+            } else {
+                apply(op, record.get("key").getAsString(), record.get("value"));
+            }
+            logRecords++;
+            valid = offset;
+        }
+        if (valid < channel.size()) {
+            channel.truncate(valid);
+        }
+        channel.position(valid);
+    }
+
+    /**
+     * applies a modification to the objects in memory
+     * @param op "put" or "delete"
+     * @param key the key of the modified objects
+     * @param value the new object of a put, null for a delete
+     */
+    private void apply(String op, String key, JsonElement value) {
+        boolean found = false;
+        for (int i = values.size() - 1; i >= 0; i--) {
+            if (key.equals(keyOf(values.get(i)))) {
+                found = true;
+                if (op.equals("put")) {
+                    values.set(i, value);
+                } else {
+                    values.remove(i);
+                }
+            }
+        }
+        if (!found && op.equals("put")) {
+            values.add(value);
+        }
+    }
+
+    /**
+     * appends a record to the log, syncing the log or compacting it when needed
+     * @param record the record
+     */
+    private void append(JsonObject record) {
+        String json = record.toString();
+        CRC32 crc = new CRC32();
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        crc.update(bytes);
+        ByteBuffer buffer = ByteBuffer.wrap((Long.toHexString(crc.getValue()) + "\t" + json + "\n").getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        logRecords++;
+        unsyncedRecords++;
+        if (logRecords >= COMPACTION_RECORDS) {
+            compact();
+        } else if (unsyncedRecords >= GROUP_SYNC_RECORDS || System.currentTimeMillis() - lastSync >= GROUP_SYNC_MILLIS) {
+            sync();
+        }
+    }
+
+    /**
+     * decodes a line of the log, checking its checksum
+     * @param line the line, without the line break
+     * @return the record, null if the line is corrupted
+     */
+    private static JsonObject decode(String line) {
+        int tab = line.indexOf('\t');
+        if (tab < 0) {
+            return null;
+        }
+        String json = line.substring(tab + 1);
+        CRC32 crc = new CRC32();
+        crc.update(json.getBytes(StandardCharsets.UTF_8));
+        if (!Long.toHexString(crc.getValue()).equals(line.substring(0, tab))) {
+            return null;
+        }
+        try {
+            return JsonParser.parseString(json).getAsJsonObject();
+        } catch (JsonParseException | IllegalStateException e) {
+            return null;
+        }
+    }
+
+    /**
+     * gets the key of an object
+     * @param value the object
+     * @return the value of its key member, an empty string if it has none
+     */
+    private String keyOf(JsonElement value) {
+        JsonElement key = value.isJsonObject() ? value.getAsJsonObject().get(keyMember) : null;
+        return key == null || key.isJsonNull() ? "" : key.getAsString();
+    }
+
+    /**
+     * gets the position of the first object with a key
+     * @param key the key
+     * @return the position, -1 if there is no object with the key
+     */
+    private int indexOf(String key) {
+        for (int i = 0; i < values.size(); i++) {
+            if (key.equals(keyOf(values.get(i)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * writes a json value to a temporary file next to the target, syncs it, and renames it over the target,
+     * so the target holds either its old content or the new one, never a mix of both
+     * @param target file to write
+     * @param value value to write
+     * @param gson gson used to write the value
+     * @return true if the file is written
+     */
+    static boolean writeAtomically(Path target, Object value, Gson gson) {
+        Path tmp = Paths.get(target + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp.toFile());
+             Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            gson.toJson(value, writer);
+            writer.flush();
+            out.getFD().sync();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        try {
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        syncDirectory(target.toAbsolutePath().getParent());
+        return true;
+    }
+
+    /**
+     * syncs a directory, so the renames in it survive a power loss. not every system allows it
+     * @param directory the directory
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // the rename is still atomic, only its durability is left to the system
+        }
+    }
+}
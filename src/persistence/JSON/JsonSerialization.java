@@ -0,0 +1,444 @@
+package persistence.JSON;
+
+import business.entities.Adventure;
+import business.entities.Character;
+import business.entities.Classes.*;
+import business.entities.Monster;
+import business.entities.Party;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * the serialization of the entities to json, shared by every data access object.
+ * there is one gson per format, built once with a hand-written type adapter for every entity, so gson never binds the
+ * entities by reflection. gson instances are thread safe, so they are shared by every thread.
+ * the json written is the same as the one gson writes by reflection, with the key member "name" first, so the files
+ * written before keep being read, and the other way around
+ * @author Youssef Bat, Alvaro Feher
+ */
+public final class JsonSerialization {
+
+    /**
+     * type of a list of adventures
+     */
+    public static final Type ADVENTURE_LIST = new TypeToken<List<Adventure>>() {}.getType();
+    /**
+     * type of a list of characters
+     */
+    public static final Type CHARACTER_LIST = new TypeToken<List<Character>>() {}.getType();
+    /**
+     * type of a list of monsters, such as an encounter
+     */
+    public static final Type MONSTER_LIST = new TypeToken<List<Monster>>() {}.getType();
+    /**
+     * type of a list of party members
+     */
+    public static final Type PARTY_LIST = new TypeToken<List<Party>>() {}.getType();
+
+    private static final MonsterAdapter monsterAdapter = new MonsterAdapter();
+    private static final CharacterAdapter characterAdapter = new CharacterAdapter();
+    private static final PartyAdapter partyAdapter = new PartyAdapter();
+    private static final AdventureAdapter adventureAdapter = new AdventureAdapter();
+
+    /**
+     * gson writing indented json, used for the data files
+     */
+    public static final Gson PRETTY = builder().setPrettyPrinting().create();
+    /**
+     * gson writing json on a single line, used for the api and the write-ahead logs
+     */
+    public static final Gson COMPACT = builder().create();
+
+    /**
+     * utility class, not to be instantiated
+     */
+    private JsonSerialization() {
+    }
+
+    /**
+     * creates a gson builder with the type adapters of the entities
+     * @return the gson builder
+     */
+    private static GsonBuilder builder() {
+        return new GsonBuilder()
+                .registerTypeAdapter(Monster.class, monsterAdapter.nullSafe())
+                .registerTypeHierarchyAdapter(Character.class, characterAdapter.nullSafe())
+                .registerTypeAdapter(Party.class, partyAdapter.nullSafe())
+                .registerTypeAdapter(Adventure.class, adventureAdapter.nullSafe());
+    }
+
+    /**
+     * creates a character of the class given by its class name
+     * @param name character's name
+     * @param player player who created the character
+     * @param xp character's xp
+     * @param body character's body
+     * @param mind character's mind
+     * @param spirit character's spirit
+     * @param charClass character's class
+     * @param shield wizard's shield
+     * @return new instance of character depending on its class, null if the class is unknown
+     */
+    public static Character newCharacter(String name, String player, int xp, int body, int mind, int spirit, String charClass, int shield) {
+        if (charClass == null) {
+            return null;
+        }
+        switch (charClass) {
+            case "Adventurer":
+                return new Adventurer(name, player, xp, body, mind, spirit, charClass);
+            case "Warrior":
+                return new Warrior(name, player, xp, body, mind, spirit, charClass);
+            case "Champion":
+                return new Champion(name, player, xp, body, mind, spirit, charClass);
+            case "Cleric":
+                return new Cleric(name, player, xp, body, mind, spirit, charClass);
+            case "Paladin":
+                return new Paladin(name, player, xp, body, mind, spirit, charClass);
+            case "Wizard":
+                return new Wizard(name, player, xp, body, mind, spirit, charClass, shield);
+        }
+        return null;
+    }
+
+    /**
+     * writes a string member, leaving it out if it is null as gson does
+     * @param writer json writer
+     * @param name name of the member
+     * @param value value of the member
+     * @throws IOException if it can not be written
+     */
+    private static void writeString(JsonWriter writer, String name, String value) throws IOException {
+        if (value != null) {
+            writer.name(name).value(value);
+        }
+    }
+
+    /**
+     * reads a string value
+     * @param reader json reader positioned on the value
+     * @return the value, null if it is null
+     * @throws IOException if it can not be read
+     */
+    private static String readString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    /**
+     * reads an integer value
+     * @param reader json reader positioned on the value
+     * @return the value, 0 if it is null
+     * @throws IOException if it can not be read
+     */
+    private static int readInt(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return 0;
+        }
+        return reader.nextInt();
+    }
+
+    /**
+     * writes a list with the adapter of its elements
+     * @param writer json writer
+     * @param list the list
+     * @param adapter adapter of the elements
+     * @param <T> type of the elements
+     * @throws IOException if it can not be written
+     */
+    private static <T> void writeList(JsonWriter writer, List<T> list, TypeAdapter<T> adapter) throws IOException {
+        writer.beginArray();
+        for (T value : list) {
+            if (value == null) {
+                writer.nullValue();
+            } else {
+                adapter.write(writer, value);
+            }
+        }
+        writer.endArray();
+    }
+
+    /**
+     * reads a list with the adapter of its elements
+     * @param reader json reader positioned on the list
+     * @param adapter adapter of the elements
+     * @param <T> type of the elements
+     * @return the list, null if it is null
+     * @throws IOException if it can not be read
+     */
+    private static <T> List<T> readList(JsonReader reader, TypeAdapter<T> adapter) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        List<T> list = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                list.add(null);
+            } else {
+                list.add(adapter.read(reader));
+            }
+        }
+        reader.endArray();
+        return list;
+    }
+
+    /**
+     * type adapter of the monsters
+     */
+    private static final class MonsterAdapter extends TypeAdapter<Monster> {
+
+        @Override
+        public void write(JsonWriter writer, Monster monster) throws IOException {
+            writer.beginObject();
+            writeString(writer, "name", monster.getName());
+            writeString(writer, "challenge", monster.getChallenge());
+            writer.name("experience").value(monster.getExperience());
+            writer.name("hitPoints").value(monster.getHitPoints());
+            writer.name("initiative").value(monster.getInitiative());
+            writeString(writer, "damageDice", monster.getDamageDiceNotation());
+            writeString(writer, "damageType", monster.getDamageType());
+            writer.endObject();
+        }
+
+        @Override
+        public Monster read(JsonReader reader) throws IOException {
+            String name = null;
+            String challenge = null;
+            int experience = 0;
+            int hitPoints = 0;
+            int initiative = 0;
+            String damageDice = null;
+            String damageType = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "name":
+                        name = readString(reader);
+                        break;
+                    case "challenge":
+                        challenge = readString(reader);
+                        break;
+                    case "experience":
+                        experience = readInt(reader);
+                        break;
+                    case "hitPoints":
+                        hitPoints = readInt(reader);
+                        break;
+                    case "initiative":
+                        initiative = readInt(reader);
+                        break;
+                    case "damageDice":
+                        damageDice = readString(reader);
+                        break;
+                    case "damageType":
+                        damageType = readString(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return new Monster(name, challenge, experience, hitPoints, initiative, damageDice, damageType);
+        }
+    }
+
+    /**
+     * type adapter of the characters, of every class. the character is read as the subclass named by its "charClass"
+     * member (or "class", as in the api), or as a plain character if the class is unknown
+     */
+    private static final class CharacterAdapter extends TypeAdapter<Character> {
+
+        @Override
+        public void write(JsonWriter writer, Character character) throws IOException {
+            writer.beginObject();
+            writeString(writer, "name", character.getName());
+            writeString(writer, "player", character.getPlayer());
+            writer.name("xp").value(character.getXp());
+            writer.name("body").value(character.getBody());
+            writer.name("mind").value(character.getMind());
+            writer.name("spirit").value(character.getSpirit());
+            writeString(writer, "charClass", character.getCharClass());
+            if (character instanceof Wizard) {
+                writer.name("shield").value(character.getShield());
+            } else if (character instanceof Paladin) {
+                writer.name("testPrepStage").value(character.getTestPrepStage());
+            }
+            writer.endObject();
+        }
+
+        @Override
+        public Character read(JsonReader reader) throws IOException {
+            String name = null;
+            String player = null;
+            int xp = 0;
+            int body = 0;
+            int mind = 0;
+            int spirit = 0;
+            String charClass = null;
+            int shield = 0;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "name":
+                        name = readString(reader);
+                        break;
+                    case "player":
+                        player = readString(reader);
+                        break;
+                    case "xp":
+                        xp = readInt(reader);
+                        break;
+                    case "body":
+                        body = readInt(reader);
+                        break;
+                    case "mind":
+                        mind = readInt(reader);
+                        break;
+                    case "spirit":
+                        spirit = readInt(reader);
+                        break;
+                    case "charClass":
+                    case "class":
+                        charClass = readString(reader);
+                        break;
+                    case "shield":
+                        shield = readInt(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+            Character character = newCharacter(name, player, xp, body, mind, spirit, charClass, shield);
+            if (character == null) {
+                character = new Character(name, player, xp, body, mind, spirit, charClass);
+            }
+            return character;
+        }
+    }
+
+    /**
+     * type adapter of the party members
+     */
+    private static final class PartyAdapter extends TypeAdapter<Party> {
+
+        @Override
+        public void write(JsonWriter writer, Party party) throws IOException {
+            writer.beginObject();
+            if (party.getCharacter() != null) {
+                writer.name("character");
+                characterAdapter.write(writer, party.getCharacter());
+            }
+            writer.name("hitPoint").value(party.getHitPoint());
+            writer.endObject();
+        }
+
+        @Override
+        public Party read(JsonReader reader) throws IOException {
+            Character character = null;
+            int hitPoint = 0;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "character":
+                        if (reader.peek() == JsonToken.NULL) {
+                            reader.nextNull();
+                        } else {
+                            character = characterAdapter.read(reader);
+                        }
+                        break;
+                    case "hitPoint":
+                        hitPoint = readInt(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return new Party(character, hitPoint);
+        }
+    }
+
+    /**
+     * type adapter of the adventures
+     */
+    private static final class AdventureAdapter extends TypeAdapter<Adventure> {
+
+        @Override
+        public void write(JsonWriter writer, Adventure adventure) throws IOException {
+            writer.beginObject();
+            writeString(writer, "name", adventure.getName());
+            writer.name("num_encounters").value(adventure.getNum_encounters());
+            if (adventure.getEncounters() != null) {
+                writer.name("encounters").beginArray();
+                for (List<Monster> encounter : adventure.getEncounters()) {
+                    if (encounter == null) {
+                        writer.nullValue();
+                    } else {
+                        writeList(writer, encounter, monsterAdapter);
+                    }
+                }
+                writer.endArray();
+            }
+            if (adventure.getParties() != null) {
+                writer.name("parties");
+                writeList(writer, adventure.getParties(), partyAdapter);
+            }
+            writer.endObject();
+        }
+
+        @Override
+        public Adventure read(JsonReader reader) throws IOException {
+            String name = null;
+            int num_encounters = 0;
+            List<List<Monster>> encounters = null;
+            List<Party> parties = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "name":
+                        name = readString(reader);
+                        break;
+                    case "num_encounters":
+                        num_encounters = readInt(reader);
+                        break;
+                    case "encounters":
+                        if (reader.peek() == JsonToken.NULL) {
+                            reader.nextNull();
+                            break;
+                        }
+                        encounters = new ArrayList<>();
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            encounters.add(readList(reader, monsterAdapter));
+                        }
+                        reader.endArray();
+                        break;
+                    case "parties":
+                        parties = readList(reader, partyAdapter);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return new Adventure(name, num_encounters, encounters, parties);
+        }
+    }
+}
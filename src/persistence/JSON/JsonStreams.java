@@ -0,0 +1,179 @@
+package persistence.JSON;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * point queries on a json file holding an object or an array of objects, answered while streaming the file with a
+ * JsonReader. the objects not asked for, and the members not asked for, are skipped token by token without building
+ * any object, and the file is closed as soon as the answer is known
+ * @author Youssef Bat, Alvaro Feher
+ */
+final class JsonStreams {
+
+    /**
+     * reads the value of a member, the reader being positioned on it. it may stop reading as soon as it has its answer
+     * @param <T> type of the answer
+     */
+    interface ValueReader<T> {
+        /**
+         * reads the value of a member
+         * @param reader reader positioned on the value
+         * @return the answer to the query
+         * @throws IOException if the value can not be read
+         */
+        T read(JsonReader reader) throws IOException;
+    }
+
+    /**
+     * utility class, not to be instantiated
+     */
+    private JsonStreams() {
+    }
+
+    /**
+     * reads a member of a json file holding a single object
+     * @param path path of the json file
+     * @param member name of the member
+     * @param valueReader reads the value of the member
+     * @param missing the answer if the object has no such member, or the file does not exist
+     * @param <T> type of the answer
+     * @return the answer
+     * @throws IOException if the file is not an object
+     */
+    static <T> T read(String path, String member, ValueReader<T> valueReader, T missing) throws IOException {
+        try (JsonReader reader = open(path)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals(member)) {
+                    return valueReader.read(reader);
+                }
+                reader.skipValue();
+            }
+            return missing;
+        } catch (FileNotFoundException e) {
+            return missing;
+        }
+    }
+
+    /**
+     * reads a member of the first object of the array of a json file whose key member has a given value
+     * @param path path of the json file
+     * @param keyMember name of the member identifying the objects, such as "name"
+     * @param key value of the key member of the object
+     * @param member name of the member to read
+     * @param valueReader reads the value of the member
+     * @param missing the answer if there is no such object or member, or the file does not exist
+     * @param <T> type of the answer
+     * @return the answer
+     * @throws IOException if the file is not an array of objects
+     */
+    static <T> T find(String path, String keyMember, String key, String member, ValueReader<T> valueReader, T missing) throws IOException {
+        try (JsonReader reader = open(path)) {
+            if (!beginArray(reader)) {
+                return missing;
+            }
+            while (reader.hasNext()) {
+                reader.beginObject();
+                boolean matches = false;
+                JsonElement buffered = null;
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (name.equals(keyMember)) {
+                        if (reader.peek() == JsonToken.STRING) {
+                            matches = reader.nextString().equals(key);
+                        } else {
+                            reader.skipValue();
+                        }
+                        if (!matches) {
+                            break;
+                        }
+                        if (buffered != null) {
+                            return valueReader.read(new JsonReader(new StringReader(buffered.toString())));
+                        }
+                    }
+                    else if (name.equals(member)) {
+                        if (matches) {
+                            return valueReader.read(reader);
+                        }
+                        // the key comes after the member, which is kept until the key is known
+                        buffered = JsonParser.parseReader(reader);
+                    }
+                    else {
+                        reader.skipValue();
+                    }
+                }
+                if (matches) {
+                    return missing;
+                }
+                while (reader.hasNext()) {
+                    reader.nextName();
+                    reader.skipValue();
+                }
+                reader.endObject();
+            }
+            return missing;
+        } catch (FileNotFoundException e) {
+            return missing;
+        }
+    }
+
+    /**
+     * skips the elements of an array up to a position
+     * @param reader reader positioned on the array
+     * @param index position of the element
+     * @return true if the reader is positioned on the element, false if the array is shorter
+     * @throws IOException if the value is not an array
+     */
+    static boolean skipTo(JsonReader reader, int index) throws IOException {
+        reader.beginArray();
+        for (int i = 0; i < index; i++) {
+            if (!reader.hasNext()) {
+                return false;
+            }
+            reader.skipValue();
+        }
+        return index >= 0 && reader.hasNext();
+    }
+
+    /**
+     * opens a json file for reading
+     * @param path path of the json file
+     * @return the reader
+     * @throws FileNotFoundException if the file does not exist
+     */
+    private static JsonReader open(String path) throws FileNotFoundException {
+        return new JsonReader(new BufferedReader(new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * starts reading the array of a json file
+     * @param reader reader of the file
+     * @return false if the file is empty or holds null
+     * @throws IOException if the file is not an array
+     */
+    private static boolean beginArray(JsonReader reader) throws IOException {
+        JsonToken token;
+        try {
+            token = reader.peek();
+        } catch (EOFException e) {
+            return false;
+        }
+        if (token == JsonToken.NULL) {
+            return false;
+        }
+        reader.beginArray();
+        return true;
+    }
+}
@@ -1,13 +1,10 @@
 package persistence.JSON;
 import business.entities.Monster;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
+import persistence.DataDirectory;
 import persistence.MonsterDAO;
 
 import java.io.*;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -20,7 +17,7 @@ import java.util.Objects;
 
 public class MonstersJsonDAO implements MonsterDAO {
 
-    private static final String path = "data/monsters.json";
+    private static final String path = DataDirectory.resolve("monsters.json");
 
 
 
@@ -42,7 +39,7 @@ public class MonstersJsonDAO implements MonsterDAO {
         List<Monster> list;
         try {
             reader = new JsonReader(new FileReader(path));
-            list = new Gson().fromJson(reader, new TypeToken<List<Monster>>() {}.getType());
+            list = JsonSerialization.COMPACT.fromJson(reader, JsonSerialization.MONSTER_LIST);
             if (list == null) {
                 list = new ArrayList<>();
             }
@@ -53,29 +50,18 @@ public class MonstersJsonDAO implements MonsterDAO {
     }
 
     /**
-     * gets the initial value of a monster by its name
+     * gets the initial value of a monster by its name, streaming the file until the monster is found
      * @param monster_name name of monster
      * @return the initial value of a monster
      */
     @Override
     public int getInitValueByName(String monster_name) {
-        JsonReader reader ;
-        List<Monster> list;
         try {
-            reader = new JsonReader(new FileReader(path));
-            list = new Gson().fromJson(reader, new TypeToken<List<Monster>>() {}.getType());
-            if (list == null) {
-                return Integer.MIN_VALUE;
-            }
-        } catch (FileNotFoundException e) {
+            return JsonStreams.find(path, "name", monster_name, "initiative", JsonReader::nextInt, Integer.MIN_VALUE);
+        } catch (IOException e) {
+            e.printStackTrace();
             return Integer.MIN_VALUE;
         }
-        for (Monster monster : list) {
-            if (Objects.equals(monster_name, monster.getName())) {
-                return monster.getInitiative();
-            }
-        }
-        return Integer.MIN_VALUE;
     }
 
 
@@ -3,6 +3,7 @@ package persistence;
 import business.entities.Monster;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * interface of monster json data access object
@@ -15,6 +16,14 @@ public interface MonsterDAO {
      */
     List<Monster> getAll();
 
+    /**
+     * get all the monsters in the dataset without blocking the caller if the dataset is remote
+     * @return a future with a list of all the monsters
+     */
+    default CompletableFuture<List<Monster>> getAllAsync() {
+        return CompletableFuture.completedFuture(getAll());
+    }
+
     /**
      * gets the initial value of a monster by its name
      * @param monster_name name of monster
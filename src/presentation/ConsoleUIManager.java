@@ -1,15 +1,19 @@
 package presentation;
 
 
+import business.InitiativeTracker;
+import business.entities.Adventure;
 import business.entities.Character;
 import business.entities.Classes.Paladin;
 import business.entities.Classes.Wizard;
 import business.entities.Monster;
 import business.entities.Party;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Objects;
 import java.util.Scanner;
+import java.util.function.Consumer;
 
 /**
  * represents the visualisation part of the program, is the direct interface with the user. where the user will read the messages and has to input things if required
@@ -20,11 +24,43 @@ public class ConsoleUIManager {
      * Scanner used to scan user inputs
      */
     private final Scanner scanner;
+    /**
+     * receives every line the user enters, null if nobody listens
+     */
+    private Consumer<String> inputListener;
     /**
      * Default constructor that creates a scanner object
      */
     public ConsoleUIManager() {
-        scanner = new Scanner(System.in);
+        this(System.in);
+    }
+
+    /**
+     * constructor that reads the user inputs from a given stream instead of the console
+     * @param in stream with the user inputs, one per line
+     */
+    public ConsoleUIManager(InputStream in) {
+        scanner = new Scanner(in);
+    }
+
+    /**
+     * sets who receives every line the user enters, such as a recording of the run
+     * @param inputListener receiver of the lines, null to stop sending them
+     */
+    public void setInputListener(Consumer<String> inputListener) {
+        this.inputListener = inputListener;
+    }
+
+    /**
+     * reads a line entered by the user, handing it to the input listener
+     * @return the line
+     */
+    private String readLine() {
+        String line = scanner.nextLine();
+        if (inputListener != null) {
+            inputListener.accept(line);
+        }
+        return line;
     }
 
 
@@ -84,7 +120,7 @@ public class ConsoleUIManager {
                         """);
             System.out.print(ENTER_ANSWER);
             try{
-                int option = Integer.parseInt(scanner.nextLine());
+                int option = Integer.parseInt(readLine());
                 switch(option){
                     case 1: return StorageMenuOptions.LOCAL;
                     case 2: return StorageMenuOptions.CLOUD;
@@ -113,7 +149,7 @@ public class ConsoleUIManager {
             }
             System.out.print(ENTER_OPTION);
             try {
-                int option = Integer.parseInt(scanner.nextLine());
+                int option = Integer.parseInt(readLine());
                 switch (option) {
                     case 1: return MainMenuOptions.CHARACTER_CREATION;
                     case 2: return MainMenuOptions.LIST_CHARACTERS;
@@ -136,6 +172,38 @@ public class ConsoleUIManager {
         System.out.println(MessageView.EXIT);
     }
 
+    /**
+     * shows the result of the replay of a recorded run
+     * @param inputs number of lines entered during the run
+     * @param millis time the replay took, in milliseconds
+     * @param complete true if the run got to the exit, false if the recording ended before
+     * @param directory data directory the replay left its data files in
+     */
+    public void showReplayResult(int inputs, long millis, boolean complete, String directory) {
+        System.out.println("Replayed " + inputs + " inputs in " + millis + " ms"
+                + (complete ? "." : ", the recording ended before the exit."));
+        System.out.println("Data files: " + directory);
+    }
+
+    /**
+     * shows the adventure of the combat that was being played when a replayed run stopped
+     * @param adventure the adventure, as rebuilt from the combat log
+     * @param events amount of events in the combat log
+     */
+    public void showInterruptedCombat(Adventure adventure, int events) {
+        System.out.println("The run stopped during a combat of " + adventure.getName() + ", after " + events + " combat events. From the combat log:");
+        if (adventure.getParties() != null) {
+            for (Party party : adventure.getParties()) {
+                System.out.println("\t- " + party.getCharacter().getName() + ": " + party.getHitPoint() + " hit points");
+            }
+        }
+        for (int i = 0; i < adventure.getEncounters().size(); i++) {
+            for (Monster monster : adventure.getEncounters().get(i)) {
+                System.out.println("\t- Encounter " + (i + 1) + ", " + monster.getName() + ": " + monster.getHitPoints() + " hit points");
+            }
+        }
+    }
+
     /**
      * shows the user a message, and gets a string value based on that message
      * @param message the message that the user will interact with by entering a string
@@ -143,7 +211,7 @@ public class ConsoleUIManager {
      */
     private String getStringValue(String message) {
         System.out.print(message);
-        return scanner.nextLine();
+        return readLine();
     }
 
     /**
@@ -155,7 +223,7 @@ public class ConsoleUIManager {
         do {
             try {
                 System.out.print(message);
-                return Integer.parseInt(scanner.nextLine());
+                return Integer.parseInt(readLine());
             } catch (NumberFormatException nfe) {
                 System.out.println(MessageView.INTEGER_EXCEPTION);
             }
@@ -818,13 +886,12 @@ public class ConsoleUIManager {
 
     /**
      * shows the combatants sorted by their initial value
-     * @param combatants_name the name of all the combatants
-     * @param combatants_init_value the initiative values of all the combatants
+     * @param combatants the initiative tracker with the combatants of the encounter
      */
-    public void showRollingInitiative(List<String> combatants_name, List<Integer> combatants_init_value) {
+    public void showRollingInitiative(InitiativeTracker combatants) {
         System.out.println("\nRolling initiative...");
-        for (int i=0;i< combatants_init_value.size();i++) {
-            System.out.println("\t- " + combatants_init_value.get(i) + " \t" + combatants_name.get(i));
+        for (int i=0;i< combatants.size();i++) {
+            System.out.println("\t- " + combatants.getInitiative(i) + " \t" + combatants.getName(i));
         }
     }
 
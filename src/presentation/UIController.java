@@ -5,10 +5,15 @@ import business.*;
 import business.entities.*;
 import business.entities.Character;
 import business.entities.Classes.*;
-import persistence.JSON.CharacterJsonDAO;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * controls the interaction of the user input with the system
@@ -19,17 +24,103 @@ public class UIController {
     private final MonsterManager monsterManager;
     private final AdventureManager adventureManager;
     private CombatantManager combatantManager;
+    private final ReplayManager replayManager;
+    /**
+     * order of the turns of the encounter being fought, reused from one encounter to the next
+     */
+    private final InitiativeTracker initiative;
 
     private boolean isLocal = true; // temporary variable for storage management
     /**
      * default constructor
      */
     public UIController() {
-        consoleUI = new ConsoleUIManager();
+        this(new ConsoleUIManager(), new ReplayManager());
+    }
+
+    /**
+     * constructor
+     * @param consoleUI console the user interacts with
+     * @param replayManager manager of the recording of the run
+     */
+    private UIController(ConsoleUIManager consoleUI, ReplayManager replayManager) {
+        this.consoleUI = consoleUI;
+        this.replayManager = replayManager;
         characterManager = new CharacterManager();
         adventureManager = new AdventureManager();
         monsterManager = new MonsterManager();
         combatantManager = new CombatantManager();
+        initiative = new InitiativeTracker();
+    }
+
+    /**
+     * creates a controller whose run is recorded into a replay file, with the seed of the dice, the local data files
+     * as they are before anything is loaded and every line the user enters
+     * @param path path of the replay file
+     * @return the controller, whose run is not recorded if the replay file can not be created
+     */
+    public static UIController record(Path path) {
+        ReplayManager replayManager = new ReplayManager();
+        boolean recording = replayManager.record(path);
+        UIController controller = new UIController(new ConsoleUIManager(), replayManager);
+        if (recording) {
+            controller.consoleUI.setInputListener(replayManager::recordInput);
+        }
+        return controller;
+    }
+
+    /**
+     * replays a recorded run without showing anything, as fast as it can run, on a copy of its data files. only the
+     * runs with local data can be reproduced, the cloud data is not part of the recording. an error thrown by the run
+     * is shown, since reproducing it is usually the point of the replay
+     * @param path path of the replay file
+     */
+    public static void replay(Path path) {
+        ReplayManager replayManager = new ReplayManager();
+        List<String> inputs;
+        try {
+            // the data directory has to be replaced before any manager is created
+            inputs = replayManager.prepareReplay(path);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (String input : inputs) {
+            lines.append(input).append('\n');
+        }
+        ConsoleUIManager console = new ConsoleUIManager(new ByteArrayInputStream(lines.toString().getBytes(Charset.defaultCharset())));
+        PrintStream out = System.out;
+        boolean complete = true;
+        boolean failed = false;
+        long start = System.nanoTime();
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        UIController controller = new UIController(console, replayManager);
+        try {
+            controller.startProgram();
+        } catch (NoSuchElementException e) {
+            // the recording ended before the user exited the program
+            complete = false;
+        } catch (Exception e) {
+            failed = true;
+            e.printStackTrace();
+        } finally {
+            System.setOut(out);
+        }
+        console.showReplayResult(inputs.size(), (System.nanoTime() - start) / 1_000_000, complete, replayManager.getReplayDirectory().toString());
+        if (failed || !complete) {
+            controller.showInterruptedCombat();
+        }
+    }
+
+    /**
+     * shows the combat that was being played when a replayed run stopped, as rebuilt from its combat log
+     */
+    private void showInterruptedCombat() {
+        int events = adventureManager.getCombatLogSize();
+        if (events >= 0) {
+            consoleUI.showInterruptedCombat(adventureManager.replayCombatLog(events), events);
+        }
     }
 
     /**
@@ -44,6 +135,7 @@ public class UIController {
         }
 
         loadAndConnect();
+        replayManager.stop();
     }
 
     /**
@@ -247,17 +339,24 @@ public class UIController {
      */
     private void startAdventure() {
 
-        int adventure_size = adventureManager.getSize();
+        //adventures, characters and monsters are retrieved at the same time instead of one after the other
+        CompletableFuture<List<String>> adventureNamesFuture = adventureManager.getAdventureNamesAsync();
+        CompletableFuture<List<String>> characterNamesFuture = characterManager.getAllCharacterNamesAsync();
+        CompletableFuture<MonsterCatalog> catalogFuture = monsterManager.getCatalogAsync();
+        CompletableFuture.allOf(adventureNamesFuture, characterNamesFuture, catalogFuture).join();
+        List<String> adventureNames = adventureNamesFuture.join();
+        List<String> characterNames = characterNamesFuture.join();
+
+        int adventure_size = adventureNames.size();
         consoleUI.startAdventureMsg(adventure_size);
         if (adventure_size > 0) {
             for (int i = 0; i < adventure_size; i++) {
-                consoleUI.showAvailableAdventures(i, adventureManager.getAdventureNameByIndex(i));
+                consoleUI.showAvailableAdventures(i, adventureNames.get(i));
             }
             int adventure_index = consoleUI.chooseAdventure(adventure_size) - 1;
-            String currentAdventure = adventureManager.getAdventureNameByIndex(adventure_index);
+            String currentAdventure = adventureNames.get(adventure_index);
 
-            Adventure adventure_copy = adventureManager.getCopyAdventure(currentAdventure);
-            int characterCount = characterManager.getCharacterCount();
+            int characterCount = characterNames.size();
             int characterNum = consoleUI.chooseNumOfCharactersAdventure(currentAdventure, characterCount);
 ;
 
@@ -267,8 +366,8 @@ public class UIController {
 
             for (int i = 1; i <= characterNum; i++) {
                 consoleUI.showCurrentParty(characterManager.getPartyNames(parties_inx), characterNum, i - 1);
-                consoleUI.showAvailableCharacters(characterManager.getAllCharacterNames());
-                int num_characters = characterManager.getCharacterCount();
+                consoleUI.showAvailableCharacters(characterNames);
+                int num_characters = characterNames.size();
                 int chosenCharacterIndex = consoleUI.chooseCharacterForParty(i, num_characters) - 1;
 
                 if (adventureManager.checkCharacterRepetition(parties_inx, i - 1, chosenCharacterIndex)) {
@@ -284,6 +383,8 @@ public class UIController {
             //get max hit points
             List<Integer> max_hit_points = characterManager.getMaxHitPointsByindex(parties_inx);
 
+            //the session has to start before the party is stored in the adventure, so the adventure can be reset
+            adventureManager.startCombatSession(currentAdventure);
             adventureManager.updateParty(currentAdventure, parties_inx);
 
             for (int i = 0; i < adventureManager.getNumOfEncountersByName(currentAdventure); i++) {
@@ -301,14 +402,15 @@ public class UIController {
                 adventureManager.updatePartyInPrepStage(currentAdventure, parties_inx);
                 consoleUI.showPrepStageActions(adventureManager.getCharactersFromParty(currentAdventure));
 
-                List<Combatant> combatants = combatantManager.rollInitiative(characterManager.getPartyNames(parties_inx), adventureManager.getMonsterNamesInEncounterUnfiltered(i, currentAdventure));
-                consoleUI.showRollingInitiative(combatantManager.getNames(combatants), combatantManager.getInitValues(combatants));
+                combatantManager.rollInitiative(initiative, characterManager.getPartyNames(parties_inx), adventureManager.getMonsterNamesInEncounterUnfiltered(i, currentAdventure));
+                consoleUI.showRollingInitiative(initiative);
 
                 //combat stage
-                combatStage(i, parties_inx, currentAdventure, max_hit_points, combatants);
+                combatStage(i, parties_inx, currentAdventure, max_hit_points, initiative);
 
                 if (adventureManager.isTPU(currentAdventure)) {
                     consoleUI.showTPU();
+                    adventureManager.endCombatSession();
                     run();
                 }
 
@@ -316,10 +418,12 @@ public class UIController {
                 shortRestStageXp(parties_inx, currentAdventure, xp_gain);  // gain xp
                 adventureManager.updatePartyInShortRestStage(currentAdventure,parties_inx); // character actions
                 consoleUI.showShortRestActions(adventureManager.getCharactersFromParty(currentAdventure));
+                adventureManager.flushCombatSession();
             }
 
+            adventureManager.endCombatSession();
             consoleUI.showPartyCompleteAdventure(currentAdventure);
-            adventureManager.resetAdventure(adventure_copy);
+            adventureManager.resetAdventure(currentAdventure);
         }
 
         run();
@@ -333,29 +437,29 @@ public class UIController {
      * @param parties_inx the parties in an adventure
      * @param currentAdventure the name of the adventure
      * @param max_hit_points a list of the maximum hit points of the parties
-     * @param combatants a list of the combatant in an encounter
+     * @param combatants the combatants of the encounter, sorted by initiative
      */
-    private void combatStage(int encounter_pos, int[] parties_inx, String currentAdventure, List<Integer> max_hit_points, List<Combatant> combatants) {
+    private void combatStage(int encounter_pos, int[] parties_inx, String currentAdventure, List<Integer> max_hit_points, InitiativeTracker combatants) {
         consoleUI.startCombatStage();
-        List<String> combatants_name = combatantManager.getNames(combatants);
 
-        int[] deadCombatants = new int[combatants_name.size()]; // track which combatants are alive or dead: 0 = alive ; 1 = dead
+        int[] deadCombatants = new int[combatants.size()]; // track which combatants are alive or dead: 0 = alive ; 1 = dead
         int round = 0;
 
         while(!adventureManager.isCombatEnd(currentAdventure, encounter_pos)) {
 
             consoleUI.showRoundCombatStage(round, characterManager.getPartyNames(parties_inx), adventureManager.getHitPointsByindex(currentAdventure), max_hit_points);
 
-            for (Combatant c : combatants) {
+            for (combatants.firstTurn(); combatants.hasTurn(); combatants.nextTurn()) {
+                String name = combatants.getTurnName();
                 int actionValue;
-                String damageType;
+                DamageType damageType;
                 int rollDiced = adventureManager.isItAHit();
-                if (adventureManager.isCombatantMonster(currentAdventure, encounter_pos, c.getName())) {
-                    if (adventureManager.isMonsterAlive(currentAdventure, encounter_pos, c.getName())) {
-                        actionValue = adventureManager.takeAttackActionMonster(currentAdventure, encounter_pos, c.getName());
-                        damageType = monsterManager.getDamageTypeOfMonster(c.getName());
+                if (adventureManager.isCombatantMonster(currentAdventure, encounter_pos, name)) {
+                    if (adventureManager.isMonsterAlive(currentAdventure, encounter_pos, name)) {
+                        actionValue = adventureManager.takeAttackActionMonster(currentAdventure, encounter_pos, name);
+                        damageType = monsterManager.getDamageTypeOfMonster(name);
                         String party;
-                        if(adventureManager.isMonsterBoss(c.getName())){
+                        if(adventureManager.isMonsterBoss(name)){
                             party = adventureManager.applyDamageOnAllParty(actionValue*rollDiced,currentAdventure,damageType);
                         }else{
                             party = adventureManager.applyDamageOnRandomConsciousParty(actionValue * rollDiced, currentAdventure, parties_inx, damageType);
@@ -363,29 +467,23 @@ public class UIController {
                         if (party == null) {
                             return;
                         }
-                        consoleUI.showAttackAction(adventureManager.getCharactersFromParty(currentAdventure),null,adventureManager.isMonsterBoss(c.getName()),0, c.getName(), party, rollDiced, actionValue * rollDiced,"physical");
+                        consoleUI.showAttackAction(adventureManager.getCharactersFromParty(currentAdventure),null,adventureManager.isMonsterBoss(name),0, name, party, rollDiced, actionValue * rollDiced,"physical");
                     }
                 }
                 else {
-                    if (adventureManager.isPartyAlive(currentAdventure, c.getName())) {
+                    if (adventureManager.isPartyAlive(currentAdventure, name)) {
 
                         // we are considering both healing and damage value as the same
-                        actionValue = adventureManager.takeAttackActionCharacter(currentAdventure, c.getName(), adventureManager.currentAliveMonsters(combatants, currentAdventure, encounter_pos), adventureManager.checkPartyHalfHp(currentAdventure,max_hit_points));
+                        actionValue = adventureManager.takeAttackActionCharacter(currentAdventure, name, adventureManager.currentAliveMonsters(combatants, currentAdventure, encounter_pos), adventureManager.checkPartyHalfHp(currentAdventure,max_hit_points));
 
                         // find character by name
-                        Party p = adventureManager.getPartyMemberByName(currentAdventure, c.getName());
+                        Party p = adventureManager.getPartyMemberByName(currentAdventure, name);
 
                         if (p != null) {
 
-                        Character ch = p.getCharacter(new CharacterJsonDAO());
+                        Character ch = p.getCharacter();
 
-                        String attackType = "";
-                        if (ch instanceof Adventurer || ch instanceof Warrior || ch instanceof Champion) {
-                            attackType = "Physical";
-                        } else if (ch instanceof Wizard) {
-                            attackType = "Magical";
-                        } else
-                            attackType = "Psychical";
+                        DamageType attackType = ch.getCharacterClass() == null ? DamageType.PSYCHICAL : ch.getCharacterClass().getAttackType();
 
                         // fireball to all alive monsters
                         if ((adventureManager.currentAliveMonsters(combatants, currentAdventure, encounter_pos) > 3 && ch instanceof Wizard) && !adventureManager.checkHealingNeeded(currentAdventure, max_hit_points)) {
@@ -409,7 +507,7 @@ public class UIController {
 
                         } else {  // attacks to a random monster
                             String monster = adventureManager.applyDamageOnRandomMonsterInEncounter(actionValue * rollDiced, currentAdventure, encounter_pos, attackType);
-                            consoleUI.showAttackAction(null,ch.getCharClass(),false,1, c.getName(), monster, rollDiced, actionValue * rollDiced, adventureManager.getDamageTypeOfAttack(c.getName(), currentAdventure));
+                            consoleUI.showAttackAction(null,ch.getCharClass(),false,1, name, monster, rollDiced, actionValue * rollDiced, adventureManager.getDamageTypeOfAttack(name, currentAdventure));
                         }
                     }
                     }